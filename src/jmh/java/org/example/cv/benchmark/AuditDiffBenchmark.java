@@ -0,0 +1,175 @@
+package org.example.cv.benchmark;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.example.cv.constants.TaskPriority;
+import org.example.cv.constants.TaskStatus;
+import org.example.cv.event.AuditFieldTable;
+import org.example.cv.models.entities.ProjectEntity;
+import org.example.cv.models.entities.TaskEntity;
+import org.openjdk.jmh.annotations.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * So sánh các cách tính diff cho audit log trên một TaskEntity đổi 2 field:
+ * reflective getter + nối chuỗi (cách cũ), getter sinh bằng LambdaMetafactory,
+ * và bảng field trên mảng state của Hibernate (cách hiện tại), có và không serialize JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditDiffBenchmark {
+
+    private static final String[] PROPERTY_NAMES = {
+        "createdAt", "updatedAt", "deletedAt", "title", "description", "deadline", "status", "priority", "project"
+    };
+
+    private TaskEntity oldTask;
+    private TaskEntity newTask;
+    private Object[] oldState;
+    private Object[] newState;
+    private int[] dirty;
+
+    private List<Method> reflectiveGetters;
+    private String[] generatedNames;
+    private Function<Object, Object>[] generatedGetters;
+    private AuditFieldTable fieldTable;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Setup
+    public void setUp() throws Throwable {
+        ProjectEntity project = new ProjectEntity();
+        project.setId(10L);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        oldTask = TaskEntity.builder()
+                .id(1L)
+                .title("Write report")
+                .description("Quarterly numbers")
+                .deadline(now)
+                .status(TaskStatus.TODO)
+                .priority(TaskPriority.MEDIUM)
+                .project(project)
+                .build();
+        newTask = TaskEntity.builder()
+                .id(1L)
+                .title("Write final report")
+                .description("Quarterly numbers")
+                .deadline(now)
+                .status(TaskStatus.IN_PROGRESS)
+                .priority(TaskPriority.MEDIUM)
+                .project(project)
+                .build();
+        oldState = toState(oldTask);
+        newState = toState(newTask);
+        // Hibernate cung cấp sẵn dirty indexes: title, status
+        dirty = new int[] {3, 6};
+
+        reflectiveGetters = Arrays.stream(TaskEntity.class.getDeclaredMethods())
+                .filter(m -> m.getName().startsWith("get"))
+                .filter(m -> m.getParameterCount() == 0)
+                .filter(m -> !m.getName().equals("getId") && !m.getName().equals("getClass"))
+                .filter(m -> m.getReturnType().getPackageName().startsWith("java"))
+                .toList();
+
+        generatedNames = new String[reflectiveGetters.size()];
+        @SuppressWarnings("unchecked")
+        Function<Object, Object>[] getters = (Function<Object, Object>[]) new Function<?, ?>[reflectiveGetters.size()];
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < reflectiveGetters.size(); i++) {
+            Method method = reflectiveGetters.get(i);
+            MethodHandle handle = lookup.unreflect(method);
+            generatedNames[i] = method.getName().substring(3);
+            getters[i] = (Function<Object, Object>) LambdaMetafactory.metafactory(
+                            lookup,
+                            "apply",
+                            MethodType.methodType(Function.class),
+                            MethodType.methodType(Object.class, Object.class),
+                            handle,
+                            handle.type())
+                    .getTarget()
+                    .invokeExact();
+        }
+        generatedGetters = getters;
+
+        AuditFieldTable.ValueRenderer identity = (value, session) -> value;
+        AuditFieldTable.ValueRenderer toText = (value, session) -> value.toString();
+        AuditFieldTable.ValueRenderer enumName = (value, session) -> ((Enum<?>) value).name();
+        AuditFieldTable.ValueRenderer entityId = (value, session) -> ((ProjectEntity) value).getId();
+        fieldTable = AuditFieldTable.of(PROPERTY_NAMES, new AuditFieldTable.ValueRenderer[] {
+            null, null, toText, identity, identity, toText, enumName, enumName, entityId
+        });
+    }
+
+    private static Object[] toState(TaskEntity task) {
+        return new Object[] {
+            task.getCreatedAt(),
+            task.getUpdatedAt(),
+            task.getDeletedAt(),
+            task.getTitle(),
+            task.getDescription(),
+            task.getDeadline(),
+            task.getStatus(),
+            task.getPriority(),
+            task.getProject()
+        };
+    }
+
+    @Benchmark
+    public String reflectiveGetters() throws Exception {
+        StringBuilder changes = new StringBuilder();
+        for (Method method : reflectiveGetters) {
+            Object oldValue = method.invoke(oldTask);
+            Object newValue = method.invoke(newTask);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.append(method.getName().substring(3))
+                        .append(": '")
+                        .append(oldValue)
+                        .append("' -> '")
+                        .append(newValue)
+                        .append("'; ");
+            }
+        }
+        return changes.toString();
+    }
+
+    @Benchmark
+    public Map<String, List<Object>> generatedGetters() {
+        Map<String, List<Object>> changes = new LinkedHashMap<>();
+        for (int i = 0; i < generatedGetters.length; i++) {
+            Object oldValue = generatedGetters[i].apply(oldTask);
+            Object newValue = generatedGetters[i].apply(newTask);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.put(generatedNames[i], Arrays.asList(oldValue, newValue));
+            }
+        }
+        return changes;
+    }
+
+    @Benchmark
+    public Map<String, List<Object>> snapshotFieldTable() {
+        return fieldTable.diff(oldState, newState, dirty, null);
+    }
+
+    @Benchmark
+    public String snapshotFieldTableJson() throws Exception {
+        return objectMapper.writeValueAsString(fieldTable.diff(oldState, newState, dirty, null));
+    }
+}
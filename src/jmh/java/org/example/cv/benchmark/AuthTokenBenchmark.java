@@ -0,0 +1,217 @@
+package org.example.cv.benchmark;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import org.example.cv.configuration.CustomJwtDecoder;
+import org.example.cv.configuration.CustomUserDetailService;
+import org.example.cv.configuration.JwtAuthenticationFilter;
+import org.example.cv.configuration.PrincipalCache;
+import org.example.cv.models.entities.RoleEntity;
+import org.example.cv.models.entities.UserEntity;
+import org.example.cv.models.requests.IntrospectRequest;
+import org.example.cv.models.responses.IntrospectResponse;
+import org.example.cv.repositories.InvalidedTokenRepository;
+import org.example.cv.repositories.UserRepository;
+import org.example.cv.services.JwtTokenService;
+import org.example.cv.services.impl.AuthenticationServiceImpl;
+import org.example.cv.services.impl.JwtTokenServiceImpl;
+import org.example.cv.utils.security.TokenRevocationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+/**
+ * Chi phí xác thực trên mỗi request: ký token, verify (có và không có cache token đã verify), introspect,
+ * {@link CustomJwtDecoder}, buildScope và cả {@link JwtAuthenticationFilter}, với user store trong bộ nhớ
+ * (không Postgres/Redis). Chạy kèm {@code -prof gc} để xem allocation mỗi op:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="AuthTokenBenchmark -prof gc"}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthTokenBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    @Param({"claims", "fresh-roles"})
+    public String principalSource;
+
+    private UserEntity user;
+    private String token;
+
+    private JwtTokenService jwtTokenService;
+    private JwtTokenService uncachedJwtTokenService;
+    private AuthenticationServiceImpl authenticationService;
+    private CustomJwtDecoder customJwtDecoder;
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    private MethodHandle generateToken;
+    private MethodHandle buildScope;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final CapturingChain chain = new CapturingChain();
+
+    @Setup
+    public void setUp() throws Throwable {
+        user = UserEntity.builder()
+                .id(42L)
+                .username("john_doe")
+                .password("unused")
+                .email("john.doe@example.com")
+                .roles(Set.of(
+                        RoleEntity.builder().name("USER").build(),
+                        RoleEntity.builder().name("ADMIN").build()))
+                .build();
+
+        UserRepository userRepository = inMemory(
+                UserRepository.class,
+                Map.of("findByUsername", args -> Optional.of(user).filter(u -> u.getUsername().equals(args[0]))));
+        InvalidedTokenRepository invalidedTokenRepository = inMemory(
+                InvalidedTokenRepository.class,
+                Map.of("existsById", args -> false, "findAllByExpiryTimeAfter", args -> List.of()));
+
+        TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry(
+                invalidedTokenRepository,
+                new StringRedisTemplate(),
+                new RedisMessageListenerContainer(),
+                event -> {},
+                "token-revocations",
+                100_000,
+                0.01,
+                5_000,
+                3_600_000);
+        revocationRegistry.rebuild();
+
+        jwtTokenService = new JwtTokenServiceImpl(revocationRegistry, SECRET, 50_000);
+        uncachedJwtTokenService = new JwtTokenServiceImpl(revocationRegistry, SECRET, 0);
+
+        authenticationService = new AuthenticationServiceImpl(
+                userRepository, invalidedTokenRepository, null, null, null, jwtTokenService, revocationRegistry, null,
+                null);
+        Field expiration = AuthenticationServiceImpl.class.getDeclaredField("jwtExpiration");
+        expiration.setAccessible(true);
+        expiration.set(authenticationService, 3600L);
+
+        MethodHandles.Lookup lookup =
+                MethodHandles.privateLookupIn(AuthenticationServiceImpl.class, MethodHandles.lookup());
+        Class<?> tokenInfo = Class.forName(AuthenticationServiceImpl.class.getName() + "$TokenInfo");
+        generateToken = lookup.findVirtual(
+                AuthenticationServiceImpl.class,
+                "generateToken",
+                MethodType.methodType(tokenInfo, Long.class, String.class, String.class));
+        buildScope = lookup.findVirtual(
+                AuthenticationServiceImpl.class, "buildScope", MethodType.methodType(String.class, UserEntity.class));
+        MethodHandle tokenOf = lookup.findVirtual(tokenInfo, "token", MethodType.methodType(String.class));
+
+        String scope = (String) buildScope.invoke(authenticationService, user);
+        token = (String)
+                tokenOf.invoke(generateToken.invoke(authenticationService, user.getId(), user.getUsername(), scope));
+
+        customJwtDecoder = new CustomJwtDecoder(jwtTokenService);
+
+        PrincipalCache principalCache = new PrincipalCache(
+                new CustomUserDetailService(userRepository), "fresh-roles".equals(principalSource), 60, 10_000);
+        Constructor<JwtAuthenticationFilter> filterConstructor =
+                JwtAuthenticationFilter.class.getDeclaredConstructor(JwtTokenService.class, PrincipalCache.class);
+        filterConstructor.setAccessible(true);
+        jwtAuthenticationFilter = filterConstructor.newInstance(jwtTokenService, principalCache);
+
+        request = new MockHttpServletRequest("GET", "/projects");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object generateToken() throws Throwable {
+        return generateToken.invoke(authenticationService, user.getId(), user.getUsername(), "ROLE_USER ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public String buildScope() throws Throwable {
+        return (String) buildScope.invoke(authenticationService, user);
+    }
+
+    @Benchmark
+    public JwtTokenService.VerifiedToken verifyTokenCached() {
+        return jwtTokenService.verify(token);
+    }
+
+    @Benchmark
+    public JwtTokenService.VerifiedToken verifyTokenUncached() {
+        return uncachedJwtTokenService.verify(token);
+    }
+
+    @Benchmark
+    public IntrospectResponse introspect() {
+        return authenticationService.introspect(new IntrospectRequest(token));
+    }
+
+    @Benchmark
+    public Jwt customJwtDecoderDecode() {
+        return customJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Authentication jwtAuthenticationFilter() throws ServletException, IOException {
+        try {
+            jwtAuthenticationFilter.doFilter(request, response, chain);
+            return chain.authentication;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static final class CapturingChain implements FilterChain {
+        private Authentication authentication;
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response) {
+            authentication = SecurityContextHolder.getContext().getAuthentication();
+        }
+    }
+
+    // Repository trong bộ nhớ: chỉ các method được khai báo, còn lại ném lỗi để benchmark không âm thầm sai
+    @SuppressWarnings("unchecked")
+    private static <T> T inMemory(Class<T> type, Map<String, Function<Object[], Object>> methods) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Function<Object[], Object> implementation = methods.get(method.getName());
+            if (implementation != null) {
+                return implementation.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + "(in-memory)";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            };
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.cv.benchmark;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.example.cv.constants.TaskPriority;
+import org.example.cv.constants.TaskStatus;
+import org.example.cv.models.responses.*;
+import org.example.cv.utils.cache.CacheEnvelope;
+import org.example.cv.utils.cache.CacheSerializers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * So sánh serializer JSON (kèm tên class) và Smile (type id đăng ký) cho Redis cache tier:
+ * thời gian encode/decode và kích thước payload (cột {@code payloadBytes} của {@code encode}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheSerializerBenchmark {
+
+    @Param({"json", "smile"})
+    public String format;
+
+    @Param({"task", "project", "projectPage"})
+    public String payload;
+
+    private RedisSerializer<Object> serializer;
+    private Object value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        serializer = "json".equals(format) ? CacheSerializers.json() : CacheSerializers.smile();
+        value = new CacheEnvelope(samplePayload(payload), System.currentTimeMillis(), 12);
+        encoded = serializer.serialize(value);
+    }
+
+    /**
+     * Kích thước payload, JMH báo cạnh thời gian encode thay vì in ra stdout.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class PayloadSize {
+        public long payloadBytes;
+    }
+
+    private static Object samplePayload(String payload) {
+        return switch (payload) {
+            case "task" -> task(1);
+            case "project" -> project(1);
+            default -> new PageResponse<>(
+                    IntStream.rangeClosed(1, 20).mapToObj(CacheSerializerBenchmark::project).toList(),
+                    0,
+                    20,
+                    240,
+                    12,
+                    false);
+        };
+    }
+
+    private static TaskResponse task(long id) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return new TaskResponse(
+                id,
+                "Thiết kế API #" + id,
+                "Thiết kế các endpoint RESTful cho Task",
+                TaskStatus.IN_PROGRESS,
+                TaskPriority.HIGH,
+                now.plus(3, ChronoUnit.DAYS),
+                now,
+                new ProjectSummaryResponse(7L, "Task Manager App"),
+                List.of(
+                        new UserSummaryResponse(10L, "johndoe", "John Doe"),
+                        new UserSummaryResponse(11L, "janedoe", "Jane Doe")),
+                false);
+    }
+
+    private static UserResponse user(long id) {
+        return UserResponse.builder()
+                .id(id)
+                .username("user" + id)
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .email("user" + id + "@example.com")
+                .roles(Set.of(new RoleResponse("USER", "Default role")))
+                .build();
+    }
+
+    private static ProjectResponse project(long id) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        return ProjectResponse.builder()
+                .id(id)
+                .name("Project " + id)
+                .description("This is a sample project.")
+                .owner(user(1))
+                .members(Set.of(user(2), user(3), user(4)))
+                .endDate(now.plus(30, ChronoUnit.DAYS))
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] encode(PayloadSize size) {
+        byte[] bytes = serializer.serialize(value);
+        size.payloadBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object decode() {
+        return serializer.deserialize(encoded);
+    }
+}
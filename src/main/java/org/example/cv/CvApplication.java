@@ -4,10 +4,12 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.core.Ordered;
 
 @SpringBootApplication
 @EnableFeignClients(basePackages = "org.example.cv.repositories.httpclient")
-@EnableCaching
+// Order cao hơn CacheTagAspect để tag chỉ được ghi khi method thực sự chạy (cache miss)
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 100)
 public class CvApplication {
 
     public static void main(String[] args) {
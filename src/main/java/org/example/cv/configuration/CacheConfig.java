@@ -4,34 +4,47 @@ import static org.example.cv.constants.CacheConstant.*;
 
 import java.time.Duration;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
 import javax.cache.Caching;
 import javax.cache.spi.CachingProvider;
 
+import org.example.cv.utils.cache.CacheCoalescer;
+import org.example.cv.utils.cache.CacheSerializers;
+import org.example.cv.utils.cache.RefreshAheadPolicy;
+import org.example.cv.utils.cache.TwoLevelCacheManager;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
+import org.redisson.config.SingleServerConfig;
 import org.redisson.jcache.configuration.RedissonConfiguration;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.CacheManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.cache.Cache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.cache.interceptor.SimpleCacheErrorHandler;
-import org.springframework.cache.support.CompositeCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.BatchStrategies;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StringUtils;
 
-import com.fasterxml.jackson.annotation.JsonAutoDetect;
-import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.github.benmanes.caffeine.cache.Caffeine;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import lombok.extern.slf4j.Slf4j;
 
 @Configuration
@@ -44,32 +57,105 @@ public class CacheConfig {
     @Value("${cache.redis.ttl.project-detail:300}") // TTL riêng cho project detail
     private long projectDetailTtl;
 
+    @Value("${cache.redis.ttl.negative-lookups:30}") // TTL ngắn cho các ID không tồn tại
+    private long negativeLookupTtl;
+
+    @Value("${cache.redis.serializer:smile}") // smile (nhị phân, type id đăng ký) hoặc json
+    private String redisSerializer;
+
+    @Value("${cache.caffeine.ttl:600}") // TTL của caffeineCacheManager và TTL tối đa của L1 trong cache hai tầng
+    private long localTtl;
+
+    @Value("${cache.caffeine.maximum-size:1000}")
+    private long localMaximumSize;
+
+    @Value("${cache.invalidation.channel:cache-invalidation}")
+    private String invalidationChannel;
+
+    @Value("${cache.coalescing.distributed-lock.enabled:false}")
+    private boolean distributedLockEnabled;
+
+    @Value("${cache.coalescing.distributed-lock.wait-ms:3000}") // Thời gian tối đa chờ node khác load xong
+    private long lockWaitMs;
+
+    @Value("${cache.coalescing.distributed-lock.lease-ms:5000}") // Lock tự hết hạn nếu node giữ lock chết
+    private long lockLeaseMs;
+
+    @Value("${cache.refresh-ahead.ratio:0.2}") // Đọc trong 20% cuối TTL thì refresh bất đồng bộ
+    private double refreshAheadRatio;
+
+    @Value("${cache.refresh-ahead.beta:1.0}") // Hệ số XFetch, 0 = tắt
+    private double refreshAheadBeta;
+
+    @Value("${cache.refresh-ahead.pool-size:2}")
+    private int refreshPoolSize;
+
+    @Value("${cache.refresh-ahead.queue-capacity:100}")
+    private int refreshQueueCapacity;
+
     @Value("${giffing.bucket4j.cache-name:rate-limit-buckets}")
     private String bucket4jCacheName;
 
     @Bean
-    public CaffeineCacheManager caffeineCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    public CaffeineCacheManager caffeineCacheManager(CacheCoalescer cacheCoalescer) {
+        Duration ttl = Duration.ofSeconds(localTtl);
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(
+                    String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                return cacheCoalescer.decorate(super.adaptCaffeineCache(name, cache), ttl);
+            }
+        };
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .initialCapacity(100) // Sức chứa ban đầu
-                .expireAfterWrite(10, TimeUnit.MINUTES) // TTL 10 phút
-                .maximumSize(500)); // Kích thước tối đa
+                .expireAfterWrite(ttl) // Cùng TTL với refresh-ahead của CoalescingCache
+                .maximumSize(localMaximumSize) // cache.caffeine.maximum-size, giống L1 của cache hai tầng
+                .recordStats()); // hit / miss / eviction cho Micrometer
         log.info("✅ Caffeine Cache Manager initialized");
         return cacheManager;
     }
 
+    /**
+     * Single-flight cho cache miss: một loader cho mỗi key trong node,
+     * thêm Redis lock ngắn giữa các node nếu cache.coalescing.distributed-lock.enabled = true.
+     */
     @Bean
-    public RedisCacheManager redisCacheManager(RedisConnectionFactory factory) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule()); // ✅ Hỗ trợ Instant, LocalDateTime,...
-        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+    public CacheCoalescer cacheCoalescer(MeterRegistry meterRegistry, RedissonClient redissonClient) {
+        return new CacheCoalescer(
+                meterRegistry,
+                distributedLockEnabled ? redissonClient : null,
+                Duration.ofMillis(lockWaitMs),
+                Duration.ofMillis(lockLeaseMs),
+                new RefreshAheadPolicy(refreshAheadRatio, refreshAheadBeta),
+                cacheRefreshExecutor());
+    }
+
+    /**
+     * Executor riêng cho refresh-ahead, có giới hạn: khi đầy thì bỏ qua refresh (entry vẫn còn hạn)
+     * thay vì chiếm thread của request.
+     * defaultCandidate = false: không được inject theo kiểu, nên applicationTaskExecutor của Spring Boot
+     * (ConditionalOnMissingBean(Executor)) và @Async không dùng nhầm executor này.
+     */
+    @Bean(destroyMethod = "shutdown", defaultCandidate = false)
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshPoolSize);
+        executor.setMaxPoolSize(refreshPoolSize);
+        executor.setQueueCapacity(refreshQueueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
 
-        RedisSerializer<Object> serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory factory, CacheCoalescer cacheCoalescer) {
+        RedisSerializer<Object> serializer =
+                "json".equalsIgnoreCase(redisSerializer) ? CacheSerializers.json() : CacheSerializers.smile();
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(15)) // TTL mặc định 15 phút
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(serializer)); // Sử dụng JSON
+                        RedisSerializationContext.SerializationPair.fromSerializer(serializer)); // Smile hoặc JSON
 
         // Cấu hình riêng cho từng cache name theo chiến lược
         Map<String, RedisCacheConfiguration> cacheConfigurations = Map.of(
@@ -85,24 +171,59 @@ public class CacheConfig {
                 PROJECT_DETAIL.getCacheName(),
                 defaultConfig.entryTtl(Duration.ofSeconds(projectDetailTtl)),
                 PROJECT_LIST.getCacheName(),
-                defaultConfig.entryTtl(Duration.ofSeconds(redisDefaultTtl)));
+                defaultConfig.entryTtl(Duration.ofSeconds(redisDefaultTtl)),
 
-        return RedisCacheManager.builder(factory)
-                .cacheDefaults(defaultConfig) // Áp dụng config mặc định
-                .withInitialCacheConfigurations(cacheConfigurations) // Áp dụng config riêng
-                .build();
+                // ID không tồn tại: TTL ngắn vì entity có thể được tạo / restore ở nơi không gọi forget()
+                NEGATIVE_LOOKUPS.getCacheName(),
+                defaultConfig.entryTtl(Duration.ofSeconds(negativeLookupTtl)));
+
+        // Subclass để bọc mỗi RedisCache bằng lớp single-flight (chống stampede khi key hot hết hạn).
+        // BatchStrategies.scan: xóa theo pattern (allEntries, ProjectListCache) dùng SCAN thay vì KEYS
+        return new RedisCacheManager(
+                RedisCacheWriter.nonLockingRedisCacheWriter(factory, BatchStrategies.scan(1000))
+                        .withStatisticsCollector(CacheStatisticsCollector.create()), // hit / miss cho Micrometer
+                defaultConfig,
+                cacheConfigurations) {
+            @Override
+            protected Cache decorateCache(Cache cache) {
+                return cacheCoalescer.decorate(super.decorateCache(cache));
+            }
+        };
     }
 
+    /**
+     * Cache hai tầng Caffeine (L1) + Redis (L2), giữ tên bean compositeCacheManager cho các @Cacheable hiện có.
+     */
     @Bean
     @Primary
-    public CacheManager compositeCacheManager(
-            CaffeineCacheManager caffeineCacheManager, RedisCacheManager redisCacheManager) {
-        CompositeCacheManager cacheManager = new CompositeCacheManager(caffeineCacheManager, redisCacheManager);
-        cacheManager.setFallbackToNoOpCache(false);
-        log.info("✅ CompositeCacheManager initialized (Caffeine + Redis)");
+    public TwoLevelCacheManager compositeCacheManager(
+            RedisCacheManager redisCacheManager,
+            StringRedisTemplate stringRedisTemplate,
+            CacheCoalescer cacheCoalescer) {
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                redisCacheManager,
+                stringRedisTemplate,
+                new ObjectMapper(),
+                invalidationChannel,
+                Duration.ofSeconds(localTtl),
+                localMaximumSize,
+                cacheCoalescer::decorate);
+        log.info("✅ TwoLevelCacheManager initialized (Caffeine L1 + Redis L2)");
         return cacheManager;
     }
 
+    /**
+     * Lắng nghe kênh invalidation để xóa L1 khi node khác ghi / xóa cache.
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(
+            RedisConnectionFactory factory, TwoLevelCacheManager compositeCacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(factory);
+        container.addMessageListener(compositeCacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+
     /**
      * Custom error handler để tránh app crash khi Redis lỗi
      */
@@ -129,13 +250,35 @@ public class CacheConfig {
         };
     }
 
+    /**
+     * Redisson dùng chung kết nối khai báo ở spring.data.redis.* với Lettuce (host, port, ssl, user, password, db).
+     */
     @Bean
-    public Config redissionConfig() {
+    @ConditionalOnMissingBean
+    public Config redissionConfig(RedisProperties redisProperties) {
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://127.0.0.1:6379");
+        String scheme = redisProperties.getSsl().isEnabled() ? "rediss://" : "redis://";
+        SingleServerConfig server = config.useSingleServer()
+                .setAddress(scheme + redisProperties.getHost() + ":" + redisProperties.getPort())
+                .setDatabase(redisProperties.getDatabase());
+        if (StringUtils.hasText(redisProperties.getUsername())) {
+            server.setUsername(redisProperties.getUsername());
+        }
+        if (StringUtils.hasText(redisProperties.getPassword())) {
+            server.setPassword(redisProperties.getPassword());
+        }
+        if (redisProperties.getTimeout() != null) {
+            server.setTimeout((int) redisProperties.getTimeout().toMillis());
+        }
         return config;
     }
 
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnMissingBean
+    public RedissonClient redissonClient(Config redissonConfig) {
+        return Redisson.create(redissonConfig);
+    }
+
     @Bean
     public javax.cache.CacheManager jCacheManagerForBucket4j(Config redissonConfig) {
         CachingProvider provider = Caching.getCachingProvider();
@@ -0,0 +1,158 @@
+package org.example.cv.configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.example.cv.repositories.ProjectRepository;
+import org.example.cv.repositories.UserRepository;
+import org.example.cv.services.ProjectService;
+import org.example.cv.services.RoleService;
+import org.example.cv.services.UserService;
+import org.example.cv.utils.cache.HotKeyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Warm-up trước khi nhận traffic: preload top-N project / user hot và danh sách role vào cache,
+ * sau đó chạy lặp các đường đọc phổ biến qua service layer để JIT biên dịch sẵn.
+ *
+ * <p>Spring Boot chỉ chuyển readiness sang ACCEPTING_TRAFFIC sau khi mọi ApplicationRunner chạy xong,
+ * nên runner này giữ {@code /actuator/health/readiness} ở trạng thái chưa sẵn sàng cho tới khi warm-up
+ * xong hoặc hết {@code cache.warmup.timeout-ms}. Liveness không bị ảnh hưởng.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "cache.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+@RequiredArgsConstructor
+public class CacheWarmupRunner implements ApplicationRunner {
+    public static final String USERS_CACHE = "users";
+    public static final String PROJECT_DETAIL_CACHE = "project-detail";
+    private static final String PROJECT_KEY_PREFIX = "project_";
+
+    private final HotKeyStore hotKeyStore;
+    private final ProjectService projectService;
+    private final UserService userService;
+    private final RoleService roleService;
+    private final ProjectRepository projectRepository;
+    private final UserRepository userRepository;
+
+    @Value("${cache.warmup.top-n:50}")
+    private int topN;
+
+    @Value("${cache.warmup.jit-iterations:200}")
+    private int jitIterations;
+
+    @Value("${cache.warmup.timeout-ms:30000}")
+    private long timeoutMs;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Future<?> warmup = executor.submit(this::warmUp);
+        try {
+            warmup.get(timeoutMs, TimeUnit.MILLISECONDS);
+            log.info("✅ Warm-up finished in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (TimeoutException e) {
+            warmup.cancel(true);
+            log.warn("⚠️ Warm-up timed out after {} ms, accepting traffic anyway", timeoutMs);
+        } catch (ExecutionException e) {
+            log.warn("⚠️ Warm-up failed, accepting traffic anyway: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmUp() {
+        // Các service method có @PreAuthorize / @PostAuthorize: chạy với quyền ADMIN nội bộ
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(
+                        "cache-warmup", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+        try {
+            List<Long> userIds = hotIds(USERS_CACHE, "", userRepository::findRecentlyUpdatedIds);
+            List<Long> projectIds =
+                    hotIds(PROJECT_DETAIL_CACHE, PROJECT_KEY_PREFIX, projectRepository::findRecentlyUpdatedIds);
+
+            safely(ignored -> roleService.getAllRoles(), null);
+            userIds.forEach(id -> safely(userService::getUserById, id));
+            projectIds.forEach(id -> safely(projectService::getById, id));
+            log.info("Preloaded {} users, {} projects and roles", userIds.size(), projectIds.size());
+
+            // Lặp lại các đường đọc nóng (cache hit, deserialize, mapper, list mặc định) để JIT biên dịch
+            for (int i = 0; i < jitIterations && !Thread.currentThread().isInterrupted(); i++) {
+                safely(ignored -> projectService.getAll(0, 10, "id", "asc", ""), null);
+                safely(ignored -> roleService.getAllRoles(), null);
+                if (!userIds.isEmpty()) {
+                    safely(userService::getUserById, userIds.get(i % userIds.size()));
+                }
+                if (!projectIds.isEmpty()) {
+                    safely(projectService::getById, projectIds.get(i % projectIds.size()));
+                }
+            }
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    /**
+     * ID từ danh sách hot key đã lưu, hoặc các bản ghi được cập nhật gần nhất nếu chưa có danh sách.
+     */
+    private List<Long> hotIds(String cacheName, String keyPrefix, Function<PageRequest, List<Long>> fallback) {
+        List<Long> ids = List.of();
+        try {
+            ids = hotKeyStore.load(cacheName, topN).stream()
+                    .filter(key -> key.startsWith(keyPrefix))
+                    .map(key -> parseId(key.substring(keyPrefix.length())))
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Cannot load hot keys of {}: {}", cacheName, e.getMessage());
+        }
+        return !ids.isEmpty() ? ids : fallback.apply(PageRequest.of(0, topN));
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static <T> void safely(Consumer<T> call, T argument) {
+        try {
+            call.accept(argument);
+        } catch (RuntimeException e) {
+            // Key có thể đã bị xóa từ lần lưu trước, bỏ qua
+            log.debug("Warm-up call failed for {}: {}", argument, e.getMessage());
+        }
+    }
+}
@@ -1,31 +1,44 @@
 package org.example.cv.configuration;
 
-import java.util.Objects;
-import javax.crypto.spec.SecretKeySpec;
+import java.util.Collections;
+import java.util.Map;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.example.cv.exceptions.AppException;
+import org.example.cv.services.JwtTokenService;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.jwt.BadJwtException;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.MappedJwtClaimSetConverter;
 import org.springframework.stereotype.Component;
 
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Dùng chung pipeline verify của {@link JwtTokenService} (cache token đã verify, kiểm tra thu hồi),
+ * chỉ chuyển claims sang {@link Jwt} cho resource server.
+ */
 @Component
+@RequiredArgsConstructor
 public class CustomJwtDecoder implements JwtDecoder {
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final JwtTokenService jwtTokenService;
 
-    private NimbusJwtDecoder jwtDecoder = null;
+    private final Converter<Map<String, Object>, Map<String, Object>> claimSetConverter =
+            MappedJwtClaimSetConverter.withDefaults(Collections.emptyMap());
 
     @Override
     public Jwt decode(String token) throws JwtException {
-        if (Objects.isNull(jwtDecoder)) {
-            SecretKeySpec spec = new SecretKeySpec(jwtSecret.getBytes(), "HS256");
-            jwtDecoder = NimbusJwtDecoder.withSecretKey(spec)
-                    .macAlgorithm(MacAlgorithm.HS256)
-                    .build();
+        JwtTokenService.VerifiedToken verified;
+        try {
+            verified = jwtTokenService.verify(token);
+        } catch (AppException e) {
+            throw new BadJwtException("Invalid token", e);
         }
-        return jwtDecoder.decode(token);
+        Map<String, Object> claims = claimSetConverter.convert(verified.claims().getClaims());
+        return Jwt.withTokenValue(token)
+                .headers(headers -> headers.putAll(verified.header().toJSONObject()))
+                .claims(existing -> existing.putAll(claims))
+                .build();
     }
 }
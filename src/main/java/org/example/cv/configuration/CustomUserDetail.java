@@ -1,24 +1,59 @@
 package org.example.cv.configuration;
 
+import java.text.ParseException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import org.example.cv.models.entities.UserEntity;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import com.nimbusds.jwt.JWTClaimsSet;
+
+/**
+ * Principal của request: chỉ giữ id, username và authorities (không giữ UserEntity) để có thể dựng thẳng từ
+ * claims của JWT đã verify, hoặc cache lại mà không giữ entity detached.
+ */
 public class CustomUserDetail implements UserDetails {
 
-    private final UserEntity userEntity;
+    private final Long id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+
+    public CustomUserDetail(Long id, String username, List<GrantedAuthority> authorities) {
+        this.id = id;
+        this.username = username;
+        this.authorities = List.copyOf(authorities);
+    }
 
     public CustomUserDetail(UserEntity userEntity) {
-        this.userEntity = userEntity;
+        this(
+                userEntity.getId(),
+                userEntity.getUsername(),
+                userEntity.getRoles().stream()
+                        .map(role -> (GrantedAuthority) new SimpleGrantedAuthority("ROLE_" + role.getName()))
+                        .toList());
+    }
+
+    /**
+     * Dựng principal từ claims {@code sub}, {@code userId} và {@code scope} (các role cách nhau bởi khoảng trắng).
+     * Chỉ dùng với claims của token đã verify chữ ký.
+     */
+    public static CustomUserDetail fromClaims(JWTClaimsSet claims) throws ParseException {
+        String scope = claims.getStringClaim("scope");
+        List<GrantedAuthority> authorities = scope == null || scope.isBlank()
+                ? List.of()
+                : Arrays.stream(scope.trim().split("\\s+"))
+                        .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority))
+                        .toList();
+        return new CustomUserDetail(claims.getLongClaim("userId"), claims.getSubject(), authorities);
     }
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return userEntity.getRoles().stream()
-                .map(role -> (GrantedAuthority) ("ROLE_" + role.getName())::toString)
-                .toList();
+        return authorities;
     }
 
     @Override
@@ -28,10 +63,15 @@ public class CustomUserDetail implements UserDetails {
 
     @Override
     public String getUsername() {
-        return userEntity.getUsername();
+        return username;
     }
 
     public Long getId() {
-        return userEntity.getId();
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomUserDetail{id=" + id + ", username='" + username + "', authorities=" + authorities + "}";
     }
 }
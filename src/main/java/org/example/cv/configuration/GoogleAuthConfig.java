@@ -0,0 +1,72 @@
+package org.example.cv.configuration;
+
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.List;
+
+import org.example.cv.utils.security.GoogleKeyProvider;
+import org.example.cv.utils.security.HttpGoogleKeyProvider;
+import org.example.cv.utils.security.KeyProviderGoogleIdTokenVerifier;
+import org.example.cv.utils.security.LocalGoogleKeyProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verifier Google ID token dùng chung cho cả ứng dụng (transport, JSON factory và cache key được tái sử dụng).
+ * {@code outbound.google.key-provider=local} thay cert của Google bằng key cục bộ để load test offline.
+ */
+@Configuration
+@Slf4j
+public class GoogleAuthConfig {
+
+    @Bean
+    public JsonFactory googleJsonFactory() {
+        return GsonFactory.getDefaultInstance();
+    }
+
+    @Bean
+    public HttpTransport googleHttpTransport() {
+        return new NetHttpTransport();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbound.google.key-provider", havingValue = "google", matchIfMissing = true)
+    public GoogleKeyProvider httpGoogleKeyProvider(
+            HttpTransport googleHttpTransport,
+            JsonFactory googleJsonFactory,
+            @Value("${outbound.google.keys.timeout:PT3S}") Duration timeout) {
+        return new HttpGoogleKeyProvider(googleHttpTransport, googleJsonFactory, timeout);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "outbound.google.key-provider", havingValue = "local")
+    public GoogleKeyProvider localGoogleKeyProvider(
+            JsonFactory googleJsonFactory, @Value("${outbound.google.local.public-key:}") String publicKey)
+            throws GeneralSecurityException {
+        log.warn("⚠️ Google ID tokens are verified against a LOCAL key provider, do not use in production");
+        return new LocalGoogleKeyProvider(googleJsonFactory, publicKey);
+    }
+
+    @Bean
+    public GoogleIdTokenVerifier googleIdTokenVerifier(
+            GoogleKeyProvider googleKeyProvider,
+            HttpTransport googleHttpTransport,
+            JsonFactory googleJsonFactory,
+            @Value("${outbound.google.client-id}") String clientId) {
+        // Builder bắt buộc có transport nhưng key thực tế lấy từ GoogleKeyProvider
+        GoogleIdTokenVerifier.Builder builder = new GoogleIdTokenVerifier.Builder(
+                        googleHttpTransport, googleJsonFactory)
+                .setAudience(List.of(clientId));
+        return new KeyProviderGoogleIdTokenVerifier(builder, googleKeyProvider);
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.cv.configuration;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.example.cv.event.AuditLogListener;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+public class HibernateListenerConfig {
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditLogListener auditLogListener;
+
+    // Đăng ký listener trực tiếp với Hibernate để nhận loaded-state snapshot thay vì JPA callback
+    @PostConstruct
+    public void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, auditLogListener);
+        registry.appendListeners(EventType.POST_UPDATE, auditLogListener);
+        registry.appendListeners(EventType.POST_DELETE, auditLogListener);
+    }
+}
@@ -10,26 +10,23 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import org.example.cv.exceptions.AppException;
 import org.example.cv.exceptions.ErrorCode;
-import org.example.cv.models.requests.IntrospectRequest;
-import org.example.cv.services.AuthenticationService;
-import org.springframework.context.annotation.Lazy;
+import org.example.cv.services.JwtTokenService;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.JWTClaimsSet;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private CustomUserDetailService customUserDetailService;
-    private AuthenticationService authenticationService;
+    private final JwtTokenService jwtTokenService;
+    private final PrincipalCache principalCache;
 
-    JwtAuthenticationFilter(
-            @Lazy AuthenticationService authenticationService, CustomUserDetailService customUserDetailService) {
-        this.authenticationService = authenticationService;
-        this.customUserDetailService = customUserDetailService;
+    JwtAuthenticationFilter(JwtTokenService jwtTokenService, PrincipalCache principalCache) {
+        this.jwtTokenService = jwtTokenService;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -37,27 +34,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null
+                || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
         String token = authHeader.substring(7);
-        String username = null;
+        JWTClaimsSet claims;
         try {
-            username = SignedJWT.parse(token).getJWTClaimsSet().getSubject();
+            // Verify trước, sau đó dựng principal từ claims đã verify thay vì query user mỗi request
+            claims = jwtTokenService.verify(token).claims();
+        } catch (AppException e) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CustomUserDetail userDetails;
+        try {
+            userDetails = principalCache.resolve(claims);
         } catch (ParseException e) {
             throw new AppException(ErrorCode.INVALID_TOKEN);
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            CustomUserDetail userDetails = (CustomUserDetail) customUserDetailService.loadUserByUsername(username);
-            if (authenticationService.introspect(new IntrospectRequest(token)).isValid()) {
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                // ✅ Đưa thông tin user vào SecurityContextHolder
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        if (userDetails != null && userDetails.getUsername() != null) {
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            // ✅ Đưa thông tin user vào SecurityContextHolder
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
         filterChain.doFilter(request, response);
     }
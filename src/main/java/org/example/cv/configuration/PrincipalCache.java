@@ -0,0 +1,85 @@
+package org.example.cv.configuration;
+
+import java.text.ParseException;
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lấy principal cho request đã có JWT hợp lệ.
+ *
+ * <p>Mặc định dựng thẳng từ claims (không query DB): role trong token có hiệu lực tới khi token hết hạn, trừ khi user
+ * bị xóa hoặc bớt role — khi đó {@link org.example.cv.utils.security.TokenRevocationRegistry#revokeIssuedBefore}
+ * chặn mọi token phát hành trước thay đổi. Thêm role thì chỉ có hiệu lực từ token kế tiếp.
+ * Khi {@code security.principal.fresh-roles=true}, principal được load từ DB và cache cục bộ theo userId
+ * với TTL ngắn; {@link #invalidate} được gọi khi role của user thay đổi hoặc user bị xóa.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+    private final CustomUserDetailService customUserDetailService;
+    private final boolean freshRoles;
+    private final Cache<Long, CustomUserDetail> principals;
+
+    public PrincipalCache(
+            CustomUserDetailService customUserDetailService,
+            @Value("${security.principal.fresh-roles:false}") boolean freshRoles,
+            @Value("${security.principal.cache-ttl-seconds:60}") long ttlSeconds,
+            @Value("${security.principal.cache-maximum-size:10000}") long maximumSize) {
+        this.customUserDetailService = customUserDetailService;
+        this.freshRoles = freshRoles;
+        this.principals = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * @param claims claims của token đã verify
+     * @return principal, hoặc null nếu user không còn tồn tại (chế độ fresh-roles)
+     */
+    public CustomUserDetail resolve(JWTClaimsSet claims) throws ParseException {
+        CustomUserDetail fromClaims = CustomUserDetail.fromClaims(claims);
+        if (!freshRoles || fromClaims.getId() == null) {
+            return fromClaims;
+        }
+        try {
+            return principals.get(
+                    fromClaims.getId(),
+                    id -> (CustomUserDetail) customUserDetailService.loadUserByUsername(fromClaims.getUsername()));
+        } catch (UsernameNotFoundException e) {
+            log.debug("Principal {} no longer exists", fromClaims.getUsername());
+            return null;
+        }
+    }
+
+    /**
+     * Bỏ principal đã cache của user; nếu đang trong transaction thì chỉ bỏ sau khi commit để request khác không
+     * load lại role cũ trước khi thay đổi được ghi xuống DB.
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(userId);
+                }
+            });
+        } else {
+            principals.invalidate(userId);
+        }
+    }
+}
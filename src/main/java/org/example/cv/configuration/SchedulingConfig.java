@@ -0,0 +1,8 @@
+package org.example.cv.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // Kích hoạt các job định kỳ (@Scheduled)
+public class SchedulingConfig {}
@@ -1,5 +1,9 @@
 package org.example.cv.configuration;
 
+import java.time.Duration;
+
+import org.example.cv.utils.security.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -20,6 +24,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -52,6 +58,8 @@ public class SecurityConfig {
                         .permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/ws/**")
                         .permitAll()
+                        .requestMatchers("/actuator/health/**", "/actuator/info")
+                        .permitAll()
                         .anyRequest()
                         .authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt ->
@@ -96,8 +104,19 @@ public class SecurityConfig {
         return new SecurityContextChannelInterceptor();
     }
 
+    /**
+     * BCrypt chạy trên pool riêng có giới hạn. Tăng {@code security.password.bcrypt-strength} không cần migrate:
+     * hash cũ vẫn verify được và được hash lại khi user đăng nhập.
+     */
     @Bean
-    PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(
+            @Value("${security.password.bcrypt-strength:10}") int strength,
+            @Value("${security.password.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+                    int poolSize,
+            @Value("${security.password.queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.timeout:PT5S}") Duration timeout,
+            MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(strength), poolSize, queueCapacity, timeout, meterRegistry);
     }
 }
@@ -1,20 +0,0 @@
-package org.example.cv.configuration;
-
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-import lombok.RequiredArgsConstructor;
-
-@Configuration
-@RequiredArgsConstructor
-public class WebMvcConfig implements WebMvcConfigurer {
-    private final AuditLogInterceptor auditLogInterceptor;
-
-    @Override
-    public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(auditLogInterceptor)
-                .addPathPatterns("/projects/**")
-                .addPathPatterns("/api/v1/tasks/**"); // Áp dụng cho tất cả các đường dẫn
-    }
-}
@@ -31,6 +31,7 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
     private final JwtDecoder jwtDecoder; // Bean đã có từ SecurityConfig
     private final JwtAuthenticationConverter jwtAuthConverter; // Converter tùy chỉnh của bạn
+    private final WebSocketSessionRegistry sessionRegistry;
 
     @Override
     public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
@@ -63,6 +64,14 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     // Kể từ đây, mọi MessageMapping đều có thể @AuthenticationPrincipal
                     accessor.setUser(authentication);
 
+                    // 4. Đăng ký phiên để tự đóng khi token hết hạn (exp) hoặc jti bị thu hồi
+                    if (jwt.getClaim("userId") instanceof Number userId
+                            && jwt.getId() != null
+                            && jwt.getExpiresAt() != null) {
+                        sessionRegistry.authenticated(
+                                accessor.getSessionId(), userId.longValue(), jwt.getId(), jwt.getExpiresAt());
+                    }
+
                 } catch (Exception e) {
                     log.warn("WebSocket Auth: Xác thực JWT thất bại: {}", e.getMessage());
                     // Ném lỗi để từ chối kết nối
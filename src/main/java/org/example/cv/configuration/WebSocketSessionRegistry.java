@@ -0,0 +1,160 @@
+package org.example.cv.configuration;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.example.cv.event.TokenRevokedEvent;
+import org.example.cv.event.UserTokensRevokedEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Theo dõi các phiên WebSocket đã xác thực để đóng chúng khi token hết hạn hoặc bị thu hồi.
+ *
+ * <p>Mỗi phiên được hẹn giờ đóng tại {@code exp} trên một timer wheel (thêm/hủy O(1), một thread cho mọi phiên).
+ * Khi jti bị thu hồi, {@code jti -> userId} dẫn thẳng tới các phiên của user đó nên không phải duyệt toàn bộ; khi cả
+ * user bị thu hồi (xóa, bớt role) thì đóng mọi phiên của user.
+ */
+@Component
+@Slf4j
+public class WebSocketSessionRegistry implements DisposableBean {
+    static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("Token expired");
+    static final CloseStatus TOKEN_REVOKED = CloseStatus.POLICY_VIOLATION.withReason("Token revoked");
+
+    private record SessionEntry(String sessionId, Long userId, String jti, Timeout expiry) {}
+
+    private final HashedWheelTimer timer;
+    private final Map<String, WebSocketSession> connections = new ConcurrentHashMap<>();
+    private final Map<String, SessionEntry> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, Set<String>> sessionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Long> userByJti = new ConcurrentHashMap<>();
+
+    public WebSocketSessionRegistry(
+            @Value("${websocket.session.tick-ms:1000}") long tickMs,
+            @Value("${websocket.session.wheel-size:512}") int wheelSize) {
+        this.timer = new HashedWheelTimer(
+                new DefaultThreadFactory("ws-session-expiry", true), tickMs, TimeUnit.MILLISECONDS, wheelSize);
+    }
+
+    /**
+     * Gọi khi kết nối transport được mở, trước frame CONNECT.
+     */
+    public void connected(WebSocketSession session) {
+        connections.put(session.getId(), session);
+    }
+
+    /**
+     * Gọi sau khi frame CONNECT xác thực thành công.
+     */
+    public void authenticated(String sessionId, Long userId, String jti, Instant expiresAt) {
+        long delay = Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis());
+        Timeout expiry = timer.newTimeout(timeout -> close(sessionId, TOKEN_EXPIRED), delay, TimeUnit.MILLISECONDS);
+
+        SessionEntry previous = sessions.put(sessionId, new SessionEntry(sessionId, userId, jti, expiry));
+        if (previous != null) {
+            unindex(previous);
+        }
+        sessionsByUser.compute(userId, (id, sessionIds) -> {
+            Set<String> result = sessionIds == null ? ConcurrentHashMap.newKeySet() : sessionIds;
+            result.add(sessionId);
+            return result;
+        });
+        userByJti.put(jti, userId);
+    }
+
+    /**
+     * Gọi khi kết nối đóng (client ngắt hoặc server đóng).
+     */
+    public void disconnected(String sessionId) {
+        connections.remove(sessionId);
+        SessionEntry entry = sessions.remove(sessionId);
+        if (entry != null) {
+            unindex(entry);
+        }
+    }
+
+    @EventListener
+    public void onTokenRevoked(TokenRevokedEvent event) {
+        Long userId = userByJti.get(event.getJti());
+        if (userId == null) {
+            return;
+        }
+        Set<String> sessionIds = sessionsByUser.get(userId);
+        if (sessionIds == null) {
+            return;
+        }
+        for (String sessionId : sessionIds) {
+            SessionEntry entry = sessions.get(sessionId);
+            if (entry != null && entry.jti().equals(event.getJti())) {
+                close(sessionId, TOKEN_REVOKED);
+            }
+        }
+    }
+
+    @EventListener
+    public void onUserTokensRevoked(UserTokensRevokedEvent event) {
+        Set<String> sessionIds = sessionsByUser.get(event.getUserId());
+        if (sessionIds == null) {
+            return;
+        }
+        // close() gỡ phiên khỏi set trong lúc duyệt nên duyệt trên bản sao
+        for (String sessionId : List.copyOf(sessionIds)) {
+            close(sessionId, TOKEN_REVOKED);
+        }
+    }
+
+    public int activeSessions() {
+        return sessions.size();
+    }
+
+    private void close(String sessionId, CloseStatus status) {
+        WebSocketSession session = connections.get(sessionId);
+        try {
+            if (session != null && session.isOpen()) {
+                log.debug("Closing WebSocket session {}: {}", sessionId, status.getReason());
+                session.close(status);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Failed to close WebSocket session {}: {}", sessionId, e.getMessage());
+        } finally {
+            // afterConnectionClosed cũng gọi disconnected; gọi lại ở đây phòng transport không báo về
+            disconnected(sessionId);
+        }
+    }
+
+    private void unindex(SessionEntry entry) {
+        entry.expiry().cancel();
+        sessionsByUser.computeIfPresent(entry.userId(), (id, sessionIds) -> {
+            sessionIds.remove(entry.sessionId());
+            // Chỉ bỏ jti khi không còn phiên nào khác của user dùng cùng token
+            boolean jtiInUse = sessionIds.stream()
+                    .map(sessions::get)
+                    .anyMatch(other -> other != null && other.jti().equals(entry.jti()));
+            if (!jtiInUse) {
+                userByJti.remove(entry.jti(), entry.userId());
+            }
+            return sessionIds.isEmpty() ? null : sessionIds;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        timer.stop();
+    }
+}
@@ -6,7 +6,9 @@ public enum CacheConstant {
     PROJECT_LIST("project-list"),
     // task caches
     CACHE_TASK_DETAILS("cache-task-details"),
-    CACHE_TASK_LISTS("cache-task-lists");
+    CACHE_TASK_LISTS("cache-task-lists"),
+    // ID không tồn tại (404), TTL ngắn
+    NEGATIVE_LOOKUPS("negative-lookups");
 
     private final String cacheName;
 
@@ -0,0 +1,51 @@
+package org.example.cv.controllers;
+
+import org.example.cv.models.requests.AuditLogFilterRequest;
+import org.example.cv.models.responses.ApiResponse;
+import org.example.cv.models.responses.AuditLogResponse;
+import org.example.cv.models.responses.CursorPageResponse;
+import org.example.cv.services.AuditLogService;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/audit-logs")
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = lombok.AccessLevel.PRIVATE, makeFinal = true)
+@Tag(name = "Audit Log Controller", description = "Controller for querying audit logs")
+public class AuditLogController {
+    AuditLogService auditLogService;
+
+    @Operation(summary = "Search audit logs by actor, entity and time range (keyset pagination)")
+    @GetMapping
+    public ApiResponse<CursorPageResponse<AuditLogResponse>> search(
+            @ParameterObject AuditLogFilterRequest filter, @RequestParam(defaultValue = "50") int size) {
+        log.info("GET audit logs: actorId={}, entityType={}, entityId={}", filter.actorId(), filter.entityType(), filter.entityId());
+        return ApiResponse.<CursorPageResponse<AuditLogResponse>>builder()
+                .code(200)
+                .result(auditLogService.search(filter, size))
+                .build();
+    }
+
+    @Operation(summary = "Get every change of one field on one entity")
+    @GetMapping("/entities/{entityType}/{entityId}/fields/{field}")
+    public ApiResponse<CursorPageResponse<AuditLogResponse>> getFieldChanges(
+            @PathVariable String entityType,
+            @PathVariable Long entityId,
+            @PathVariable String field,
+            @ParameterObject AuditLogFilterRequest filter,
+            @RequestParam(defaultValue = "50") int size) {
+        log.info("GET audit field changes: {} {} field={}", entityType, entityId, field);
+        return ApiResponse.<CursorPageResponse<AuditLogResponse>>builder()
+                .code(200)
+                .result(auditLogService.getFieldChanges(entityType, entityId, field, filter, size))
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package org.example.cv.controllers;
 
 import java.text.ParseException;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 import org.example.cv.models.requests.AuthenticationRequest;
@@ -13,6 +14,7 @@ import org.example.cv.models.responses.ApiResponse;
 import org.example.cv.models.responses.AuthenticationResponse;
 import org.example.cv.models.responses.IntrospectResponse;
 import org.example.cv.services.AuthenticationService;
+import org.example.cv.utils.security.LoginConcurrencyLimiter;
 import org.springframework.web.bind.annotation.*;
 
 import com.nimbusds.jose.JOSEException;
@@ -30,6 +32,7 @@ import lombok.experimental.FieldDefaults;
 @Tag(name = "Authentication", description = "Endpoints for authentication and token management")
 public class AuthenticationController {
     AuthenticationService authenticationService;
+    LoginConcurrencyLimiter loginConcurrencyLimiter;
 
     /**
      * Endpoint to introspect a token and check its validity.
@@ -65,8 +68,6 @@ public class AuthenticationController {
      *
      * @param request the logout request containing the token to be invalidated
      * @return ApiResponse indicating the success of the logout operation
-     * @throws ParseException if there is an error parsing the token
-     * @throws JOSEException  if there is an error with JOSE processing
      */
     @Operation(summary = "Logout", description = "Log out a user by invalidating their token")
     @PostMapping("/logout")
@@ -83,9 +84,12 @@ public class AuthenticationController {
      */
     @Operation(summary = "Authenticate", description = "Authenticate a user and generate an authentication token")
     @PostMapping(value = "/login")
-    ApiResponse<AuthenticationResponse> authenticate(@RequestBody @Valid AuthenticationRequest request) {
-        var result = authenticationService.authenticate(request);
-        return ApiResponse.<AuthenticationResponse>builder().result(result).build();
+    ApiResponse<AuthenticationResponse> authenticate(
+            @RequestBody @Valid AuthenticationRequest request, HttpServletRequest httpRequest) {
+        try (var permit = loginConcurrencyLimiter.acquire(request.getUsername(), httpRequest.getRemoteAddr())) {
+            var result = authenticationService.authenticate(request);
+            return ApiResponse.<AuthenticationResponse>builder().result(result).build();
+        }
     }
     /**
      * Endpoint to authenticate a user via Google ID Token (for React frontend).
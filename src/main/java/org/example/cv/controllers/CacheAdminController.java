@@ -0,0 +1,63 @@
+package org.example.cv.controllers;
+
+import java.util.List;
+
+import org.example.cv.models.responses.ApiResponse;
+import org.example.cv.models.responses.CacheEntryResponse;
+import org.example.cv.models.responses.CacheSummaryResponse;
+import org.example.cv.services.CacheAdminService;
+import org.springframework.web.bind.annotation.*;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/admin/caches")
+@Slf4j
+@RequiredArgsConstructor
+@FieldDefaults(level = lombok.AccessLevel.PRIVATE, makeFinal = true)
+@Tag(name = "Cache Admin Controller", description = "Controller for inspecting and evicting caches")
+public class CacheAdminController {
+    CacheAdminService cacheAdminService;
+
+    @Operation(summary = "List caches with hit / miss / eviction statistics per level")
+    @GetMapping
+    public ApiResponse<List<CacheSummaryResponse>> getCaches() {
+        return ApiResponse.<List<CacheSummaryResponse>>builder()
+                .code(200)
+                .result(cacheAdminService.getCaches())
+                .build();
+    }
+
+    @Operation(summary = "Sample keys of a cache with entry age, remaining TTL and size")
+    @GetMapping("/{cacheManager}/{cacheName}/entries")
+    public ApiResponse<List<CacheEntryResponse>> sampleEntries(
+            @PathVariable String cacheManager,
+            @PathVariable String cacheName,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ApiResponse.<List<CacheEntryResponse>>builder()
+                .code(200)
+                .result(cacheAdminService.sampleEntries(cacheManager, cacheName, limit))
+                .build();
+    }
+
+    @Operation(summary = "Evict one key (as shown by the entries endpoint) from a cache; 404 if no entry matches")
+    @DeleteMapping("/{cacheManager}/{cacheName}/entries")
+    public ApiResponse<Void> evict(
+            @PathVariable String cacheManager, @PathVariable String cacheName, @RequestParam String key) {
+        log.info("DELETE cache entry {}:{} on {}", cacheName, key, cacheManager);
+        cacheAdminService.evict(cacheManager, cacheName, key);
+        return ApiResponse.<Void>builder().code(200).message("Cache entry evicted").build();
+    }
+
+    @Operation(summary = "Clear a whole cache")
+    @DeleteMapping("/{cacheManager}/{cacheName}")
+    public ApiResponse<Void> clear(@PathVariable String cacheManager, @PathVariable String cacheName) {
+        log.info("DELETE cache {} on {}", cacheName, cacheManager);
+        cacheAdminService.clear(cacheManager, cacheName);
+        return ApiResponse.<Void>builder().code(200).message("Cache cleared").build();
+    }
+}
@@ -9,7 +9,6 @@ import org.example.cv.models.responses.ApiResponse;
 import org.example.cv.models.responses.PageResponse; // Nên dùng cái này thống nhất
 import org.example.cv.models.responses.ProjectResponse;
 import org.example.cv.services.ProjectService;
-import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus; // Sửa import
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -31,14 +30,14 @@ public class ProjectController {
 
     @Operation(summary = "Get all projects with pagination, sorting, and filtering")
     @GetMapping
-    public ApiResponse<Page<ProjectResponse>> getAll(
+    public ApiResponse<PageResponse<ProjectResponse>> getAll(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(defaultValue = "") String filter) {
         log.info("GET all projects: page={}, size={}, filter={}", page, size, filter);
-        return ApiResponse.<Page<ProjectResponse>>builder()
+        return ApiResponse.<PageResponse<ProjectResponse>>builder()
                 .code(200)
                 .result(projectService.getAll(page, size, sortBy, sortDir, filter))
                 .message("Projects retrieved successfully")
@@ -47,10 +46,10 @@ public class ProjectController {
 
     @Operation(summary = "Get my projects")
     @GetMapping("/my-projects")
-    public ApiResponse<Page<ProjectResponse>> getMyProjects(
+    public ApiResponse<PageResponse<ProjectResponse>> getMyProjects(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        return ApiResponse.<Page<ProjectResponse>>builder()
+        return ApiResponse.<PageResponse<ProjectResponse>>builder()
                 .code(200)
                 .result(projectService.getMyProjects(page, size))
                 .build();
@@ -129,14 +128,14 @@ public class ProjectController {
 
     @Operation(summary = "Get projects by owner id")
     @GetMapping("/owner/{ownerId}")
-    public ApiResponse<Page<ProjectResponse>> getAllByOwnerId(
+    public ApiResponse<PageResponse<ProjectResponse>> getAllByOwnerId(
             @PathVariable("ownerId") Long ownerId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(defaultValue = "") String filter) {
-        return ApiResponse.<Page<ProjectResponse>>builder()
+        return ApiResponse.<PageResponse<ProjectResponse>>builder()
                 .code(200)
                 .result(projectService.getAllByOwnerId(ownerId, page, size, sortBy, sortDir, filter))
                 .build();
@@ -0,0 +1,79 @@
+package org.example.cv.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.cv.utils.AuthenticationUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Audit context gắn với transaction hiện tại thay cho HttpServletRequest attributes.
+ * Gom mọi thay đổi trong một unit of work và phát một {@link AuditLogEvent} sau commit;
+ * rollback thì bỏ hết. Không phụ thuộc request nên dùng được cho HTTP, STOMP @MessageMapping và job nền.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AuditContext {
+    private final ApplicationEventPublisher publisher;
+
+    public void record(AuditEntry entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Flush ngoài transaction do Spring quản lý: không có commit để chờ, phát ngay
+            publisher.publishEvent(new AuditLogEvent(this, List.of(entry)));
+            return;
+        }
+
+        UnitOfWork unitOfWork = (UnitOfWork) TransactionSynchronizationManager.getResource(this);
+        if (unitOfWork == null) {
+            unitOfWork = new UnitOfWork();
+            TransactionSynchronizationManager.bindResource(this, unitOfWork);
+            TransactionSynchronizationManager.registerSynchronization(unitOfWork);
+        }
+        unitOfWork.entries.add(entry);
+    }
+
+    /**
+     * Actor của thay đổi, null nếu không có người dùng trong SecurityContext (job nền, system).
+     */
+    public Long currentActorId() {
+        try {
+            return AuthenticationUtils.getCurrentUserId();
+        } catch (RuntimeException e) {
+            log.warn("Could not resolve audit actor: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private final class UnitOfWork implements TransactionSynchronization {
+        private final List<AuditEntry> entries = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(AuditContext.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(AuditContext.this, this);
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!entries.isEmpty()) {
+                publisher.publishEvent(new AuditLogEvent(AuditContext.this, List.copyOf(entries)));
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AuditContext.this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.cv.event;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Một thay đổi được ghi nhận trong unit of work.
+ * actorId = null khi thay đổi đến từ job nền / hệ thống (không có người dùng đăng nhập).
+ */
+public record AuditEntry(
+        String entityType,
+        Long entityId,
+        String action,
+        String details,
+        Map<String, List<Object>> changes,
+        Long actorId,
+        Instant timestamp) {}
@@ -0,0 +1,98 @@
+package org.example.cv.event;
+
+import java.time.temporal.TemporalAccessor;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+
+/**
+ * Bảng field được audit của một entity, dựng một lần cho mỗi persister.
+ * Mỗi property index tương ứng với một renderer chuẩn hóa giá trị (enum → name, thời gian → ISO, association → id),
+ * nên lúc flush chỉ còn đọc mảng state của Hibernate, không reflection, không toString cả object graph.
+ */
+public final class AuditFieldTable {
+
+    @FunctionalInterface
+    public interface ValueRenderer {
+        Object render(Object value, SharedSessionContractImplementor session);
+    }
+
+    private static final ValueRenderer IDENTITY = (value, session) -> value;
+    private static final ValueRenderer ENUM_NAME = (value, session) -> ((Enum<?>) value).name();
+    private static final ValueRenderer TO_STRING = (value, session) -> value.toString();
+    private static final ValueRenderer ENTITY_ID =
+            (value, session) -> session.getEntityPersister(null, value).getIdentifier(value, session);
+
+    private final String[] names;
+    // null = property không được audit
+    private final ValueRenderer[] renderers;
+
+    private AuditFieldTable(String[] names, ValueRenderer[] renderers) {
+        this.names = names;
+        this.renderers = renderers;
+    }
+
+    public static AuditFieldTable of(String[] names, ValueRenderer[] renderers) {
+        return new AuditFieldTable(names.clone(), renderers.clone());
+    }
+
+    public static AuditFieldTable of(EntityPersister persister, Set<String> ignoredProperties) {
+        String[] names = persister.getPropertyNames();
+        Type[] types = persister.getPropertyTypes();
+        ValueRenderer[] renderers = new ValueRenderer[names.length];
+        for (int i = 0; i < names.length; i++) {
+            renderers[i] = ignoredProperties.contains(names[i]) ? null : rendererFor(types[i]);
+        }
+        return new AuditFieldTable(names, renderers);
+    }
+
+    private static ValueRenderer rendererFor(Type type) {
+        if (type.isCollectionType()) {
+            return null;
+        }
+        if (type.isEntityType()) {
+            return ENTITY_ID;
+        }
+        Class<?> javaType = type.getReturnedClass();
+        if (javaType.isEnum()) {
+            return ENUM_NAME;
+        }
+        if (TemporalAccessor.class.isAssignableFrom(javaType) || Date.class.isAssignableFrom(javaType)) {
+            return TO_STRING;
+        }
+        return IDENTITY;
+    }
+
+    /**
+     * Diff giữa hai snapshot, chỉ xét các property index trong {@code dirty}.
+     * @return map field → [old, new], rỗng nếu không có field được audit nào thay đổi
+     */
+    public Map<String, List<Object>> diff(
+            Object[] oldState, Object[] state, int[] dirty, SharedSessionContractImplementor session) {
+        Map<String, List<Object>> changes = new LinkedHashMap<>();
+        for (int index : dirty) {
+            ValueRenderer renderer = renderers[index];
+            if (renderer == null) {
+                continue;
+            }
+            Object oldValue = render(renderer, oldState[index], session);
+            Object newValue = render(renderer, state[index], session);
+            if (!Objects.equals(oldValue, newValue)) {
+                changes.put(names[index], Arrays.asList(oldValue, newValue));
+            }
+        }
+        return changes;
+    }
+
+    private static Object render(ValueRenderer renderer, Object value, SharedSessionContractImplementor session) {
+        return value == null ? null : renderer.render(value, session);
+    }
+}
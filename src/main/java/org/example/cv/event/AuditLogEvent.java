@@ -1,40 +1,21 @@
 package org.example.cv.event;
 
+import java.util.List;
+
 import org.springframework.context.ApplicationEvent;
 
+/**
+ * Toàn bộ thay đổi của một transaction đã commit, phát một lần sau commit.
+ */
 public class AuditLogEvent extends ApplicationEvent {
-    private final String entityType;
-    private final Long entityId;
-    private final String action;
-    private final String details;
-    private final Long actorId;
+    private final List<AuditEntry> entries;
 
-    public AuditLogEvent(Object source, String entityType, Long entityId, String action, String details, Long actorId) {
+    public AuditLogEvent(Object source, List<AuditEntry> entries) {
         super(source);
-        this.entityType = entityType;
-        this.entityId = entityId;
-        this.action = action;
-        this.details = details;
-        this.actorId = actorId;
-    }
-
-    public String getEntityType() {
-        return entityType;
-    }
-
-    public Long getEntityId() {
-        return entityId;
-    }
-
-    public String getAction() {
-        return action;
-    }
-
-    public String getDetails() {
-        return details;
+        this.entries = entries;
     }
 
-    public Long getActorId() {
-        return actorId;
+    public List<AuditEntry> getEntries() {
+        return entries;
     }
 }
@@ -1,133 +1,93 @@
 package org.example.cv.event;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
-import jakarta.persistence.*;
-import jakarta.servlet.http.HttpServletRequest;
-
-import org.springframework.context.annotation.Lazy;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
 import org.springframework.stereotype.Component;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Hibernate event listener ghi nhận thay đổi của các entity {@link Auditable}.
+ * Dùng snapshot loaded-state và dirty indexes mà Hibernate đã có sẵn khi flush,
+ * nên không cần query lại entity cũ và chỉ diff những field thực sự thay đổi.
+ * Được đăng ký qua {@link org.example.cv.configuration.HibernateListenerConfig}.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class AuditLogListener {
+public class AuditLogListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
 
-    private static final Map<Class<?>, List<Method>> getterCache = new ConcurrentHashMap<>();
-    private static EntityManagerFactory entityManagerFactory;
+    // Timestamp kỹ thuật, thay đổi ở mọi lần update nên không đưa vào diff
+    private static final Set<String> IGNORED_PROPERTIES = Set.of("createdAt", "updatedAt");
 
-    @PersistenceUnit
-    public void setEntityManagerFactory(@Lazy EntityManagerFactory emf) {
-        entityManagerFactory = emf;
-    }
+    private final Map<String, AuditFieldTable> fieldTables = new ConcurrentHashMap<>();
+    private final AuditContext auditContext;
 
-    @PrePersist
-    public void prePersist(Object object) {
-        if (entityManagerFactory == null) {
-            return;
-        }
-        if (object instanceof Auditable entity) {
-            logEvent("CREATE", entity, null, object);
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Auditable entity) {
+            logEvent("CREATE", entity, "Created.", null);
         }
     }
 
-    @PostPersist
-    public void postPersist(Object object) {
-        if (entityManagerFactory == null) {
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Auditable entity)) {
             return;
         }
-        if (object instanceof Auditable entity) {
-            HttpServletRequest request = getCurrentHttpRequest();
-            if (request == null) {
-                return;
-            }
-            request.setAttribute("entityId", entity.getId());
-        }
-    }
-
-    @PreUpdate
-    public void preUpdate(Object object) {
-        if (object instanceof Auditable entity) {
-            try (var em = entityManagerFactory.createEntityManager()) {
-                Object oldEntity = em.find(object.getClass(), entity.getId());
-                logEvent("UPDATE", entity, oldEntity, object);
-            } catch (Exception e) {
-                log.error("Error fetching old entity state for audit log", e);
-            }
-        }
-    }
-
-    @PreRemove
-    public void preRemove(Object object) {
-        if (entityManagerFactory == null) {
+        EntityPersister persister = event.getPersister();
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            logEvent("UPDATE", entity, "No previous state found.", null);
             return;
         }
-        if (object instanceof Auditable entity) {
-            logEvent("DELETE", entity, object, null);
+        int[] dirty = event.getDirtyProperties() != null
+                ? event.getDirtyProperties()
+                : persister.findDirty(event.getState(), oldState, event.getEntity(), event.getSession());
+        if (dirty == null || dirty.length == 0) {
+            return;
         }
-    }
-
-    private List<Method> getCachedGetters(Class<?> clazz) {
-        return getterCache.computeIfAbsent(clazz, c -> Arrays.stream(c.getDeclaredMethods())
-                .filter(m -> m.getName().startsWith("get"))
-                .filter(m -> m.getParameterCount() == 0)
-                .filter(m -> !m.getName().equals("getId") && !m.getName().equals("getClass"))
-                .filter(m -> m.getReturnType().getPackageName().startsWith("java"))
-                .toList());
-    }
 
-    private String generateChangeDetails(Object oldEntity, Object newEntity) {
-        if (oldEntity == null || newEntity == null) {
-            return "No previous state found.";
+        Map<String, List<Object>> changes =
+                getFieldTable(persister).diff(oldState, event.getState(), dirty, event.getSession());
+        if (!changes.isEmpty()) {
+            logEvent("UPDATE", entity, "Changed: " + String.join(", ", changes.keySet()), changes);
         }
+    }
 
-        StringBuilder changes = new StringBuilder();
-        List<Method> getters = getCachedGetters(oldEntity.getClass());
-
-        for (Method method : getters) {
-            try {
-                Object oldValue = method.invoke(oldEntity);
-                Object newValue = method.invoke(newEntity);
-
-                if (!Objects.equals(oldValue, newValue)) {
-                    String fieldName = method.getName().substring(3); // Remove "get"
-                    changes.append(fieldName)
-                            .append(": '")
-                            .append(oldValue)
-                            .append("' -> '")
-                            .append(newValue)
-                            .append("'; ");
-                }
-            } catch (Exception e) {
-                // Log or handle exception if needed
-            }
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Auditable entity) {
+            logEvent("DELETE", entity, "Deleted.", null);
         }
+    }
 
-        return changes.isEmpty() ? "No changes detected." : changes.toString();
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
     }
 
-    protected void logEvent(String actionType, Auditable entity, Object oldEntity, Object newEntity) {
-        HttpServletRequest request = getCurrentHttpRequest();
-        String details = generateChangeDetails(oldEntity, newEntity);
-        assert request != null;
-        request.setAttribute("details", details);
-        request.setAttribute("action", actionType);
-        request.setAttribute("entityId", entity.getId());
-        request.setAttribute("entityType", entity.getEntityType());
+    private AuditFieldTable getFieldTable(EntityPersister persister) {
+        return fieldTables.computeIfAbsent(
+                persister.getEntityName(), name -> AuditFieldTable.of(persister, IGNORED_PROPERTIES));
     }
 
-    private HttpServletRequest getCurrentHttpRequest() {
-        ServletRequestAttributes attrs = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
-        return attrs != null ? attrs.getRequest() : null;
+    // Ghi vào audit context của transaction hiện tại, được phát thành một batch sau commit
+    protected void logEvent(String actionType, Auditable entity, String details, Map<String, List<Object>> changes) {
+        auditContext.record(new AuditEntry(
+                entity.getEntityType(),
+                entity.getId(),
+                actionType,
+                details,
+                changes,
+                auditContext.currentActorId(),
+                Instant.now()));
     }
 }
@@ -0,0 +1,249 @@
+package org.example.cv.event;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.example.cv.models.entities.AuditLogEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ghi audit log theo lô: request chỉ tốn một lần offer vào hàng đợi có giới hạn,
+ * một thread nền gom bản ghi và ghi bằng một câu INSERT nhiều dòng theo kích thước lô hoặc theo thời gian.
+ * Khi hàng đợi đầy: chờ tối đa offer-timeout (backpressure), quá thời gian thì bỏ bản ghi và tăng metric dropped.
+ * Lô ghi lỗi được thử lại max-attempts lần; vẫn lỗi thì từng bản ghi được ghi ra logger {@code audit.fallback}
+ * để có thể nạp lại thủ công.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter implements SmartLifecycle {
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_logs (actor_id, action_type, entity_type, entity_id, details, changes, \"timestamp\") VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, CAST(? AS jsonb), ?)";
+    private static final Logger FALLBACK_LOG = LoggerFactory.getLogger("audit.fallback");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditLogEntity> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+    private final Counter failedCounter;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public AuditLogWriter(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+            @Value("${audit.writer.batch-size:200}") int batchSize,
+            @Value("${audit.writer.flush-interval-ms:500}") long flushIntervalMs,
+            @Value("${audit.writer.offer-timeout-ms:0}") long offerTimeoutMs,
+            @Value("${audit.writer.max-attempts:3}") int maxAttempts,
+            @Value("${audit.writer.retry-backoff-ms:200}") long retryBackoffMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = retryBackoffMs;
+
+        this.droppedCounter = Counter.builder("audit.log.dropped")
+                .description("Audit log entries dropped because the queue was full")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.log.written")
+                .description("Audit log entries written to the database")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("audit.log.failed")
+                .description("Audit log entries not written after all retries (sent to the audit.fallback log)")
+                .register(meterRegistry);
+        Gauge.builder("audit.log.queue.size", queue, BlockingQueue::size)
+                .description("Audit log entries waiting to be flushed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Đưa một bản ghi vào hàng đợi. Không bao giờ ném lỗi ra phía request.
+     * @param entry
+     * @return false nếu bản ghi bị bỏ do hàng đợi đầy
+     */
+    public boolean enqueue(AuditLogEntity entry) {
+        boolean accepted;
+        try {
+            accepted = offerTimeoutMs > 0
+                    ? queue.offer(entry, offerTimeoutMs, TimeUnit.MILLISECONDS)
+                    : queue.offer(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            droppedCounter.increment();
+            log.warn("Audit log queue full, dropped {} {} id={}", entry.getActionType(), entry.getEntityType(), entry.getEntityId());
+        }
+        return accepted;
+    }
+
+    private void runLoop() {
+        List<AuditLogEntity> batch = new ArrayList<>(batchSize);
+        long deadline = System.currentTimeMillis() + flushIntervalMs;
+        while (running) {
+            try {
+                long waitMs = Math.max(0, deadline - System.currentTimeMillis());
+                AuditLogEntity entry = queue.poll(waitMs, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    batch.add(entry);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+                if (batch.size() >= batchSize || System.currentTimeMillis() >= deadline) {
+                    flush(batch);
+                    deadline = System.currentTimeMillis() + flushIntervalMs;
+                }
+            } catch (InterruptedException e) {
+                // stop() đánh thức thread, phần còn lại được drain trong stop()
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        flush(batch);
+    }
+
+    private void flush(List<AuditLogEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // JDBC/Hikari getConnection ném lỗi khi thread đang bị interrupt (stop() đánh thức flusher),
+        // nên xóa cờ trong lúc ghi và khôi phục lại sau cùng
+        boolean interrupted = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                interrupted |= Thread.interrupted();
+                try {
+                    insert(batch);
+                    writtenCounter.increment(batch.size());
+                    log.debug("Flushed {} audit log entries", batch.size());
+                    return;
+                } catch (Exception e) {
+                    if (attempt >= maxAttempts) {
+                        failedCounter.increment(batch.size());
+                        log.error("Failed to flush {} audit log entries after {} attempts", batch.size(), attempt, e);
+                        batch.forEach(this::writeFallback);
+                        return;
+                    }
+                    log.warn("Audit log flush attempt {} failed, retrying: {}", attempt, e.getMessage());
+                    interrupted |= backoff(attempt);
+                }
+            }
+        } finally {
+            batch.clear();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void insert(List<AuditLogEntity> batch) throws JsonProcessingException {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(batch.size() * 7);
+        for (int i = 0; i < batch.size(); i++) {
+            AuditLogEntity entry = batch.get(i);
+            sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDER);
+            args.add(entry.getActorId());
+            args.add(entry.getActionType());
+            args.add(entry.getEntityType());
+            args.add(entry.getEntityId());
+            args.add(entry.getDetails());
+            args.add(entry.getChanges() != null ? objectMapper.writeValueAsString(entry.getChanges()) : null);
+            args.add(Timestamp.from(entry.getTimestamp()));
+        }
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    // true nếu bị interrupt khi đang chờ: vẫn thử lại ngay để không mất lô khi đang shutdown
+    private boolean backoff(int attempt) {
+        if (retryBackoffMs <= 0) {
+            return false;
+        }
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+            return false;
+        } catch (InterruptedException e) {
+            return true;
+        }
+    }
+
+    private void writeFallback(AuditLogEntity entry) {
+        String changes;
+        try {
+            changes = entry.getChanges() != null ? objectMapper.writeValueAsString(entry.getChanges()) : null;
+        } catch (JsonProcessingException e) {
+            changes = String.valueOf(entry.getChanges());
+        }
+        FALLBACK_LOG.error(
+                "actorId={} actionType={} entityType={} entityId={} timestamp={} details={} changes={}",
+                entry.getActorId(),
+                entry.getActionType(),
+                entry.getEntityType(),
+                entry.getEntityId(),
+                entry.getTimestamp(),
+                entry.getDetails(),
+                changes);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        flusher = new Thread(this::runLoop, "audit-log-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join(flushIntervalMs * 4);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Ghi nốt những bản ghi còn lại trước khi DataSource bị đóng
+        List<AuditLogEntity> remaining = new ArrayList<>(batchSize);
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            flush(remaining);
+        }
+        log.info("Audit log writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
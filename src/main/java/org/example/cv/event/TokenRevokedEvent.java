@@ -0,0 +1,18 @@
+package org.example.cv.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Phát trên mọi node khi một jti bị thu hồi (cục bộ hoặc nhận qua Redis pub/sub).
+ */
+@Getter
+public class TokenRevokedEvent extends ApplicationEvent {
+    private final String jti;
+
+    public TokenRevokedEvent(Object source, String jti) {
+        super(source);
+        this.jti = jti;
+    }
+}
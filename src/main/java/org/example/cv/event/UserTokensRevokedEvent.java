@@ -0,0 +1,18 @@
+package org.example.cv.event;
+
+import org.springframework.context.ApplicationEvent;
+
+import lombok.Getter;
+
+/**
+ * Phát trên mọi node khi mọi token đã phát hành của một user bị vô hiệu (user bị xóa, bớt role, đổi mật khẩu).
+ */
+@Getter
+public class UserTokensRevokedEvent extends ApplicationEvent {
+    private final Long userId;
+
+    public UserTokensRevokedEvent(Object source, Long userId) {
+        super(source);
+        this.userId = userId;
+    }
+}
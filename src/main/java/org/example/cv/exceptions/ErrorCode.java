@@ -30,6 +30,12 @@ public enum ErrorCode {
     INVALID_TASK_STATUS_TRANSITION(1013, "Invalid task status transition from {from} to {to}", HttpStatus.BAD_REQUEST),
     REPOSITORY_NOT_FOUND(1020, "Repository not found for the given entity", HttpStatus.INTERNAL_SERVER_ERROR),
     INVALID_ENTITY(1021, "Invalid entity provided", HttpStatus.BAD_REQUEST),
+    INVALID_CURSOR(1022, "Invalid pagination cursor", HttpStatus.BAD_REQUEST),
+    INVALID_TIME_RANGE(1023, "Invalid time range", HttpStatus.BAD_REQUEST),
+    CACHE_NOT_FOUND(1024, "Cache not found", HttpStatus.NOT_FOUND),
+    PASSWORD_HASHING_BUSY(1025, "Server is busy, please retry later", HttpStatus.SERVICE_UNAVAILABLE),
+    TOO_MANY_LOGIN_ATTEMPTS(1026, "Too many concurrent login attempts", HttpStatus.TOO_MANY_REQUESTS),
+    CACHE_ENTRY_NOT_FOUND(1027, "Cache entry not found", HttpStatus.NOT_FOUND),
     PROJECT_NOT_EXISTED(1010, "Project not existed", HttpStatus.NOT_FOUND);
 
     ErrorCode(int code, String message, HttpStatusCode statusCode) {
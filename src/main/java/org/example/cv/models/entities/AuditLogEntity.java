@@ -1,9 +1,14 @@
 package org.example.cv.models.entities;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 
 import jakarta.persistence.*;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 
@@ -20,7 +25,8 @@ public class AuditLogEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     Long id;
 
-    @Column(name = "actor_id", nullable = false)
+    // null = thay đổi do hệ thống / job nền
+    @Column(name = "actor_id")
     Long actorId;
 
     // Hành động: CREATE, UPDATE, DELETE
@@ -35,10 +41,15 @@ public class AuditLogEntity {
     @Column(name = "entity_id", nullable = false)
     Long entityId;
 
-    // Nội dung thay đổi (Có thể lưu dạng JSON nếu muốn chi tiết)
+    // Tóm tắt thay đổi dạng text
     @Column(name = "details", columnDefinition = "TEXT")
     String details;
 
+    // Diff có cấu trúc {field: [old, new]}, có GIN index để truy vấn theo field
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "changes", columnDefinition = "jsonb")
+    Map<String, List<Object>> changes;
+
     @Column(name = "timestamp", nullable = false)
     @Builder.Default
     Instant timestamp = Instant.now();
@@ -1,8 +1,11 @@
 package org.example.cv.models.entities;
 
+import java.time.Instant;
+
 import jakarta.persistence.*;
 
 import org.example.cv.models.entities.base.BaseEntity;
+import org.example.cv.models.responses.ChatMessageDTO;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.*;
@@ -17,6 +20,85 @@ import lombok.experimental.FieldDefaults;
 @NoArgsConstructor
 @FieldDefaults(level = AccessLevel.PRIVATE)
 @Schema(name = "ChatMessageEntity", description = "Entity representing a chat message")
+// Một dòng cho mỗi đối phương: hai chiều gửi / nhận đọc riêng theo index (sender_id, receiver_id, ...) và
+// (receiver_id, sender_id, ...), ghép bằng UNION ALL rồi DISTINCT ON giữ tin nhắn mới nhất của từng hội thoại.
+@NamedNativeQuery(
+        name = "ChatMessageEntity.findConversations",
+        query =
+                """
+				SELECT u.id AS user_id,
+					COALESCE(NULLIF(TRIM(CONCAT_WS(' ', u.first_name, u.last_name)), ''), u.username) AS name,
+					u.email AS email,
+					c.content AS last_message,
+					c.created_at AS last_message_time,
+					FALSE AS online
+				FROM (
+					SELECT DISTINCT ON (d.peer_id) d.peer_id, d.content, d.created_at
+					FROM (
+						SELECT m.receiver_id AS peer_id, m.content, m.created_at, m.id
+						FROM chat_messages m
+						WHERE m.sender_id = :userId
+						AND m.receiver_id IS NOT NULL
+						UNION ALL
+						SELECT m.sender_id AS peer_id, m.content, m.created_at, m.id
+						FROM chat_messages m
+						WHERE m.receiver_id = :userId
+					) d
+					ORDER BY d.peer_id, d.created_at DESC, d.id DESC
+				) c
+				JOIN users u ON u.id = c.peer_id
+				ORDER BY c.created_at DESC
+				""",
+        resultSetMapping = "ChatMessageEntity.ConversationDTO")
+// Group chat của các project user tham gia: LATERAL lấy tin nhắn mới nhất, subquery COUNT đếm thành viên.
+@NamedNativeQuery(
+        name = "ChatMessageEntity.findProjectConversations",
+        query =
+                """
+				SELECT p.id AS project_id,
+					p.name AS project_name,
+					(SELECT COUNT(*) FROM project_members pm WHERE pm.project_id = p.id) AS member_count,
+					lm.content AS last_message,
+					lm.created_at AS last_message_time
+				FROM project_members me
+				JOIN projects p ON p.id = me.project_id
+				LEFT JOIN LATERAL (
+					SELECT m.content, m.created_at
+					FROM chat_messages m
+					WHERE m.project_id = p.id
+					ORDER BY m.created_at DESC, m.id DESC
+					LIMIT 1
+				) lm ON TRUE
+				WHERE me.user_id = :userId
+				AND p.deleted_at IS NULL
+				ORDER BY lm.created_at DESC NULLS LAST, p.id
+				""",
+        resultSetMapping = "ChatMessageEntity.ProjectConversationDTO")
+@SqlResultSetMapping(
+        name = "ChatMessageEntity.ConversationDTO",
+        classes =
+                @ConstructorResult(
+                        targetClass = ChatMessageDTO.ConversationDTO.class,
+                        columns = {
+                            @ColumnResult(name = "user_id", type = Long.class),
+                            @ColumnResult(name = "name", type = String.class),
+                            @ColumnResult(name = "email", type = String.class),
+                            @ColumnResult(name = "last_message", type = String.class),
+                            @ColumnResult(name = "last_message_time", type = Instant.class),
+                            @ColumnResult(name = "online", type = Boolean.class)
+                        }))
+@SqlResultSetMapping(
+        name = "ChatMessageEntity.ProjectConversationDTO",
+        classes =
+                @ConstructorResult(
+                        targetClass = ChatMessageDTO.ProjectConversationDTO.class,
+                        columns = {
+                            @ColumnResult(name = "project_id", type = Long.class),
+                            @ColumnResult(name = "project_name", type = String.class),
+                            @ColumnResult(name = "member_count", type = Integer.class),
+                            @ColumnResult(name = "last_message", type = String.class),
+                            @ColumnResult(name = "last_message_time", type = Instant.class)
+                        }))
 public class ChatMessageEntity extends BaseEntity {
 
     @Id
@@ -35,7 +35,7 @@ public class InvalidatedToken extends BaseEntity {
     @Future(
             message = "Expiry time must be in the future",
             groups = {OnCreate.class, OnUpdate.class})
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     @Schema(description = "Expiry time of the invalidated token", example = "2023-12-31T23:59:59Z", required = true)
     Date expiryTime;
 }
@@ -4,7 +4,6 @@ import java.time.Instant;
 
 import jakarta.persistence.*;
 
-import org.example.cv.event.AuditLogListener;
 import org.example.cv.event.Auditable;
 import org.example.cv.models.entities.base.BaseEntity;
 import org.example.cv.utils.security.Ownable;
@@ -26,7 +25,6 @@ import lombok.experimental.FieldDefaults;
 @NamedEntityGraph(
         name = "ProjectEntity.owner",
         attributeNodes = {@NamedAttributeNode("owner"), @NamedAttributeNode("members")})
-@EntityListeners(AuditLogListener.class)
 public class ProjectEntity extends BaseEntity implements Ownable, Auditable {
 
     @Id
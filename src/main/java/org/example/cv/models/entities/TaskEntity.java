@@ -9,7 +9,6 @@ import jakarta.validation.constraints.Size;
 
 import org.example.cv.constants.TaskPriority;
 import org.example.cv.constants.TaskStatus;
-import org.example.cv.event.AuditLogListener;
 import org.example.cv.event.Auditable;
 import org.example.cv.models.entities.base.BaseEntity;
 import org.hibernate.annotations.BatchSize;
@@ -26,7 +25,6 @@ import lombok.*;
 @NamedEntityGraph(
         name = "TaskEntity.projectAssignee",
         attributeNodes = {@NamedAttributeNode("project"), @NamedAttributeNode("assignees")})
-@EntityListeners(AuditLogListener.class)
 public class TaskEntity extends BaseEntity implements Auditable {
 
     @Id
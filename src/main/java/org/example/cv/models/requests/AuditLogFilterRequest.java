@@ -0,0 +1,20 @@
+package org.example.cv.models.requests;
+
+import java.time.Instant;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Các tham số để lọc audit log (keyset pagination)")
+public record AuditLogFilterRequest(
+        @Schema(description = "Lọc theo người thực hiện", example = "7") Long actorId,
+        @Schema(description = "Lọc theo loại entity", example = "TASK") String entityType,
+        @Schema(description = "Lọc theo ID entity", example = "42") Long entityId,
+        @Schema(description = "Từ thời điểm (bao gồm), mặc định = to - 30 ngày", example = "2025-11-01T00:00:00Z")
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                Instant from,
+        @Schema(description = "Đến thời điểm (không bao gồm), mặc định = hiện tại", example = "2025-12-01T00:00:00Z")
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                Instant to,
+        @Schema(description = "Cursor trả về từ trang trước", nullable = true) String cursor) {}
@@ -24,4 +24,7 @@ public class LogoutRequest {
             description = "The token to be invalidated during logout",
             example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
     String token;
+
+    @Schema(description = "Refresh token to revoke together with the access token", nullable = true)
+    String refreshToken;
 }
@@ -20,6 +20,8 @@ public class RefreshRequest {
     @NotBlank(
             message = "Token is required",
             groups = {OnCreate.class, OnUpdate.class})
-    @Schema(description = "The token to be refreshed", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...")
+    @Schema(
+            description = "Opaque refresh token returned by login or the previous refresh (single use)",
+            example = "3f2b8c1e-6a4d-4f0e-9b7a-2c5d8e1f0a3b.q8Zx...")
     String token;
 }
@@ -0,0 +1,42 @@
+package org.example.cv.models.responses;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Schema(name = "AuditLogResponse", description = "Response object for an audit log entry")
+public class AuditLogResponse {
+
+    @Schema(description = "Unique identifier of the audit log", example = "1")
+    Long id;
+
+    @Schema(description = "User who performed the action", example = "7")
+    Long actorId;
+
+    @Schema(description = "Action type", example = "UPDATE")
+    String actionType;
+
+    @Schema(description = "Type of the affected entity", example = "TASK")
+    String entityType;
+
+    @Schema(description = "Identifier of the affected entity", example = "42")
+    Long entityId;
+
+    @Schema(description = "Change details", example = "Status: 'TODO' -> 'IN_PROGRESS'; ")
+    String details;
+
+    @Schema(description = "Structured diff as {field: [old, new]}", example = "{\"status\": [\"TODO\", \"IN_PROGRESS\"]}")
+    Map<String, List<Object>> changes;
+
+    @Schema(description = "Time the action happened", example = "2025-11-01T10:30:00Z")
+    Instant timestamp;
+}
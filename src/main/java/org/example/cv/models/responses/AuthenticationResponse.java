@@ -13,4 +13,5 @@ import lombok.experimental.FieldDefaults;
 public class AuthenticationResponse {
     String token;
     Date expiryTime;
+    String refreshToken;
 }
@@ -0,0 +1,12 @@
+package org.example.cv.models.responses;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Một entry lấy mẫu từ cache")
+public record CacheEntryResponse(
+        @Schema(example = "project_42") String key,
+        @Schema(description = "local (Caffeine) hoặc remote (Redis)", example = "remote") String level,
+        @Schema(example = "ProjectResponse", nullable = true) String valueType,
+        @Schema(description = "Tuổi của entry (ms)", nullable = true) Long ageMillis,
+        @Schema(description = "Thời gian còn lại trước khi hết hạn (ms)", nullable = true) Long ttlMillis,
+        @Schema(description = "Kích thước sau serialize (byte), chỉ có với Redis", nullable = true) Long sizeBytes) {}
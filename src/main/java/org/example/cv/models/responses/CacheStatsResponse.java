@@ -0,0 +1,12 @@
+package org.example.cv.models.responses;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Thống kê của một tầng cache")
+public record CacheStatsResponse(
+        @Schema(description = "local (Caffeine) hoặc remote (Redis)", example = "local") String level,
+        @Schema(description = "Số entry ước tính, null nếu không đếm được rẻ (Redis)", nullable = true) Long size,
+        long hits,
+        long misses,
+        @Schema(description = "Số entry bị xóa do hết chỗ (local) hoặc bị xóa chủ động (remote)") long evictions,
+        @Schema(example = "0.92") double hitRate) {}
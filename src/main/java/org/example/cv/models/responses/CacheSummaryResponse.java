@@ -0,0 +1,13 @@
+package org.example.cv.models.responses;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Tổng quan một cache")
+public record CacheSummaryResponse(
+        @Schema(example = "compositeCacheManager") String cacheManager,
+        @Schema(example = "project-detail") String name,
+        @Schema(description = "caffeine, redis hoặc two-level", example = "two-level") String type,
+        @Schema(description = "TTL cấu hình (giây)", nullable = true) Long ttlSeconds,
+        List<CacheStatsResponse> levels) {}
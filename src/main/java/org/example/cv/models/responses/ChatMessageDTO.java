@@ -82,6 +82,7 @@ public class ChatMessageDTO {
      */
     @Data
     @lombok.Builder
+    @lombok.AllArgsConstructor // ConstructorResult của ChatMessageEntity.findConversations
     @Schema(description = "Conversation information for chat list")
     public static class ConversationDTO {
         @Schema(description = "User ID of the conversation partner", example = "123")
@@ -108,6 +109,7 @@ public class ChatMessageDTO {
      */
     @Data
     @lombok.Builder
+    @lombok.AllArgsConstructor // ConstructorResult của ChatMessageEntity.findProjectConversations
     @Schema(description = "Project group chat information")
     public static class ProjectConversationDTO {
         @Schema(description = "Project ID", example = "1")
@@ -0,0 +1,12 @@
+package org.example.cv.models.responses;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Kết quả trả về phân trang theo cursor (keyset)")
+public record CursorPageResponse<T>(
+        List<T> content,
+        int size,
+        @Schema(description = "Cursor để lấy trang tiếp theo, null nếu đã hết", nullable = true) String nextCursor,
+        boolean hasNext) {}
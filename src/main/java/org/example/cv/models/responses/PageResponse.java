@@ -2,7 +2,23 @@ package org.example.cv.models.responses;
 
 import java.util.List;
 
+import org.springframework.data.domain.Page;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Kết quả trả về có phân trang")
-public record PageResponse<T>(List<T> content, int page, int size, long totalElements, int totalPages, boolean last) {}
+public record PageResponse<T>(List<T> content, int page, int size, long totalElements, int totalPages, boolean last) {
+
+    /**
+     * Chuyển {@link Page} (không serialize/deserialize được qua cache) sang record đơn giản.
+     */
+    public static <T> PageResponse<T> from(Page<T> page) {
+        return new PageResponse<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                page.getTotalElements(),
+                page.getTotalPages(),
+                page.isLast());
+    }
+}
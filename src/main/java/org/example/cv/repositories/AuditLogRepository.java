@@ -1,8 +1,80 @@
 package org.example.cv.repositories;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
 import org.example.cv.models.entities.AuditLogEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLogEntity, Long> {}
+public interface AuditLogRepository extends JpaRepository<AuditLogEntity, Long> {
+
+    /**
+     * Keyset pagination theo (timestamp DESC, id DESC).
+     * Khoảng [from, to) luôn bắt buộc để Postgres chỉ quét các partition tháng liên quan.
+     * Trang đầu tiên truyền cursorTimestamp = to và cursorId = Long.MAX_VALUE.
+     */
+    @Query("""
+            SELECT a FROM AuditLogEntity a
+            WHERE a.timestamp >= :from AND a.timestamp < :to
+              AND (:actorId IS NULL OR a.actorId = :actorId)
+              AND (:entityType IS NULL OR a.entityType = :entityType)
+              AND (:entityId IS NULL OR a.entityId = :entityId)
+              AND (a.timestamp < :cursorTimestamp
+                   OR (a.timestamp = :cursorTimestamp AND a.id < :cursorId))
+            ORDER BY a.timestamp DESC, a.id DESC
+            """)
+    List<AuditLogEntity> search(
+            @Param("actorId") Long actorId,
+            @Param("entityType") String entityType,
+            @Param("entityId") Long entityId,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("cursorTimestamp") Instant cursorTimestamp,
+            @Param("cursorId") Long cursorId,
+            Pageable pageable);
+
+    /**
+     * Mọi thay đổi của một field trên một entity, cùng thứ tự keyset với {@link #search}.
+     * {@code changes @> {field: []}} đúng khi changes có key field (mảng rỗng nằm trong mọi mảng)
+     * và dùng được GIN index jsonb_ops.
+     */
+    @Query(
+            value =
+                    """
+            SELECT a.* FROM audit_logs a
+            WHERE a.entity_type = :entityType AND a.entity_id = :entityId
+              AND a.changes @> jsonb_build_object(CAST(:field AS text), CAST('[]' AS jsonb))
+              AND a."timestamp" >= :from AND a."timestamp" < :to
+              AND (a."timestamp" < :cursorTimestamp
+                   OR (a."timestamp" = :cursorTimestamp AND a.id < :cursorId))
+            ORDER BY a."timestamp" DESC, a.id DESC
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<AuditLogEntity> findFieldChanges(
+            @Param("entityType") String entityType,
+            @Param("entityId") Long entityId,
+            @Param("field") String field,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("cursorTimestamp") Instant cursorTimestamp,
+            @Param("cursorId") Long cursorId,
+            @Param("limit") int limit);
+
+    // Tạo partition cho tháng chứa :month (idempotent), trả về tên partition
+    @Transactional
+    @Query(value = "SELECT audit_logs_ensure_partition(CAST(:month AS date))", nativeQuery = true)
+    String ensureMonthlyPartition(@Param("month") LocalDate month);
+
+    // Drop toàn bộ partition tháng bắt đầu trước :month (và xóa dòng cũ trong DEFAULT), trả về số partition đã drop
+    @Transactional
+    @Query(value = "SELECT audit_logs_drop_partitions_before(CAST(:month AS date))", nativeQuery = true)
+    int dropPartitionsBefore(@Param("month") LocalDate month);
+}
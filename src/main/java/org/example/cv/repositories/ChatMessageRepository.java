@@ -3,7 +3,7 @@ package org.example.cv.repositories;
 import java.util.List;
 
 import org.example.cv.models.entities.ChatMessageEntity;
-import org.example.cv.models.entities.UserEntity;
+import org.example.cv.models.responses.ChatMessageDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -14,43 +14,28 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessageEntity,
 
     Page<ChatMessageEntity> findByProjectIdOrderByCreatedAtAsc(Long projectId, Pageable pageable);
 
-    // Lấy lịch sử chat riêng giữa 2 người
+    // Lấy lịch sử chat riêng giữa 2 người, lọc theo khóa cặp (LEAST, GREATEST) để dùng idx_chat_messages_pair
     @Query(
             """
 				SELECT m
 				FROM ChatMessageEntity m
-				WHERE (m.sender.id = :user1Id AND m.receiver.id = :user2Id)
-				OR (m.sender.id = :user2Id AND m.receiver.id = :user1Id)
-				ORDER BY m.createdAt DESC
+				WHERE least(m.sender.id, m.receiver.id) = least(:user1Id, :user2Id)
+				AND greatest(m.sender.id, m.receiver.id) = greatest(:user1Id, :user2Id)
+				AND m.receiver.id IS NOT NULL
+				ORDER BY m.createdAt DESC, m.id DESC
 			""")
     List<ChatMessageEntity> findPrivateChatHistory(
             @Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id, Pageable pageable);
 
-    @Query(
-            """
-				SELECT DISTINCT u
-				FROM UserEntity u
-				WHERE u.id IN (
-					SELECT DISTINCT CASE
-						WHEN m.sender.id = :userId THEN m.receiver.id
-						ELSE m.sender.id
-					END
-					FROM ChatMessageEntity m
-					WHERE m.sender.id = :userId OR m.receiver.id = :userId
-				)
-				""")
-    List<UserEntity> findConversationUsers(@Param("userId") Long userId);
-
-    // Lấy tin nhắn cuối cùng giữa 2 user
-    @Query(
-            """
-		SELECT m FROM ChatMessageEntity m
-		WHERE (m.sender.id = :user1Id AND m.receiver.id = :user2Id)
-		OR (m.sender.id = :user2Id AND m.receiver.id = :user1Id)
-		ORDER BY m.createdAt DESC
-		""")
-    ChatMessageEntity findLastMessageBetweenUsers(@Param("user1Id") Long user1Id, @Param("user2Id") Long user2Id);
-
-    // Lấy tin nhắn cuối cùng của một project
-    ChatMessageEntity findTopByProjectIdOrderByCreatedAtDesc(Long projectId);
+    /**
+     * Danh sách hội thoại riêng của user, mỗi đối phương một dòng kèm tin nhắn cuối.
+     * Named native query {@code ChatMessageEntity.findConversations} (UNION ALL hai chiều, DISTINCT ON theo đối phương).
+     */
+    List<ChatMessageDTO.ConversationDTO> findConversations(@Param("userId") Long userId);
+
+    /**
+     * Group chat của các project mà user là thành viên, kèm số thành viên và tin nhắn cuối.
+     * Named native query {@code ChatMessageEntity.findProjectConversations} (LEFT JOIN LATERAL ... LIMIT 1).
+     */
+    List<ChatMessageDTO.ProjectConversationDTO> findProjectConversations(@Param("userId") Long userId);
 }
@@ -1,7 +1,41 @@
 package org.example.cv.repositories;
 
+import java.util.Date;
+import java.util.List;
+
 import org.example.cv.models.entities.InvalidatedToken;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
-public interface InvalidedTokenRepository extends BaseRepository<InvalidatedToken, String> {}
+public interface InvalidedTokenRepository extends BaseRepository<InvalidatedToken, String> {
+
+    List<InvalidatedToken> findAllByExpiryTimeAfter(Date time);
+
+    /**
+     * Lấy một batch token đã hết hạn sau cursor (expiry_time, id), đi theo index idx_invalidated_tokens_expiry_time
+     */
+    @Query(
+            value =
+                    """
+            SELECT t.* FROM invalidated_tokens t
+            WHERE t.expiry_time < :cutoff
+              AND (t.expiry_time, t.id) > (:afterExpiry, :afterId)
+            ORDER BY t.expiry_time, t.id
+            LIMIT :limit
+            """,
+            nativeQuery = true)
+    List<InvalidatedToken> findExpiredBatch(
+            @Param("cutoff") Date cutoff,
+            @Param("afterExpiry") Date afterExpiry,
+            @Param("afterId") String afterId,
+            @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM InvalidatedToken t WHERE t.id IN :ids")
+    int deleteAllByIds(@Param("ids") List<String> ids);
+}
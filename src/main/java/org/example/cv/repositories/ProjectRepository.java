@@ -29,6 +29,10 @@ public interface ProjectRepository extends BaseRepository<ProjectEntity, Long> {
             nativeQuery = true)
     Page<ProjectEntity> findAll(Pageable pageable, @Param("filter") String filter);
 
+    // Project được cập nhật gần nhất, dùng để warm-up cache khi chưa có danh sách hot key
+    @Query("SELECT p.id FROM ProjectEntity p ORDER BY p.updatedAt DESC NULLS LAST")
+    List<Long> findRecentlyUpdatedIds(Pageable pageable);
+
     @Query(value = """
         SELECT * FROM projects p 
         WHERE to_tsvector('english', p.name || ' ' || coalesce(p.description , '')) @@ plainto_tsquery('english', :filter)
@@ -1,5 +1,6 @@
 package org.example.cv.repositories;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.example.cv.models.entities.UserEntity;
@@ -35,6 +36,10 @@ public interface UserRepository extends BaseRepository<UserEntity, Long> {
     @EntityGraph(attributePaths = {"roles"})
     Optional<UserEntity> findByUsername(String username);
 
+    // User được cập nhật gần nhất, dùng để warm-up cache khi chưa có danh sách hot key
+    @Query("SELECT u.id FROM UserEntity u ORDER BY u.updatedAt DESC NULLS LAST")
+    List<Long> findRecentlyUpdatedIds(Pageable pageable);
+
     @EntityGraph(attributePaths = {"roles"})
     Optional<UserEntity> findByEmail(String email);
 }
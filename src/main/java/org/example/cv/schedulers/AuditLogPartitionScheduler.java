@@ -0,0 +1,55 @@
+package org.example.cv.schedulers;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.example.cv.repositories.AuditLogRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Quản lý vòng đời partition của audit_logs:
+ * tạo trước partition cho các tháng tới và drop partition hết hạn retention.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class AuditLogPartitionScheduler {
+    private final AuditLogRepository auditLogRepository;
+
+    @Value("${audit.partition.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${audit.retention-months:12}")
+    private int retentionMonths;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintainPartitions();
+    }
+
+    @Scheduled(cron = "${audit.partition.cron:0 0 3 * * *}")
+    public void maintainPartitions() {
+        LocalDate currentMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        try {
+            for (int i = 0; i <= monthsAhead; i++) {
+                String partition = auditLogRepository.ensureMonthlyPartition(currentMonth.plusMonths(i));
+                log.debug("Audit log partition ready: {}", partition);
+            }
+            if (retentionMonths > 0) {
+                int dropped = auditLogRepository.dropPartitionsBefore(currentMonth.minusMonths(retentionMonths));
+                if (dropped > 0) {
+                    log.info("Dropped {} expired audit log partition(s)", dropped);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to maintain audit log partitions", e);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.cv.schedulers;
+
+import java.util.List;
+
+import org.example.cv.configuration.CacheWarmupRunner;
+import org.example.cv.utils.cache.HotKeyStore;
+import org.example.cv.utils.cache.TwoLevelCacheManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Định kỳ lưu top-N key hot của các cache được warm-up để lần deploy sau preload đúng các key đó.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CacheHotKeyScheduler {
+    private final HotKeyStore hotKeyStore;
+    private final CaffeineCacheManager caffeineCacheManager;
+    private final TwoLevelCacheManager compositeCacheManager;
+
+    @Value("${cache.warmup.top-n:50}")
+    private int topN;
+
+    @Scheduled(
+            fixedDelayString = "${cache.warmup.hot-keys.persist-interval-ms:300000}",
+            initialDelayString = "${cache.warmup.hot-keys.persist-interval-ms:300000}")
+    public void persistHotKeys() {
+        persist(caffeineCacheManager, CacheWarmupRunner.USERS_CACHE);
+        persist(compositeCacheManager, CacheWarmupRunner.PROJECT_DETAIL_CACHE);
+    }
+
+    private void persist(CacheManager cacheManager, String cacheName) {
+        try {
+            // getCache tạo cache nếu chưa có, nên chỉ lấy cache đã được dùng
+            if (!cacheManager.getCacheNames().contains(cacheName)) {
+                return;
+            }
+            Cache cache = cacheManager.getCache(cacheName);
+            List<String> keys = HotKeyStore.hottest(cache, topN);
+            hotKeyStore.save(cacheName, keys);
+            log.debug("Persisted {} hot keys of {}", keys.size(), cacheName);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to persist hot keys of {}: {}", cacheName, e.getMessage());
+        }
+    }
+}
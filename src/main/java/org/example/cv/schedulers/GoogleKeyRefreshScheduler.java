@@ -0,0 +1,37 @@
+package org.example.cv.schedulers;
+
+import org.example.cv.utils.security.GoogleKeyProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Làm mới public key của Google ở nền (lúc khởi động và định kỳ) để request đăng nhập không phải tải cert.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class GoogleKeyRefreshScheduler {
+    private final GoogleKeyProvider googleKeyProvider;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        refreshKeys();
+    }
+
+    @Scheduled(
+            fixedDelayString = "${outbound.google.keys.refresh-interval-ms:1800000}",
+            initialDelayString = "${outbound.google.keys.refresh-interval-ms:1800000}")
+    public void refreshKeys() {
+        try {
+            googleKeyProvider.refresh();
+        } catch (Exception e) {
+            // Giữ snapshot cũ: key cũ của Google vẫn còn hiệu lực một thời gian sau khi xoay vòng
+            log.warn("⚠️ Failed to refresh Google public keys: {}", e.getMessage());
+        }
+    }
+}
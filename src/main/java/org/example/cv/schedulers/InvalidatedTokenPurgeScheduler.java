@@ -0,0 +1,92 @@
+package org.example.cv.schedulers;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.example.cv.models.entities.InvalidatedToken;
+import org.example.cv.repositories.InvalidedTokenRepository;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Xóa dần các token đã hết hạn khỏi invalidated_tokens.
+ *
+ * <p>Chỉ một node chạy mỗi lượt (Redisson lock). Mỗi batch là một transaction ngắn, duyệt theo keyset
+ * (expiry_time, id) và nghỉ giữa các batch để không giữ lock lâu hay dồn WAL.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class InvalidatedTokenPurgeScheduler {
+    private static final String LOCK_NAME = "scheduler-lock:invalidated-token-purge";
+
+    private final InvalidedTokenRepository invalidedTokenRepository;
+    private final RedissonClient redissonClient;
+
+    @Value("${security.revocation.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${security.revocation.purge.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${security.revocation.purge.max-batches:200}")
+    private int maxBatches;
+
+    @Scheduled(cron = "${security.revocation.purge.cron:0 */15 * * * *}")
+    public void purgeExpiredTokens() {
+        RLock lock = redissonClient.getLock(LOCK_NAME);
+        boolean locked = false;
+        try {
+            // Không chờ: node khác đang purge thì bỏ qua lượt này; watchdog gia hạn lock trong lúc chạy
+            locked = lock.tryLock(0, TimeUnit.MILLISECONDS);
+            if (!locked) {
+                log.debug("Invalidated token purge is running on another node");
+                return;
+            }
+            purge();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Failed to purge expired invalidated tokens", e);
+        } finally {
+            if (locked && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void purge() throws InterruptedException {
+        Date cutoff = new Date();
+        Date afterExpiry = new Date(0);
+        String afterId = "";
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<InvalidatedToken> expired =
+                    invalidedTokenRepository.findExpiredBatch(cutoff, afterExpiry, afterId, batchSize);
+            if (expired.isEmpty()) {
+                break;
+            }
+            total += invalidedTokenRepository.deleteAllByIds(
+                    expired.stream().map(InvalidatedToken::getId).toList());
+
+            InvalidatedToken last = expired.get(expired.size() - 1);
+            afterExpiry = last.getExpiryTime();
+            afterId = last.getId();
+            if (expired.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(pauseMs);
+        }
+        if (total > 0) {
+            log.info("Purged {} expired invalidated token(s)", total);
+        }
+    }
+}
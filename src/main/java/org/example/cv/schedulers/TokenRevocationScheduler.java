@@ -0,0 +1,29 @@
+package org.example.cv.schedulers;
+
+import org.example.cv.utils.security.TokenRevocationRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Định kỳ dựng lại danh sách token bị thu hồi để bỏ jti đã hết hạn và bù các message pub/sub bị lỡ.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TokenRevocationScheduler {
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Scheduled(
+            fixedDelayString = "${security.revocation.rebuild-interval-ms:300000}",
+            initialDelayString = "${security.revocation.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        try {
+            tokenRevocationRegistry.rebuild();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Failed to rebuild token revocation registry: {}", e.getMessage());
+        }
+    }
+}
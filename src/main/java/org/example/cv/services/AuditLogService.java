@@ -1,9 +1,17 @@
 package org.example.cv.services;
 
 import org.example.cv.event.AuditLogEvent;
+import org.example.cv.models.requests.AuditLogFilterRequest;
+import org.example.cv.models.responses.AuditLogResponse;
+import org.example.cv.models.responses.CursorPageResponse;
 import org.springframework.stereotype.Service;
 
 @Service
 public interface AuditLogService {
     void handleAuditLogEvent(AuditLogEvent event);
+
+    CursorPageResponse<AuditLogResponse> search(AuditLogFilterRequest filter, int size);
+
+    CursorPageResponse<AuditLogResponse> getFieldChanges(
+            String entityType, Long entityId, String field, AuditLogFilterRequest filter, int size);
 }
@@ -1,7 +1,5 @@
 package org.example.cv.services;
 
-import java.text.ParseException;
-
 import org.example.cv.models.requests.AuthenticationRequest;
 import org.example.cv.models.requests.GoogleLoginRequest;
 import org.example.cv.models.requests.IntrospectRequest;
@@ -12,8 +10,6 @@ import org.example.cv.models.responses.IntrospectResponse;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
 
-import com.nimbusds.jose.JOSEException;
-
 @Service
 public interface AuthenticationService {
 
@@ -23,9 +19,9 @@ public interface AuthenticationService {
 
     AuthenticationResponse authenticate(AuthenticationRequest request);
 
-    void logout(LogoutRequest request) throws ParseException, JOSEException;
+    void logout(LogoutRequest request);
 
-    AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException;
+    AuthenticationResponse refreshToken(RefreshRequest request);
 
     AuthenticationResponse authenticateWithGoogle(GoogleLoginRequest request);
 }
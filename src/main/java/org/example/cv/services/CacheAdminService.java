@@ -0,0 +1,18 @@
+package org.example.cv.services;
+
+import java.util.List;
+
+import org.example.cv.models.responses.CacheEntryResponse;
+import org.example.cv.models.responses.CacheSummaryResponse;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface CacheAdminService {
+    List<CacheSummaryResponse> getCaches();
+
+    List<CacheEntryResponse> sampleEntries(String cacheManager, String cacheName, int limit);
+
+    void evict(String cacheManager, String cacheName, String key);
+
+    void clear(String cacheManager, String cacheName);
+}
@@ -0,0 +1,44 @@
+package org.example.cv.services;
+
+import java.time.Instant;
+
+import org.springframework.stereotype.Service;
+
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+@Service
+public interface JwtTokenService {
+
+    /**
+     * Ký claims bằng HS256 với signer dùng chung.
+     */
+    String sign(JWTClaimsSet claims);
+
+    /**
+     * Verify chữ ký, hạn dùng và trạng thái thu hồi của token (theo jti và theo mốc thu hồi của user).
+     * @throws org.example.cv.exceptions.AppException UNAUTHENTICATED nếu token không hợp lệ
+     */
+    VerifiedToken verify(String token);
+
+    /**
+     * Token đã verify chữ ký; được cache theo nguyên chuỗi token tới thời điểm {@code exp}.
+     */
+    record VerifiedToken(String tokenValue, JWSHeader header, JWTClaimsSet claims) {
+        public String jti() {
+            return claims.getJWTID();
+        }
+
+        public Instant expiresAt() {
+            return claims.getExpirationTime().toInstant();
+        }
+
+        public Instant issuedAt() {
+            return claims.getIssueTime() != null ? claims.getIssueTime().toInstant() : null;
+        }
+
+        public Long userId() {
+            return claims.getClaim("userId") instanceof Number userId ? userId.longValue() : null;
+        }
+    }
+}
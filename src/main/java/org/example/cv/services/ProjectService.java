@@ -3,14 +3,13 @@ package org.example.cv.services;
 import org.example.cv.models.requests.ProjectRequest;
 import org.example.cv.models.responses.PageResponse;
 import org.example.cv.models.responses.ProjectResponse;
-import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
 @Service
 public interface ProjectService {
-    Page<ProjectResponse> getAll(int page, int size, String sortBy, String sortDir, String filter);
+    PageResponse<ProjectResponse> getAll(int page, int size, String sortBy, String sortDir, String filter);
 
-    Page<ProjectResponse> getMyProjects(int page, int size);
+    PageResponse<ProjectResponse> getMyProjects(int page, int size);
 
     ProjectResponse getById(Long id);
 
@@ -22,7 +21,7 @@ public interface ProjectService {
 
     void restore(Long id);
 
-    Page<ProjectResponse> getAllByOwnerId(
+    PageResponse<ProjectResponse> getAllByOwnerId(
             Long ownerId, int page, int size, String sortBy, String sortDir, String filter);
 
     ProjectResponse addMember(Long projectId, Long userId);
@@ -4,6 +4,7 @@ import org.example.cv.models.entities.TaskEntity;
 import org.example.cv.models.entities.UserEntity;
 import org.example.cv.repositories.TaskRepository;
 import org.example.cv.utils.AuthenticationUtils;
+import org.example.cv.utils.cache.NegativeLookupCache;
 import org.springframework.stereotype.Service;
 
 import lombok.RequiredArgsConstructor;
@@ -13,16 +14,14 @@ import lombok.RequiredArgsConstructor;
 public class TaskSecurityService {
 
     private final TaskRepository taskRepository;
+    private final NegativeLookupCache negativeLookupCache;
 
     /**
      * Kiểm tra xem user hiện tại có phải là Assignee, Project Owner,
      * hay không (Admin đã được kiểm tra bằng hasRole('ADMIN')).
      */
     public boolean canAccessTask(Long taskId) {
-        // Lấy task và join fetch project + owner để tránh N+1
-        TaskEntity task = taskRepository
-                .findTaskWithDetailsById(taskId)
-                .orElse(null); // Không throw 404 ở đây, để PreAuthorize xử lý
+        TaskEntity task = findTask(taskId); // Không throw 404 ở đây, để PreAuthorize xử lý
 
         if (task == null) {
             return false; // Hoặc true nếu muốn 404 thay vì 403
@@ -50,7 +49,7 @@ public class TaskSecurityService {
      * Dùng cho việc update status - chỉ assignee hoặc creator mới được phép.
      */
     public boolean isAssigneeOrCreator(Long taskId) {
-        TaskEntity task = taskRepository.findTaskWithDetailsById(taskId).orElse(null);
+        TaskEntity task = findTask(taskId);
 
         if (task == null) {
             return false;
@@ -73,4 +72,19 @@ public class TaskSecurityService {
 
         return false;
     }
+
+    /**
+     * Lấy task và join fetch project + owner để tránh N+1.
+     * ID đã biết là không tồn tại (negative cache) thì trả null luôn mà không query DB.
+     */
+    private TaskEntity findTask(Long taskId) {
+        if (negativeLookupCache.isMissing(NegativeLookupCache.TASK, taskId)) {
+            return null;
+        }
+        TaskEntity task = taskRepository.findTaskWithDetailsById(taskId).orElse(null);
+        if (task == null) {
+            negativeLookupCache.markMissing(NegativeLookupCache.TASK, taskId);
+        }
+        return task;
+    }
 }
@@ -1,15 +1,28 @@
 package org.example.cv.services.impl;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
+import org.example.cv.event.AuditEntry;
 import org.example.cv.event.AuditLogEvent;
+import org.example.cv.event.AuditLogWriter;
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
 import org.example.cv.models.entities.AuditLogEntity;
+import org.example.cv.models.requests.AuditLogFilterRequest;
+import org.example.cv.models.responses.AuditLogResponse;
+import org.example.cv.models.responses.CursorPageResponse;
 import org.example.cv.repositories.AuditLogRepository;
 import org.example.cv.services.AuditLogService;
+import org.example.cv.utils.KeysetCursor;
+import org.example.cv.utils.mapper.AuditLogMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,26 +32,124 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class AuditLogServiceImpl implements AuditLogService {
     private final AuditLogRepository auditLogRepository;
+    private final AuditLogMapper auditLogMapper;
+    private final AuditLogWriter auditLogWriter;
 
+    @Value("${audit.query.default-range-days:30}")
+    private long defaultRangeDays;
+
+    @Value("${audit.query.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * Chỉ đưa các bản ghi của transaction vào hàng đợi của {@link AuditLogWriter}, việc ghi DB được gom lô ở thread nền.
+     * @param event
+     */
     @Override
-    @TransactionalEventListener
-    @Async
     @EventListener(AuditLogEvent.class)
     public void handleAuditLogEvent(AuditLogEvent event) {
-        AuditLogEntity entity = AuditLogEntity.builder()
-                .actorId(event.getActorId())
-                .actionType(event.getAction())
-                .entityType(event.getEntityType())
-                .entityId(event.getEntityId())
-                .details(event.getDetails())
-                .timestamp(Instant.now())
-                .build();
-
-        auditLogRepository.save(entity);
-        log.info(
-                "✅ [Async] Saved audit log: {} {} id={}",
-                event.getAction(),
-                event.getEntityType(),
-                event.getEntityId());
+        for (AuditEntry entry : event.getEntries()) {
+            auditLogWriter.enqueue(AuditLogEntity.builder()
+                    .actorId(entry.actorId())
+                    .actionType(entry.action())
+                    .entityType(entry.entityType())
+                    .entityId(entry.entityId())
+                    .details(entry.details())
+                    .changes(entry.changes())
+                    .timestamp(entry.timestamp())
+                    .build());
+        }
+    }
+
+    /**
+     * Tìm audit log theo actor / entity / khoảng thời gian với keyset pagination.
+     * Khoảng thời gian luôn được giới hạn để Postgres prune partition theo tháng.
+     * @param filter
+     * @param size
+     * @return
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageResponse<AuditLogResponse> search(AuditLogFilterRequest filter, int size) {
+        TimeRange range = resolveRange(filter);
+        KeysetCursor cursor = resolveCursor(filter, range);
+        int pageSize = clampPageSize(size);
+
+        // Lấy dư 1 bản ghi để biết còn trang sau hay không, không cần COUNT(*)
+        List<AuditLogEntity> rows = auditLogRepository.search(
+                filter.actorId(),
+                filter.entityType(),
+                filter.entityId(),
+                range.from(),
+                range.to(),
+                cursor.timestamp(),
+                cursor.id(),
+                PageRequest.of(0, pageSize + 1));
+        return toPage(rows, pageSize);
+    }
+
+    /**
+     * Lịch sử thay đổi của một field trên một entity, dựa trên GIN index của cột changes.
+     * @param entityType
+     * @param entityId
+     * @param field
+     * @param filter chỉ dùng from / to / cursor
+     * @param size
+     * @return
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPageResponse<AuditLogResponse> getFieldChanges(
+            String entityType, Long entityId, String field, AuditLogFilterRequest filter, int size) {
+        TimeRange range = resolveRange(filter);
+        KeysetCursor cursor = resolveCursor(filter, range);
+        int pageSize = clampPageSize(size);
+
+        List<AuditLogEntity> rows = auditLogRepository.findFieldChanges(
+                entityType,
+                entityId,
+                field,
+                range.from(),
+                range.to(),
+                cursor.timestamp(),
+                cursor.id(),
+                pageSize + 1);
+        return toPage(rows, pageSize);
+    }
+
+    private record TimeRange(Instant from, Instant to) {}
+
+    private TimeRange resolveRange(AuditLogFilterRequest filter) {
+        Instant to = filter.to() != null ? filter.to() : Instant.now();
+        Instant from = filter.from() != null ? filter.from() : to.minus(Duration.ofDays(defaultRangeDays));
+        if (!from.isBefore(to)) {
+            throw new AppException(ErrorCode.INVALID_TIME_RANGE);
+        }
+        return new TimeRange(from, to);
+    }
+
+    private KeysetCursor resolveCursor(AuditLogFilterRequest filter, TimeRange range) {
+        return filter.cursor() != null && !filter.cursor().isBlank()
+                ? KeysetCursor.decode(filter.cursor())
+                : new KeysetCursor(range.to(), Long.MAX_VALUE);
+    }
+
+    private int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private CursorPageResponse<AuditLogResponse> toPage(List<AuditLogEntity> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<AuditLogEntity> page = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            AuditLogEntity last = page.get(page.size() - 1);
+            nextCursor = new KeysetCursor(last.getTimestamp(), last.getId()).encode();
+        }
+
+        return new CursorPageResponse<>(
+                page.stream().map(auditLogMapper::toResponse).toList(), pageSize, nextCursor, hasNext);
     }
 }
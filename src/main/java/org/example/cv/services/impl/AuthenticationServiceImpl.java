@@ -1,6 +1,5 @@
 package org.example.cv.services.impl;
 
-import java.text.ParseException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
@@ -19,8 +18,11 @@ import org.example.cv.repositories.InvalidedTokenRepository;
 import org.example.cv.repositories.UserRepository;
 import org.example.cv.services.AuthenticationService;
 import org.example.cv.services.EmailService;
+import org.example.cv.services.JwtTokenService;
+import org.example.cv.utils.cache.NegativeLookupCache;
+import org.example.cv.utils.security.RefreshTokenStore;
+import org.example.cv.utils.security.TokenRevocationRegistry;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Service;
@@ -29,13 +31,7 @@ import org.springframework.util.CollectionUtils;
 
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
-import com.nimbusds.jose.*;
-import com.nimbusds.jose.crypto.MACSigner;
-import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
@@ -51,20 +47,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     InvalidedTokenRepository invalidedTokenRepository;
     EmailService emailService;
     PasswordEncoder passwordEncoder;
+    NegativeLookupCache negativeLookupCache;
+    JwtTokenService jwtTokenService;
+    TokenRevocationRegistry tokenRevocationRegistry;
+    RefreshTokenStore refreshTokenStore;
+    GoogleIdTokenVerifier googleIdTokenVerifier;
     static String EMAIL = "email";
 
-    @NonFinal
-    @Value("${outbound.google.client-id}")
-    protected String CLIENT_ID;
-
-
-    @NonFinal
-    @Value("${jwt.secret}")
-    protected String secret;
 
     @NonFinal
     @Value("${jwt.expiration}")
-    protected Long jwtExpiration; // in minutes
+    protected Long jwtExpiration; // in milliseconds
 
     /**
      * Authenticate user with OAuth2
@@ -89,6 +82,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                     .email((String) userInfo.get(EMAIL))
                     .build();
             var savedUser = userRepository.save(newUser);
+            negativeLookupCache.forget(NegativeLookupCache.USER, savedUser.getId());
             try {
                 emailService.sendHtmlMessage(
                         userInfo.get("email").toString(),
@@ -102,11 +96,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             log.info("Created new user: {}", savedUser.getId());
             return savedUser;
         });
-        var tokenInfo = generateToken(user);
-        return AuthenticationResponse.builder()
-                .token(tokenInfo.token)
-                .expiryTime(tokenInfo.expiryDate)
-                .build();
+        return issueTokens(user);
     }
 
     /**
@@ -140,8 +130,13 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
         boolean authenticated = passwordEncoder.matches(request.getPassword(), user.getPassword());
         if (!authenticated) throw new AppException(ErrorCode.UNAUTHENTICATED);
-        TokenInfo tokenInfo = generateToken(user);
-        return new AuthenticationResponse(tokenInfo.token, tokenInfo.expiryDate);
+        // Hash cũ có cost thấp hơn cấu hình hiện tại thì hash lại ngay khi đang có mật khẩu gốc
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.save(user);
+            log.info("Rehashed password of user {} with the current cost factor", user.getUsername());
+        }
+        return issueTokens(user);
     }
 
     /**
@@ -154,10 +149,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         String jit = null;
         Date expiryTime = null;
         try{
-            var signToken = verifyToken(request.getToken());
+            var claims = verifyToken(request.getToken());
 
-            jit = signToken.getJWTClaimsSet().getJWTID();
-            expiryTime = signToken.getJWTClaimsSet().getExpirationTime();
+            jit = claims.getJWTID();
+            expiryTime = claims.getExpirationTime();
         }
         catch (Exception e){
             log.error("Invalid token during logout", e);
@@ -168,68 +163,71 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
 
         invalidedTokenRepository.save(invalidatedToken);
+        tokenRevocationRegistry.revoke(jit, expiryTime);
+        if (request.getRefreshToken() != null) {
+            refreshTokenStore.revoke(request.getRefreshToken());
+        }
     }
 
     /**
-     * Refresh token
+     * Refresh token: đổi refresh token opaque (Redis, dùng một lần) lấy access token và refresh token mới.
+     * Không đọc/ghi Postgres; access token cũ vẫn hết hạn theo exp.
      * @param request
      * @return
      */
-    @Transactional
     @Override
-    public AuthenticationResponse refreshToken(RefreshRequest request) throws ParseException, JOSEException {
+    public AuthenticationResponse refreshToken(RefreshRequest request) {
         log.info("Refreshing token");
-        var signedJWT = verifyToken(request.getToken());
+        RefreshTokenStore.RefreshSession session = refreshTokenStore.rotate(request.getToken());
 
-        String jit = signedJWT.getJWTClaimsSet().getJWTID();
-        UserEntity user = userRepository
-                .findByUsername(signedJWT.getJWTClaimsSet().getSubject())
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
-        Date expiryTime = signedJWT.getJWTClaimsSet().getExpirationTime();
-
-        InvalidatedToken invalidatedToken =
-                InvalidatedToken.builder().id(jit).expiryTime(expiryTime).build();
-        invalidedTokenRepository.save(invalidatedToken);
-
-        log.info("Generating new token for user: {}", user.getUsername());
-        TokenInfo tokenInfo = generateToken(user);
-        return new AuthenticationResponse(tokenInfo.token, tokenInfo.expiryDate);
+        log.info("Generating new token for user: {}", session.username());
+        TokenInfo tokenInfo = generateToken(session.userId(), session.username(), session.scope());
+        return AuthenticationResponse.builder()
+                .token(tokenInfo.token)
+                .expiryTime(tokenInfo.expiryDate)
+                .refreshToken(session.refreshToken())
+                .build();
     }
 
     /**
-     * Generate JWT token
+     * Generate access token và mở family refresh token mới
      * @param user
      * @return
      */
-    private TokenInfo generateToken(UserEntity user) {
-        JWSHeader jwsHeader = new JWSHeader(JWSAlgorithm.HS256);
+    private AuthenticationResponse issueTokens(UserEntity user) {
+        String scope = buildScope(user);
+        TokenInfo tokenInfo = generateToken(user.getId(), user.getUsername(), scope);
+        return AuthenticationResponse.builder()
+                .token(tokenInfo.token)
+                .expiryTime(tokenInfo.expiryDate)
+                .refreshToken(refreshTokenStore.issue(user.getId(), user.getUsername(), scope))
+                .build();
+    }
 
+    /**
+     * Generate JWT token
+     * @param userId
+     * @param username
+     * @param scope
+     * @return
+     */
+    private TokenInfo generateToken(Long userId, String username, String scope) {
         Date issueTime = new Date();
         Date expiryTime = new Date(Instant.ofEpochMilli(issueTime.getTime())
-                .plus(jwtExpiration, ChronoUnit.SECONDS) // Expiration time in hours
+                .plus(jwtExpiration, ChronoUnit.MILLIS) // jwt.expiration tính bằng mili giây
                 .toEpochMilli());
 
         JWTClaimsSet claimsSet = new JWTClaimsSet.Builder()
-                .subject(user.getUsername())
+                .subject(username)
                 .issuer("example.com")
                 .issueTime(issueTime)
                 .expirationTime(expiryTime)
                 .jwtID(UUID.randomUUID().toString())
-                .claim("userId", user.getId())
-                .claim("scope", buildScope(user))
+                .claim("userId", userId)
+                .claim("scope", scope)
                 .build();
 
-        Payload payload = new Payload(claimsSet.toJSONObject());
-
-        JWSObject jwsObject = new JWSObject(jwsHeader, payload);
-
-        try {
-            jwsObject.sign(new MACSigner(secret.getBytes()));
-            return new TokenInfo(jwsObject.serialize(), expiryTime);
-        } catch (JOSEException e) {
-            log.error("Cannot create token", e);
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-        }
+        return new TokenInfo(jwtTokenService.sign(claimsSet), expiryTime);
     }
 
     /**
@@ -243,13 +241,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         try {
             log.info("Authenticating with Google ID Token");
 
-            // Verify Google ID token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                            new NetHttpTransport(), new GsonFactory())
-                    .setAudience(java.util.Collections.singletonList(CLIENT_ID))
-                    .build();
-
-            GoogleIdToken idToken = verifier.verify(request.getCredential());
+            // Verify Google ID token (verifier dùng chung, key được cache và làm mới ở nền)
+            GoogleIdToken idToken = googleIdTokenVerifier.verify(request.getCredential());
 
             if (idToken == null) {
                 log.error("Invalid Google ID token");
@@ -274,8 +267,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             });
 
             // Generate JWT token
-            TokenInfo tokenInfo = generateToken(user);
-            return new AuthenticationResponse(tokenInfo.token, tokenInfo.expiryDate);
+            return issueTokens(user);
 
         } catch (Exception e) {
             log.error("Google authentication failed", e);
@@ -297,8 +289,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         newUser.setFirstName(name);
         newUser.setUsername(email); // Use email as username
         String password = UUID.randomUUID().toString();
-        newUser.setPassword(
-                new BCryptPasswordEncoder(10).encode(UUID.randomUUID().toString())); // Random password
+        newUser.setPassword(passwordEncoder.encode(password)); // Random password, gửi cho user qua email
         Set<RoleEntity> roles = new HashSet<>();
         roles.add(RoleEntity.builder().name("USER").build());
         newUser.setRoles(roles);
@@ -310,27 +301,17 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                         + "<p>Your temporary password is: <strong>"
                         + password + "</strong></p>" + "<p>Please change your password after logging in.</p>");
 
-        return userRepository.save(newUser);
+        UserEntity savedUser = userRepository.save(newUser);
+        negativeLookupCache.forget(NegativeLookupCache.USER, savedUser.getId());
+        return savedUser;
     }
     /**
-     * Verify token
+     * Verify token qua pipeline chung của {@link JwtTokenService}
      * @param token
-     * @return
-     * @throws JOSEException
-     * @throws java.text.ParseException
+     * @return claims của token đã verify
      */
-    private SignedJWT verifyToken(String token) throws JOSEException, java.text.ParseException {
-        JWSVerifier verifier = new MACVerifier(secret.getBytes());
-        SignedJWT signedJWT = SignedJWT.parse(token);
-
-        Date expirationTime = signedJWT.getJWTClaimsSet().getExpirationTime();
-
-        var verified = signedJWT.verify(verifier);
-        if (!(verified && expirationTime.after(new Date()))) throw new AppException(ErrorCode.UNAUTHENTICATED);
-        if (invalidedTokenRepository.existsById(signedJWT.getJWTClaimsSet().getJWTID()))
-            throw new AppException(ErrorCode.UNAUTHENTICATED);
-
-        return signedJWT;
+    private JWTClaimsSet verifyToken(String token) {
+        return jwtTokenService.verify(token).claims();
     }
 
     /**
@@ -0,0 +1,255 @@
+package org.example.cv.services.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.example.cv.models.responses.CacheEntryResponse;
+import org.example.cv.models.responses.CacheStatsResponse;
+import org.example.cv.models.responses.CacheSummaryResponse;
+import org.example.cv.services.CacheAdminService;
+import org.example.cv.utils.cache.CacheCoalescer;
+import org.example.cv.utils.cache.CacheEnvelope;
+import org.example.cv.utils.cache.TwoLevelCache;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CacheAdminServiceImpl implements CacheAdminService {
+    private static final int MAX_SAMPLE_SIZE = 100;
+
+    private final Map<String, CacheManager> cacheManagers;
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<CacheSummaryResponse> getCaches() {
+        List<CacheSummaryResponse> result = new ArrayList<>();
+        cacheManagers.forEach((managerName, manager) -> {
+            for (String cacheName : manager.getCacheNames()) {
+                Cache cache = CacheCoalescer.unwrap(manager.getCache(cacheName));
+                result.add(summarize(managerName, cache));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Lấy mẫu tối đa {@code limit} entry: Caffeine duyệt map trong bộ nhớ, Redis dùng SCAN theo prefix của cache.
+     * Cache hai tầng lấy mẫu ở L2 vì đó là bản dùng chung giữa các node.
+     */
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<CacheEntryResponse> sampleEntries(String cacheManager, String cacheName, int limit) {
+        int sampleSize = Math.max(1, Math.min(limit, MAX_SAMPLE_SIZE));
+        Cache cache = resolve(cacheManager, cacheName);
+        if (cache instanceof TwoLevelCache twoLevel) {
+            cache = CacheCoalescer.unwrap(twoLevel.getRemoteCache());
+        }
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return sampleLocal(caffeineCache.getNativeCache(), sampleSize);
+        }
+        if (cache instanceof RedisCache redisCache) {
+            return sampleRemote(redisCache, sampleSize);
+        }
+        return List.of();
+    }
+
+    /**
+     * Key từ request luôn là chuỗi; cache Caffeine giữ key gốc (vd. {@code Long} của {@code users}) nên phải tìm key
+     * thật trước khi evict. Không có entry nào khớp thì trả CACHE_ENTRY_NOT_FOUND thay vì báo thành công.
+     */
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void evict(String cacheManager, String cacheName, String key) {
+        log.info("Admin evicting {}:{} from {}", cacheName, key, cacheManager);
+        Object target = resolveKey(resolve(cacheManager, cacheName), key);
+        // Đi qua decorator để cache hai tầng phát invalidation cho các node khác
+        cacheManagers.get(cacheManager).getCache(cacheName).evict(target);
+    }
+
+    @Override
+    @PreAuthorize("hasRole('ADMIN')")
+    public void clear(String cacheManager, String cacheName) {
+        log.info("Admin clearing {} from {}", cacheName, cacheManager);
+        resolve(cacheManager, cacheName);
+        cacheManagers.get(cacheManager).getCache(cacheName).clear();
+    }
+
+    // --- Helper Methods ---
+
+    private Cache resolve(String managerName, String cacheName) {
+        CacheManager manager = cacheManagers.get(managerName);
+        // Không gọi getCache với tên lạ: Caffeine / cache hai tầng sẽ tạo cache mới
+        if (manager == null || !manager.getCacheNames().contains(cacheName)) {
+            throw new AppException(ErrorCode.CACHE_NOT_FOUND);
+        }
+        return CacheCoalescer.unwrap(manager.getCache(cacheName));
+    }
+
+    private Object resolveKey(Cache cache, String key) {
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return caffeineCache.getNativeCache().asMap().keySet().stream()
+                    .filter(candidate -> String.valueOf(candidate).equals(key))
+                    .findFirst()
+                    .orElseThrow(() -> new AppException(ErrorCode.CACHE_ENTRY_NOT_FOUND));
+        }
+        // L1 của cache hai tầng và Redis đều lưu key dạng chuỗi nên key từ request dùng được luôn
+        boolean exists = false;
+        if (cache instanceof TwoLevelCache twoLevel) {
+            exists = twoLevel.getLocalCache().getIfPresent(key) != null;
+            cache = CacheCoalescer.unwrap(twoLevel.getRemoteCache());
+        }
+        if (!exists && cache instanceof RedisCache redisCache) {
+            String prefix = redisCache.getCacheConfiguration().getKeyPrefixFor(redisCache.getName());
+            exists = Boolean.TRUE.equals(stringRedisTemplate.hasKey(prefix + key));
+        }
+        if (!exists) {
+            throw new AppException(ErrorCode.CACHE_ENTRY_NOT_FOUND);
+        }
+        return key;
+    }
+
+    private CacheSummaryResponse summarize(String managerName, Cache cache) {
+        if (cache instanceof TwoLevelCache twoLevel) {
+            Cache remote = CacheCoalescer.unwrap(twoLevel.getRemoteCache());
+            List<CacheStatsResponse> levels = new ArrayList<>();
+            levels.add(localStats(twoLevel.getLocalCache()));
+            if (remote instanceof RedisCache redisCache) {
+                levels.add(remoteStats(redisCache));
+            }
+            return new CacheSummaryResponse(managerName, cache.getName(), "two-level", ttlSeconds(remote), levels);
+        }
+        if (cache instanceof CaffeineCache caffeineCache) {
+            return new CacheSummaryResponse(
+                    managerName,
+                    cache.getName(),
+                    "caffeine",
+                    caffeineCache
+                            .getNativeCache()
+                            .policy()
+                            .expireAfterWrite()
+                            .map(expiration -> expiration.getExpiresAfter(TimeUnit.SECONDS))
+                            .orElse(null),
+                    List.of(localStats(caffeineCache.getNativeCache())));
+        }
+        if (cache instanceof RedisCache redisCache) {
+            return new CacheSummaryResponse(
+                    managerName, cache.getName(), "redis", ttlSeconds(cache), List.of(remoteStats(redisCache)));
+        }
+        return new CacheSummaryResponse(managerName, cache.getName(), cache.getClass().getSimpleName(), null, List.of());
+    }
+
+    private static CacheStatsResponse localStats(com.github.benmanes.caffeine.cache.Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        return new CacheStatsResponse(
+                "local",
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                stats.hitRate());
+    }
+
+    private static CacheStatsResponse remoteStats(RedisCache cache) {
+        CacheStatistics stats = cache.getStatistics();
+        long requests = stats.getHits() + stats.getMisses();
+        return new CacheStatsResponse(
+                "remote",
+                null,
+                stats.getHits(),
+                stats.getMisses(),
+                stats.getDeletes(),
+                requests == 0 ? 1.0 : (double) stats.getHits() / requests);
+    }
+
+    private static Long ttlSeconds(Cache cache) {
+        if (cache instanceof RedisCache redisCache) {
+            Duration ttl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(cache.getName(), null);
+            return ttl == null || ttl.isZero() ? null : ttl.toSeconds();
+        }
+        return null;
+    }
+
+    private static List<CacheEntryResponse> sampleLocal(
+            com.github.benmanes.caffeine.cache.Cache<Object, Object> cache, int limit) {
+        var expiration = cache.policy().expireAfterWrite();
+        List<CacheEntryResponse> entries = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : cache.asMap().entrySet()) {
+            if (entries.size() >= limit) {
+                break;
+            }
+            Object key = entry.getKey();
+            Long age = expiration
+                    .flatMap(e -> e.ageOf(key))
+                    .map(Duration::toMillis)
+                    .orElse(null);
+            Long ttl = age != null ? expiration.get().getExpiresAfter(TimeUnit.MILLISECONDS) - age : null;
+            entries.add(new CacheEntryResponse(String.valueOf(key), "local", valueType(entry.getValue()), age, ttl, null));
+        }
+        return entries;
+    }
+
+    private List<CacheEntryResponse> sampleRemote(RedisCache cache, int limit) {
+        String prefix = cache.getCacheConfiguration().getKeyPrefixFor(cache.getName());
+        return stringRedisTemplate.execute((RedisCallback<List<CacheEntryResponse>>) connection -> {
+            List<CacheEntryResponse> entries = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(100).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext() && entries.size() < limit) {
+                    entries.add(describeRemote(connection, cache, prefix, cursor.next()));
+                }
+            }
+            return entries;
+        });
+    }
+
+    private static CacheEntryResponse describeRemote(
+            RedisConnection connection, RedisCache cache, String prefix, byte[] rawKey) {
+        String key = new String(rawKey, StandardCharsets.UTF_8).substring(prefix.length());
+        byte[] raw = connection.stringCommands().get(rawKey);
+        Long pttl = connection.keyCommands().pTtl(rawKey);
+        Long ttl = pttl == null || pttl < 0 ? null : pttl;
+        if (raw == null) {
+            return new CacheEntryResponse(key, "remote", null, null, ttl, null);
+        }
+
+        Object value = null;
+        try {
+            value = cache.getCacheConfiguration().getValueSerializationPair().read(ByteBuffer.wrap(raw));
+        } catch (RuntimeException e) {
+            // Entry ghi bởi serializer cũ: vẫn trả kích thước và TTL
+            log.debug("Cannot deserialize {}{}: {}", prefix, key, e.getMessage());
+        }
+        Long age = value instanceof CacheEnvelope envelope ? System.currentTimeMillis() - envelope.createdAt() : null;
+        return new CacheEntryResponse(key, "remote", valueType(value), age, ttl, (long) raw.length);
+    }
+
+    private static String valueType(Object stored) {
+        Object value = CacheEnvelope.unwrap(stored);
+        return value != null ? value.getClass().getSimpleName() : null;
+    }
+}
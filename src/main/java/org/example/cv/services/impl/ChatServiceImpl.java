@@ -109,35 +109,8 @@ public class ChatServiceImpl implements ChatService {
     public List<ChatMessageDTO.ConversationDTO> getConversations() {
         Long currentUserId = Objects.requireNonNull(AuthenticationUtils.getCurrentUserId());
 
-        List<UserEntity> users = chatRepository.findConversationUsers(currentUserId);
-
-        return users.stream()
-                .filter(Objects::nonNull)
-                .map(user -> {
-                    ChatMessageEntity lastMessage =
-                            chatRepository.findLastMessageBetweenUsers(currentUserId, user.getId());
-
-                    String fullName = "";
-                    if (user.getFirstName() != null || user.getLastName() != null) {
-                        fullName = (user.getFirstName() != null ? user.getFirstName() : "")
-                                + " "
-                                + (user.getLastName() != null ? user.getLastName() : "");
-                        fullName = fullName.trim();
-                    }
-                    if (fullName.isEmpty()) {
-                        fullName = user.getUsername();
-                    }
-
-                    return ChatMessageDTO.ConversationDTO.builder()
-                            .userId(user.getId())
-                            .name(fullName)
-                            .email(user.getEmail())
-                            .lastMessage(lastMessage != null ? lastMessage.getContent() : null)
-                            .lastMessageTime(lastMessage != null ? lastMessage.getCreatedAt() : null)
-                            .online(false) // TODO: implement online status
-                            .build();
-                })
-                .toList();
+        // Một query: mỗi đối phương kèm tin nhắn cuối, mới nhất lên đầu
+        return chatRepository.findConversations(currentUserId);
     }
 
     @Transactional(readOnly = true)
@@ -175,22 +148,7 @@ public class ChatServiceImpl implements ChatService {
         log.debug("Get project conversations");
         Long currentUserId = Objects.requireNonNull(AuthenticationUtils.getCurrentUserId());
 
-        // Get all projects where current user is a member
-        List<ProjectEntity> projects = projectRepository.findAllByMembersId(currentUserId);
-
-        return projects.stream()
-                .map(project -> {
-                    ChatMessageEntity lastMessage =
-                            chatRepository.findTopByProjectIdOrderByCreatedAtDesc(project.getId());
-
-                    return ChatMessageDTO.ProjectConversationDTO.builder()
-                            .projectId(project.getId())
-                            .projectName(project.getName())
-                            .memberCount(project.getMembers().size())
-                            .lastMessage(lastMessage != null ? lastMessage.getContent() : null)
-                            .lastMessageTime(lastMessage != null ? lastMessage.getCreatedAt() : null)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        // Một query cho cả danh sách, không phụ thuộc số project × số thành viên
+        return chatRepository.findProjectConversations(currentUserId);
     }
 }
@@ -0,0 +1,127 @@
+package org.example.cv.services.impl;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.example.cv.services.JwtTokenService;
+import org.example.cv.utils.security.TokenRevocationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pipeline verify JWT duy nhất cho filter, {@code AuthenticationService} và {@code CustomJwtDecoder}.
+ *
+ * <p>Signer/verifier được tạo một lần (thread-safe). Kết quả verify chữ ký được cache theo nguyên chuỗi token
+ * tới {@code exp}, nên request lặp lại với cùng token không phải parse và tính HMAC lại; token chỉ trùng key khi
+ * trùng từng byte nên cache không mở đường cho token giả. Kiểm tra thu hồi (jti và mốc thu hồi theo user) vẫn chạy
+ * mỗi lần qua {@link TokenRevocationRegistry}, thường không chạm DB.
+ */
+@Service
+@Slf4j
+public class JwtTokenServiceImpl implements JwtTokenService {
+
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final JWSSigner signer;
+    private final JWSVerifier verifier;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    public JwtTokenServiceImpl(
+            TokenRevocationRegistry tokenRevocationRegistry,
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.verified-cache.maximum-size:50000}") long maximumSize)
+            throws JOSEException {
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        this.signer = new MACSigner(secret.getBytes());
+        this.verifier = new MACVerifier(secret.getBytes());
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), verified.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(
+                            String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(
+                            String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public String sign(JWTClaimsSet claims) {
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        try {
+            jwt.sign(signer);
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            log.error("Cannot create token", e);
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+    }
+
+    @Override
+    public VerifiedToken verify(String token) {
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            verified = verifySignature(token);
+            verifiedTokens.put(token, verified);
+        } else if (!verified.expiresAt().isAfter(Instant.now())) {
+            // Cache hết hạn theo exp nhưng eviction có thể trễ một chút
+            verifiedTokens.invalidate(token);
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        if (verified.jti() == null
+                || tokenRevocationRegistry.isRevoked(verified.jti())
+                || tokenRevocationRegistry.isRevokedForUser(verified.userId(), verified.issuedAt())) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        return verified;
+    }
+
+    private VerifiedToken verifySignature(String token) {
+        try {
+            SignedJWT signedJWT = SignedJWT.parse(token);
+            JWTClaimsSet claims = signedJWT.getJWTClaimsSet();
+            Date expirationTime = claims.getExpirationTime();
+
+            if (!JWSAlgorithm.HS256.equals(signedJWT.getHeader().getAlgorithm())
+                    || !signedJWT.verify(verifier)
+                    || expirationTime == null
+                    || !expirationTime.after(new Date())) {
+                throw new AppException(ErrorCode.UNAUTHENTICATED);
+            }
+            return new VerifiedToken(token, signedJWT.getHeader(), claims);
+        } catch (ParseException | JOSEException e) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+    }
+}
@@ -18,9 +18,11 @@ import org.example.cv.repositories.ProjectRepository;
 import org.example.cv.repositories.UserRepository;
 import org.example.cv.services.ProjectService;
 import org.example.cv.utils.AuthenticationUtils;
+import org.example.cv.utils.annotation.CacheTags;
+import org.example.cv.utils.annotation.EvictTags;
+import org.example.cv.utils.cache.NegativeLookupCache;
+import org.example.cv.utils.cache.ProjectListCache;
 import org.example.cv.utils.mapper.ProjectMapper;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -42,6 +44,8 @@ public class ProjectServiceImpl implements ProjectService {
     ProjectRepository projectRepository;
     ProjectMapper projectMapper;
     UserRepository userRepository;
+    ProjectListCache projectListCache;
+    NegativeLookupCache negativeLookupCache;
 
     /**
      * Get all projects with pagination, sorting, and filtering.
@@ -53,20 +57,26 @@ public class ProjectServiceImpl implements ProjectService {
      * @return
      */
     @PreAuthorize("hasRole('ADMIN')")
-    // Tạm thời tắt cache để tránh lỗi LinkedHashMap cast to Page
-    // @Cacheable(
-    //         value = "project-list",
-    //         key = "'all_'+#page+'_'+#size+'_'+#sortBy+'_'+#sortDir+'_'+#filter",
-    //         cacheManager = "redisCacheManager")
+    // Cache PageResponse (record) thay vì Page để tránh lỗi LinkedHashMap cast to Page khi đọc lại
+    @Cacheable(
+            value = "project-list",
+            key = "@projectListCache.all(#page, #size, #sortBy, #sortDir, #filter)",
+            cacheManager = "redisCacheManager",
+            sync = true)
     @Override
-    public Page<ProjectResponse> getAll(int page, int size, String sortBy, String sortDir, String filter) {
+    public PageResponse<ProjectResponse> getAll(int page, int size, String sortBy, String sortDir, String filter) {
         log.info("Getting all projects");
         Pageable pageable = PageRequest.of(page, size).withSort(Sort.by(Sort.Direction.fromString(sortDir), sortBy));
-        return projectRepository.findAll(pageable, filter).map(projectMapper::toResponse);
+        return PageResponse.from(projectRepository.findAll(pageable, filter).map(projectMapper::toResponse));
     }
 
     @Override
-    public Page<ProjectResponse> getMyProjects(int page, int size) {
+    @Cacheable(
+            value = "project-list",
+            key = "@projectListCache.member(T(org.example.cv.utils.AuthenticationUtils).getCurrentUserId(), #page, #size)",
+            cacheManager = "redisCacheManager",
+            sync = true)
+    public PageResponse<ProjectResponse> getMyProjects(int page, int size) {
         log.info("Getting projects for current user");
         Long currentUserId = AuthenticationUtils.getCurrentUserId();
         Pageable pageable = PageRequest.of(page, size).withSort(Sort.by(Sort.Direction.DESC, "createdAt"));
@@ -74,7 +84,7 @@ public class ProjectServiceImpl implements ProjectService {
         // Tìm projects mà user là owner hoặc member
         Page<ProjectEntity> projects =
                 projectRepository.findByOwnerIdOrMembersId(currentUserId, currentUserId, pageable);
-        return projects.map(projectMapper::toResponse);
+        return PageResponse.from(projects.map(projectMapper::toResponse));
     }
 
     /**
@@ -83,12 +93,21 @@ public class ProjectServiceImpl implements ProjectService {
      * @return
      */
     @Override
-    @Cacheable(value = "project-detail", key = "'project_'+#id", cacheManager = "compositeCacheManager")
+    @Cacheable(
+            value = "project-detail",
+            key = "'project_'+#id",
+            cacheManager = "compositeCacheManager",
+            sync = true)
+    @CacheTags("'project:' + #id")
     @PostAuthorize("hasRole('ADMIN') or returnObject.owner.username == authentication.name")
     public ProjectResponse getById(Long id) {
         log.info("Getting project by id: {}", id);
-        ProjectEntity project =
-                projectRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_EXISTED));
+        // ID vừa 404 gần đây: trả lỗi luôn, không query DB
+        negativeLookupCache.throwIfMissing(NegativeLookupCache.PROJECT, id, ErrorCode.PROJECT_NOT_EXISTED);
+        ProjectEntity project = projectRepository.findById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(NegativeLookupCache.PROJECT, id);
+            return new AppException(ErrorCode.PROJECT_NOT_EXISTED);
+        });
         return projectMapper.toResponse(project);
     }
 
@@ -99,10 +118,6 @@ public class ProjectServiceImpl implements ProjectService {
      */
     @Transactional
     @Override
-    @CacheEvict(
-            value = {"project-list"},
-            allEntries = true,
-            cacheManager = "redisCacheManager")
     public ProjectResponse create(ProjectRequest request) {
         log.info("Creating project: {}", request.getName());
         UserEntity owner = userRepository
@@ -114,6 +129,8 @@ public class ProjectServiceImpl implements ProjectService {
         HashSet<UserEntity> members = new HashSet<>();
         project.setMembers(members);
         projectRepository.save(project);
+        projectListCache.evictFor(project);
+        negativeLookupCache.forget(NegativeLookupCache.PROJECT, project.getId());
         return projectMapper.toResponse(project);
     }
 
@@ -125,11 +142,8 @@ public class ProjectServiceImpl implements ProjectService {
      */
     @Transactional
     @Override
-    @CachePut(value = "project-detail", key = "'project_' +#id", cacheManager = "compositeCacheManager")
-    @CacheEvict(
-            value = {"project-list"},
-            allEntries = true,
-            cacheManager = "redisCacheManager")
+    // Xóa project-detail và các task cache hiển thị tên / thông tin project
+    @EvictTags("'project:' + #id")
     @PostAuthorize("hasRole('ADMIN') or returnObject.owner.username == authentication.name")
     public ProjectResponse update(Long id, ProjectRequest request) {
         if(!userRepository.existsById(id)) {
@@ -138,7 +152,9 @@ public class ProjectServiceImpl implements ProjectService {
         var project = projectRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_EXISTED));
         projectMapper.updateEntityFromRequest(request, project);
         project.setEndDate(request.getEndDate() != null ? Instant.parse(request.getEndDate()) : null);
-        return projectMapper.toResponse(projectRepository.save(project));
+        ProjectEntity saved = projectRepository.save(project);
+        projectListCache.evictFor(saved);
+        return projectMapper.toResponse(saved);
     }
 
     /**
@@ -147,18 +163,16 @@ public class ProjectServiceImpl implements ProjectService {
      */
     @Override
     @Transactional
-    @CacheEvict(
-            value = "project-detail",
-            key = "'project_' +#id",
-            allEntries = true,
-            cacheManager = "compositeCacheManager")
+    @EvictTags("'project:' + #id")
     @PreAuthorize(
             "hasRole('ADMIN') or @ownershipSecurity.isOwner(T(org.example.cv.models.entities.ProjectEntity), authentication, #id)")
     public void softdelete(Long id) {
         log.info("Deleting project: {}", id);
         // Verify project exists before deleting
-        projectRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_EXISTED));
+        ProjectEntity project =
+                projectRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_EXISTED));
         projectRepository.softDeleteByIds(Collections.singletonList(id));
+        projectListCache.evictFor(project);
         log.info("Deleted project: {}", id);
     }
 
@@ -168,18 +182,17 @@ public class ProjectServiceImpl implements ProjectService {
      */
     @Override
     @Transactional
-    @CacheEvict(
-            value = "project-detail",
-            key = "'project_' +#id",
-            allEntries = true,
-            cacheManager = "compositeCacheManager")
+    @EvictTags("'project:' + #id")
     @PreAuthorize(
             "hasRole('ADMIN') or @ownershipSecurity.isOwner(T(org.example.cv.models.entities.ProjectEntity), authentication, #id)")
     public void restore(Long id) {
         log.info("Restoring project: {}", id);
         // Verify project exists before restoring
-        projectRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_EXISTED));
+        ProjectEntity project =
+                projectRepository.findById(id).orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_EXISTED));
         projectRepository.restoreById(id);
+        projectListCache.evictFor(project);
+        negativeLookupCache.forget(NegativeLookupCache.PROJECT, id);
         log.info("Restored project: {}", id);
     }
 
@@ -195,15 +208,22 @@ public class ProjectServiceImpl implements ProjectService {
      */
     @Override
     @PreAuthorize("hasRole('ADMIN') or @ownershipSecurity.isOwner(#ownerId, authentication)")
-    public Page<ProjectResponse> getAllByOwnerId(
+    @Cacheable(
+            value = "project-list",
+            key = "@projectListCache.owner(#ownerId, #page, #size, #sortBy, #sortDir, #filter)",
+            cacheManager = "redisCacheManager",
+            sync = true)
+    public PageResponse<ProjectResponse> getAllByOwnerId(
             Long ownerId, int page, int size, String sortBy, String sortDir, String filter) {
         log.info("Getting all projects by owner id: {}", ownerId);
         Pageable pageable = PageRequest.of(page, size).withSort(Sort.by(Sort.Direction.fromString(sortDir), sortBy));
-        return projectRepository.findAllByOwnerId(pageable, filter, ownerId).map(projectMapper::toResponse);
+        return PageResponse.from(
+                projectRepository.findAllByOwnerId(pageable, filter, ownerId).map(projectMapper::toResponse));
     }
 
     @Override
     @PreAuthorize("hasRole('ADMIN') or @ownershipSecurity.isOwner(#ownerId, authentication)")
+    @EvictTags("'project:' + #projectId")
     public ProjectResponse addMember(Long projectId, Long userId) {
         log.info("Adding member {} to project {}", userId, projectId);
         ProjectEntity project = projectRepository
@@ -213,11 +233,13 @@ public class ProjectServiceImpl implements ProjectService {
                 userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
         project.getMembers().add(user);
         projectRepository.save(project);
+        projectListCache.evictFor(project);
         return projectMapper.toResponse(project);
     }
 
     @Override
     @PreAuthorize("hasRole('ADMIN') or @ownershipSecurity.isOwner(#ownerId, authentication)")
+    @EvictTags("'project:' + #projectId")
     public ProjectResponse removeMember(Long projectId, Long userId) {
         log.info("Removing member {} from project {}", userId, projectId);
         var project = projectRepository
@@ -226,11 +248,14 @@ public class ProjectServiceImpl implements ProjectService {
         var user = userRepository.findById(userId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
         project.getMembers().remove(user);
         projectRepository.save(project);
+        // user đã bị xóa khỏi members nên phải truyền thêm để xóa trang "my-projects" của họ
+        projectListCache.evictFor(project, userId);
         return projectMapper.toResponse(project);
     }
 
     @Override
     @PreAuthorize("hasRole('ADMIN') or @ownershipSecurity.isOwner(#ownerId, authentication)")
+    @EvictTags("'project:' + #projectId")
     public ProjectResponse changeOwner(Long projectId, Long newOwnerId) {
         log.info("Changing owner of project {} to {}", projectId, newOwnerId);
         var project = projectRepository
@@ -238,8 +263,10 @@ public class ProjectServiceImpl implements ProjectService {
                 .orElseThrow(() -> new AppException(ErrorCode.PROJECT_NOT_EXISTED));
         var newOwner =
                 userRepository.findById(newOwnerId).orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        Long previousOwnerId = project.getOwner() != null ? project.getOwner().getId() : null;
         project.setOwner(newOwner);
         projectRepository.save(project);
+        projectListCache.evictFor(project, previousOwnerId);
         return projectMapper.toResponse(project);
     }
 
@@ -249,14 +276,7 @@ public class ProjectServiceImpl implements ProjectService {
         Long currentUserId = AuthenticationUtils.getCurrentUserId();
         Pageable pageable = PageRequest.of(page, size).withSort(Sort.by(Sort.Direction.DESC, "deletedAt"));
         Page<ProjectEntity> projects = projectRepository.findAllSoftDeletedByOwnerId(currentUserId, pageable);
-        Page<ProjectResponse> projectResponses = projects.map(projectMapper::toResponse);
-        return new PageResponse<>(
-                projectResponses.getContent(),
-                projectResponses.getNumber(),
-                projectResponses.getSize(),
-                projectResponses.getTotalElements(),
-                projectResponses.getTotalPages(),
-                projectResponses.isLast());
+        return PageResponse.from(projects.map(projectMapper::toResponse));
     }
 
     @Override
@@ -264,13 +284,6 @@ public class ProjectServiceImpl implements ProjectService {
         log.info("Getting all soft deleted projects (admin)");
         Pageable pageable = PageRequest.of(page, size).withSort(Sort.by(Sort.Direction.DESC, "deletedAt"));
         Page<ProjectEntity> projects = projectRepository.findAllSoftDeleted(pageable);
-        Page<ProjectResponse> projectResponses = projects.map(projectMapper::toResponse);
-        return new PageResponse<>(
-                projectResponses.getContent(),
-                projectResponses.getNumber(),
-                projectResponses.getSize(),
-                projectResponses.getTotalElements(),
-                projectResponses.getTotalPages(),
-                projectResponses.isLast());
+        return PageResponse.from(projects.map(projectMapper::toResponse));
     }
 }
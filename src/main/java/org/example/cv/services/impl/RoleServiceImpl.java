@@ -10,6 +10,8 @@ import org.example.cv.models.responses.RoleResponse;
 import org.example.cv.repositories.RoleRepository;
 import org.example.cv.services.RoleService;
 import org.example.cv.utils.mapper.RoleMapper;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 
@@ -33,6 +35,7 @@ public class RoleServiceImpl implements RoleService {
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(value = "roles", allEntries = true, cacheManager = "caffeineCacheManager")
     public RoleResponse createRole(RoleRequest request) {
         log.info("Creating role: {}", request.getName());
         RoleEntity role = roleMapper.toEntity(request);
@@ -46,6 +49,7 @@ public class RoleServiceImpl implements RoleService {
      */
     @Override
     @PreAuthorize("hasRole('ADMIN')")
+    @Cacheable(value = "roles", key = "'all'", cacheManager = "caffeineCacheManager", sync = true)
     public List<RoleResponse> getAllRoles() {
         log.info("Getting all roles");
         return roleRepository.findAll().stream().map(roleMapper::toResponse).toList();
@@ -58,6 +62,7 @@ public class RoleServiceImpl implements RoleService {
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
+    @CacheEvict(value = "roles", allEntries = true, cacheManager = "caffeineCacheManager")
     public void softdeleteRole(String id) {
         log.info("Soft deleting role by id: {}", id);
         roleRepository.softDeleteByIds(List.of(id));
@@ -23,6 +23,8 @@ import org.example.cv.repositories.UserRepository;
 import org.example.cv.services.TaskService;
 import org.example.cv.utils.AuthenticationUtils;
 import org.example.cv.utils.TaskSpecification;
+import org.example.cv.utils.annotation.CacheTags;
+import org.example.cv.utils.cache.NegativeLookupCache;
 import org.example.cv.utils.mapper.TaskMapper;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
@@ -49,6 +51,7 @@ public class TaskServiceImpl implements TaskService {
     private final UserRepository userRepository;
     private final TaskMapper taskMapper;
     private final ApplicationEventPublisher eventPublisher;
+    private final NegativeLookupCache negativeLookupCache;
 
     private static final Map<TaskStatus, Set<TaskStatus>> VALID_TRANSITIONS = Map.of(
             TaskStatus.TODO, EnumSet.of(TaskStatus.IN_PROGRESS, TaskStatus.CANCELLED),
@@ -73,16 +76,20 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    @Cacheable(value = "cache-task-details", key = "#id", cacheManager = "redisCacheManager")
+    @Cacheable(value = "cache-task-details", key = "#id", cacheManager = "redisCacheManager", sync = true)
+    @CacheTags("'project:' + #result.project().id()")
     @PreAuthorize("hasRole('ADMIN') or @taskSecurityService.canAccessTask(#id)")
     public TaskResponse getTaskById(Long id) {
-        TaskEntity task = findTaskById(id);
+        negativeLookupCache.throwIfMissing(NegativeLookupCache.TASK, id, ErrorCode.TASK_NOT_EXISTED);
+        TaskEntity task = taskRepository.findById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(NegativeLookupCache.TASK, id);
+            return new AppException(ErrorCode.TASK_NOT_EXISTED);
+        });
         return taskMapper.toTaskResponse(task);
     }
 
     @Override
     @Transactional
-    @CacheEvict(value = "cache-task-lists", allEntries = true, cacheManager = "redisCacheManager")
     public TaskResponse createTask(CreateTaskRequest request) {
         Long currentUserId = AuthenticationUtils.getCurrentUserId();
 
@@ -102,6 +109,7 @@ public class TaskServiceImpl implements TaskService {
         task.setStatus(TaskStatus.TODO);
 
         TaskEntity savedTask = taskRepository.save(task);
+        negativeLookupCache.forget(NegativeLookupCache.TASK, savedTask.getId());
 
         // Notify
         notifyAssignees(savedTask, project.getOwner(), assignees, NotificationType.TASK_ASSIGNED);
@@ -112,7 +120,7 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     @CachePut(value = "cache-task-details", key = "#id", cacheManager = "redisCacheManager")
-    @CacheEvict(value = "cache-task-lists", allEntries = true, cacheManager = "redisCacheManager")
+    @CacheTags("'project:' + #result.project().id()")
     @PreAuthorize("hasRole('ADMIN') or @taskSecurityService.canAccessTask(#id)")
     public TaskResponse updateTask(Long id, UpdateTaskRequest request) {
         TaskEntity existingTask = findTaskById(id);
@@ -140,11 +148,7 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN') or @taskSecurityService.isAssigneeOrCreator(#id)")
-    @CacheEvict(
-            value = {"cache-task-details", "cache-task-lists"},
-            key = "#id",
-            allEntries = true, // Clear list cache vì status thay đổi ảnh hưởng đến filter/sort
-            cacheManager = "redisCacheManager")
+    @CacheEvict(value = "cache-task-details", key = "#id", cacheManager = "redisCacheManager")
     public TaskResponse updateTaskStatus(Long id, UpdateTaskStatusRequest request) {
         TaskEntity existingTask = findTaskById(id);
         validateStatusTransition(existingTask.getStatus(), request.status());
@@ -163,7 +167,7 @@ public class TaskServiceImpl implements TaskService {
     @Override
     @Transactional
     @PreAuthorize("hasRole('ADMIN') or @taskSecurityService.canAccessTask(#id)")
-    @CacheEvict(value = {"cache-task-details", "cache-task-lists"}, key = "#id", allEntries = true, cacheManager = "redisCacheManager")
+    @CacheEvict(value = "cache-task-details", key = "#id", cacheManager = "redisCacheManager")
     public void deleteTask(Long id) {
         // FIX 3: Dùng existsById thay vì findById để nhẹ DB
         if (!taskRepository.existsById(id)) {
@@ -180,6 +184,7 @@ public class TaskServiceImpl implements TaskService {
             throw new AppException(ErrorCode.TASK_NOT_EXISTED);
         }
         taskRepository.restoreById(id);
+        negativeLookupCache.forget(NegativeLookupCache.TASK, id);
     }
 
     @Override
@@ -4,6 +4,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.example.cv.configuration.PrincipalCache;
 import org.example.cv.exceptions.AppException;
 import org.example.cv.exceptions.ErrorCode;
 import org.example.cv.models.entities.RoleEntity;
@@ -14,7 +15,10 @@ import org.example.cv.repositories.RoleRepository;
 import org.example.cv.repositories.UserRepository;
 import org.example.cv.services.UserService;
 import org.example.cv.utils.AuthenticationUtils; // Giả định có class này
+import org.example.cv.utils.cache.NegativeLookupCache;
 import org.example.cv.utils.mapper.UserMapper;
+import org.example.cv.utils.security.RefreshTokenStore;
+import org.example.cv.utils.security.TokenRevocationRegistry;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
@@ -41,6 +45,10 @@ public class UserServiceImpl implements UserService {
     UserMapper userMapper;
     RoleRepository roleRepository;
     PasswordEncoder passwordEncoder;
+    NegativeLookupCache negativeLookupCache;
+    PrincipalCache principalCache;
+    RefreshTokenStore refreshTokenStore;
+    TokenRevocationRegistry tokenRevocationRegistry;
 
     @Override
     @Transactional
@@ -65,16 +73,21 @@ public class UserServiceImpl implements UserService {
         }
         user.setRoles(roles);
 
-        return userMapper.toResponse(userRepository.save(user));
+        UserEntity savedUser = userRepository.save(user);
+        negativeLookupCache.forget(NegativeLookupCache.USER, savedUser.getId());
+        return userMapper.toResponse(savedUser);
     }
 
     @Override
-    @Cacheable(value = "users", key = "#id", cacheManager = "caffeineCacheManager")
+    @Cacheable(value = "users", key = "#id", cacheManager = "caffeineCacheManager", sync = true)
     @PostAuthorize("hasRole('ADMIN') or returnObject.username == authentication.name")
     public UserResponse getUserById(Long id) {
         log.info("Getting user by id: {}", id);
-        UserEntity user = userRepository.findById(id)
-                .orElseThrow(() -> new AppException(ErrorCode.USER_NOT_EXISTED));
+        negativeLookupCache.throwIfMissing(NegativeLookupCache.USER, id, ErrorCode.USER_NOT_EXISTED);
+        UserEntity user = userRepository.findById(id).orElseThrow(() -> {
+            negativeLookupCache.markMissing(NegativeLookupCache.USER, id);
+            return new AppException(ErrorCode.USER_NOT_EXISTED);
+        });
         return userMapper.toResponse(user);
     }
 
@@ -107,13 +120,22 @@ public class UserServiceImpl implements UserService {
         userMapper.updateEntityFromRequest(userRequest, user);
 
         // Update Password nếu có
+        boolean credentialsChanged = false;
         if (StringUtils.hasText(userRequest.getPassword())) {
             user.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+            credentialsChanged = true;
         }
 
         if (userRequest.getRoleIds() != null && !userRequest.getRoleIds().isEmpty()) {
             var roles = new HashSet<>(roleRepository.findAllById(userRequest.getRoleIds()));
             user.setRoles(roles);
+            credentialsChanged = true;
+        }
+        principalCache.invalidate(id);
+        // Token mang sẵn scope: buộc đăng nhập lại để token mới có role/mật khẩu mới
+        if (credentialsChanged) {
+            refreshTokenStore.revokeAllForUser(id);
+            tokenRevocationRegistry.revokeIssuedBefore(id);
         }
 
         return userMapper.toResponse(userRepository.save(user));
@@ -129,6 +151,9 @@ public class UserServiceImpl implements UserService {
             throw new AppException(ErrorCode.USER_NOT_EXISTED);
         }
         userRepository.softDeleteByIds(List.of(id));
+        principalCache.invalidate(id);
+        refreshTokenStore.revokeAllForUser(id);
+        tokenRevocationRegistry.revokeIssuedBefore(id);
     }
 
     @Override
@@ -143,6 +168,8 @@ public class UserServiceImpl implements UserService {
         // Dùng Set nên add trùng cũng không sao, nhưng nếu chưa có mới cần save
         if (!user.getRoles().contains(role)) {
             user.getRoles().add(role);
+            principalCache.invalidate(userId);
+            refreshTokenStore.revokeAllForUser(userId);
             return userMapper.toResponse(userRepository.save(user));
         }
         return userMapper.toResponse(user);
@@ -158,6 +185,9 @@ public class UserServiceImpl implements UserService {
         boolean removed = user.getRoles().removeIf(r -> r.getName().equals(roleId));
 
         if (removed) {
+            principalCache.invalidate(userId);
+            refreshTokenStore.revokeAllForUser(userId);
+            tokenRevocationRegistry.revokeIssuedBefore(userId);
             return userMapper.toResponse(userRepository.save(user));
         }
         return userMapper.toResponse(user);
@@ -171,6 +201,7 @@ public class UserServiceImpl implements UserService {
             throw new AppException(ErrorCode.USER_NOT_EXISTED);
         }
         userRepository.restoreById(id);
+        negativeLookupCache.forget(NegativeLookupCache.USER, id);
     }
 
     @Override
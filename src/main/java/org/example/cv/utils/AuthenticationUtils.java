@@ -2,6 +2,7 @@ package org.example.cv.utils;
 
 import java.util.Objects;
 
+import org.example.cv.configuration.CustomUserDetail;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -19,6 +20,10 @@ public class AuthenticationUtils {
 
         Object principal = authentication.getPrincipal();
         log.debug("Current user principal is {}", principal);
+        if (principal instanceof CustomUserDetail userDetail) {
+            return userDetail.getId();
+        }
+
         if (principal instanceof Jwt jwt) {
             return Long.parseLong(jwt.getClaimAsString("userId"));
         }
@@ -0,0 +1,37 @@
+package org.example.cv.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+
+/**
+ * Cursor cho keyset pagination theo (timestamp, id).
+ * Mã hóa base64url để client chỉ cần truyền lại nguyên chuỗi, không cần hiểu cấu trúc.
+ */
+public record KeysetCursor(Instant timestamp, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = timestamp.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new AppException(ErrorCode.INVALID_CURSOR);
+            }
+            return new KeysetCursor(
+                    Instant.parse(raw.substring(0, separatorIndex)), Long.parseLong(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new AppException(ErrorCode.INVALID_CURSOR);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.cv.utils.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Gắn tag cho entry được tạo bởi {@code @Cacheable} hoặc {@code @CachePut} trên cùng method (cache name, key và
+ * cacheManager lấy từ annotation đó). Mỗi phần tử là biểu thức SpEL trả về String, Collection hoặc mảng tag, có thể dùng tham số
+ * method và {@code #result}, ví dụ {@code "'project:' + #result.project().id()"}.
+ * Chỉ chạy khi method thực sự được gọi (cache miss, refresh hoặc {@code @CachePut}), không chạy khi hit cache.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CacheTags {
+    String[] value();
+}
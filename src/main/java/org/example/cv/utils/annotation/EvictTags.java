@@ -0,0 +1,14 @@
+package org.example.cv.utils.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Xóa mọi entry đã gắn các tag này (xem {@link CacheTags}) sau khi method trả về thành công,
+ * sau commit nếu method chạy trong transaction. Mỗi phần tử là biểu thức SpEL như {@link CacheTags}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EvictTags {
+    String[] value();
+}
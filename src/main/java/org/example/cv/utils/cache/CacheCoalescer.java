@@ -0,0 +1,70 @@
+package org.example.cv.utils.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+import org.redisson.api.RedissonClient;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bọc các cache bằng {@link CoalescingCache}, dùng chung cấu hình lock, refresh-ahead và MeterRegistry.
+ * Đây là điểm mà mọi CacheManager đi qua khi tạo cache nên cũng là nơi bind metric ({@link CacheMetrics}).
+ */
+public class CacheCoalescer {
+    private final MeterRegistry meterRegistry;
+    private final RedissonClient redissonClient;
+    private final Duration lockWait;
+    private final Duration lockLease;
+    private final RefreshAheadPolicy refreshPolicy;
+    private final Executor refreshExecutor;
+
+    public CacheCoalescer(
+            MeterRegistry meterRegistry,
+            RedissonClient redissonClient,
+            Duration lockWait,
+            Duration lockLease,
+            RefreshAheadPolicy refreshPolicy,
+            Executor refreshExecutor) {
+        this.meterRegistry = meterRegistry;
+        this.redissonClient = redissonClient;
+        this.lockWait = lockWait;
+        this.lockLease = lockLease;
+        this.refreshPolicy = refreshPolicy;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Bọc cache, TTL lấy từ cấu hình Redis của cache (hoặc của tầng L2 nếu là cache hai tầng).
+     */
+    public Cache decorate(Cache cache) {
+        return decorate(cache, ttlOf(cache));
+    }
+
+    public Cache decorate(Cache cache, Duration ttl) {
+        if (cache == null || cache instanceof CoalescingCache) {
+            return cache;
+        }
+        CacheMetrics.bind(meterRegistry, cache);
+        return new CoalescingCache(
+                cache, meterRegistry, redissonClient, lockWait, lockLease, ttl, refreshPolicy, refreshExecutor);
+    }
+
+    private static Duration ttlOf(Cache cache) {
+        Cache target = cache instanceof TwoLevelCache twoLevel ? unwrap(twoLevel.getRemoteCache()) : cache;
+        if (target instanceof RedisCache redisCache) {
+            Duration ttl = redisCache.getCacheConfiguration().getTtlFunction().getTimeToLive(redisCache.getName(), null);
+            return ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+        }
+        return null;
+    }
+
+    /**
+     * Cache gốc bên dưới decorator (dùng khi cần ghép tầng, tránh bọc hai lần).
+     */
+    public static Cache unwrap(Cache cache) {
+        return cache instanceof CoalescingCache coalescing ? coalescing.getDelegate() : cache;
+    }
+}
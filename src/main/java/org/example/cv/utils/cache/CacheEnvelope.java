@@ -0,0 +1,14 @@
+package org.example.cv.utils.cache;
+
+/**
+ * Giá trị cache kèm metadata cho refresh-ahead.
+ * @param value giá trị thật trả về cho @Cacheable
+ * @param createdAt thời điểm ghi (epoch millis)
+ * @param computeTime thời gian chạy loader (millis), dùng cho XFetch; 0 với giá trị đến từ @CachePut
+ */
+public record CacheEnvelope(Object value, long createdAt, long computeTime) {
+
+    public static Object unwrap(Object stored) {
+        return stored instanceof CacheEnvelope envelope ? envelope.value() : stored;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.cv.utils.cache;
+
+/**
+ * Message pub/sub báo các node khác bỏ entry L1.
+ * key = null nghĩa là xóa toàn bộ cache.
+ */
+public record CacheInvalidationMessage(String node, String cache, String key) {}
@@ -0,0 +1,36 @@
+package org.example.cv.utils.cache;
+
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.cache.RedisCache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Đăng ký metric hit / miss / eviction / size cho cache gốc bên dưới decorator.
+ * Boot chỉ tự bind cache có sẵn lúc khởi động và không nhận ra cache đã bị bọc,
+ * nên việc bind được gọi từ {@link CacheCoalescer} mỗi khi một cache được tạo.
+ *
+ * <p>Tag {@code level}: {@code local} cho Caffeine (kể cả L1 của cache hai tầng), {@code remote} cho Redis.
+ * Redis không có metric số entry (phải SCAN), xem số entry qua {@code /admin/caches}.
+ */
+final class CacheMetrics {
+
+    private CacheMetrics() {}
+
+    static void bind(MeterRegistry registry, Cache cache) {
+        if (cache instanceof TwoLevelCache twoLevel) {
+            CaffeineCacheMetrics.monitor(
+                    registry, twoLevel.getLocalCache(), twoLevel.getName(), Tags.of("level", "local"));
+            bind(registry, CacheCoalescer.unwrap(twoLevel.getRemoteCache()));
+        } else if (cache instanceof CaffeineCache caffeineCache) {
+            CaffeineCacheMetrics.monitor(
+                    registry, caffeineCache.getNativeCache(), caffeineCache.getName(), Tags.of("level", "local"));
+        } else if (cache instanceof RedisCache redisCache) {
+            new RedisCacheMetrics(redisCache, Tags.of("level", "remote")).bindTo(registry);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.cv.utils.cache;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ghi lại lời gọi {@code @Cacheable} đang chạy (proxy, method, tham số) để refresh-ahead gọi lại method qua proxy.
+ *
+ * <p>Loader mà Spring truyền cho {@code Cache.get(key, Callable)} chỉ dùng được một lần: gọi lại sau khi method đã
+ * trả về thì đi thẳng vào target, bỏ qua các interceptor bên trong ({@code @Transactional}, {@link CacheTagAspect}).
+ * {@link CoalescingCache} vì vậy refresh bằng {@link Invocation#forceLoad}: interceptor cache gọi lại
+ * {@code get(key, loader)} với loader mới và CoalescingCache bỏ qua entry đang có để load thật.
+ *
+ * <p>Order ngay ngoài interceptor của {@code @Cacheable} ({@code @EnableCaching(order = LOWEST_PRECEDENCE - 100)}).
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 101)
+public class CacheRefreshAspect {
+    private static final ThreadLocal<Invocation> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<ForcedLoad> FORCED = new ThreadLocal<>();
+
+    record Invocation(Object proxy, Method method, Object[] args, String[] cacheNames) {
+
+        /**
+         * Gọi lại method qua proxy, buộc cache {@code cacheName} load lại {@code key} thay vì trả entry đang có.
+         */
+        void forceLoad(String cacheName, Object key) {
+            FORCED.set(new ForcedLoad(cacheName, key));
+            try {
+                method.invoke(proxy, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Refresh of " + method + " failed", e.getCause());
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Cannot refresh " + method, e);
+            } finally {
+                FORCED.remove();
+            }
+        }
+    }
+
+    private record ForcedLoad(String cacheName, Object key) {}
+
+    @Around("@annotation(org.springframework.cache.annotation.Cacheable)")
+    public Object capture(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(
+                AopUtils.getMostSpecificMethod(method, AopUtils.getTargetClass(joinPoint.getTarget())),
+                Cacheable.class);
+        Invocation previous = CURRENT.get();
+        CURRENT.set(new Invocation(
+                joinPoint.getThis(),
+                method,
+                joinPoint.getArgs(),
+                cacheable != null ? cacheable.cacheNames() : new String[0]));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Lời gọi {@code @Cacheable} đang đọc cache {@code cacheName} trên thread này, null nếu cache được dùng trực tiếp.
+     */
+    static Invocation current(String cacheName) {
+        Invocation invocation = CURRENT.get();
+        return invocation != null && Arrays.asList(invocation.cacheNames()).contains(cacheName) ? invocation : null;
+    }
+
+    /**
+     * true (một lần) nếu lần đọc này đến từ {@link Invocation#forceLoad} cho đúng cache và key.
+     */
+    static boolean consumeForcedLoad(String cacheName, Object key) {
+        ForcedLoad forced = FORCED.get();
+        if (forced != null && forced.cacheName().equals(cacheName) && Objects.equals(forced.key(), key)) {
+            FORCED.remove();
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.cv.utils.cache;
+
+import org.example.cv.models.responses.ProjectResponse;
+import org.example.cv.models.responses.TaskResponse;
+import org.example.cv.models.responses.UserResponse;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+/**
+ * Các serializer cho Redis cache tier, chọn bằng {@code cache.redis.serializer} (smile | json).
+ */
+public final class CacheSerializers {
+
+    private CacheSerializers() {}
+
+    /**
+     * JSON kèm tên class (định dạng cũ), dùng làm fallback cho kiểu chưa đăng ký.
+     *
+     * <p>DefaultTyping.EVERYTHING bị deprecate từ Jackson 2.16 nhưng vẫn cần ở đây: DTO là record (final) nên
+     * NON_FINAL không ghi type, và phần tử lồng trong kiểu generic (PageResponse.content) cũng phải có type.
+     * Đổi sang định dạng khác sẽ không đọc được entry cũ đang nằm trong Redis; validator chỉ cho phép
+     * {@code org.example.cv.} và {@code java.}.
+     */
+    @SuppressWarnings("deprecation")
+    public static RedisSerializer<Object> json() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule()); // ✅ Hỗ trợ Instant, LocalDateTime,...
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        // Ghi kèm type để đọc lại đúng class (ProjectResponse, TaskResponse...) thay vì LinkedHashMap
+        objectMapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("org.example.cv.")
+                        .allowIfSubType("java.")
+                        .build(),
+                ObjectMapper.DefaultTyping.EVERYTHING,
+                JsonTypeInfo.As.PROPERTY);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
+
+    /**
+     * Smile nhị phân với type id đăng ký sẵn. Thêm DTO mới vào cache thì đăng ký id mới ở đây,
+     * không đổi hay dùng lại id cũ vì id nằm trong dữ liệu đã lưu.
+     */
+    public static SmileRedisSerializer smile() {
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        smileMapper.registerModule(new JavaTimeModule());
+        smileMapper.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        return new SmileRedisSerializer(smileMapper, json())
+                .register(1, TaskResponse.class)
+                .register(2, ProjectResponse.class)
+                .register(3, UserResponse.class);
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.cv.utils.cache;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.example.cv.utils.annotation.CacheTags;
+import org.example.cv.utils.annotation.EvictTags;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.context.expression.BeanFactoryResolver;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Xử lý {@link CacheTags} và {@link EvictTags}.
+ *
+ * <p>Order thấp nhất để chạy bên trong interceptor của {@code @Cacheable}/{@code @CachePut}
+ * ({@code @EnableCaching(order = LOWEST_PRECEDENCE - 100)}): tag chỉ được ghi khi method thực sự chạy.
+ * Trên cùng method, {@code @Around} bọc ngoài {@code @AfterReturning} nên {@link EvictTags} chạy trước khi entry
+ * mới được gắn tag lại.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class CacheTagAspect {
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+    private static final SpelExpressionParser PARSER = new SpelExpressionParser();
+
+    private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+    private final CacheTagIndex cacheTagIndex;
+    private final BeanFactory beanFactory;
+
+    private record CacheTarget(String cacheManager, String[] cacheNames, String key) {}
+
+    @Around("@annotation(cacheTags)")
+    public Object tag(ProceedingJoinPoint joinPoint, CacheTags cacheTags) throws Throwable {
+        Object result = joinPoint.proceed();
+        Method method = resolveMethod(joinPoint);
+        CacheTarget target = resolveTarget(method);
+
+        EvaluationContext context = createContext(joinPoint, method, result);
+        Object key = StringUtils.hasText(target.key())
+                ? evaluate(target.key(), context)
+                : SimpleKeyGenerator.generateKey(joinPoint.getArgs());
+        Set<String> tags = evaluateTags(cacheTags.value(), context);
+        for (String cacheName : target.cacheNames()) {
+            cacheTagIndex.tag(target.cacheManager(), cacheName, key, tags);
+        }
+        return result;
+    }
+
+    private static CacheTarget resolveTarget(Method method) {
+        Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class);
+        if (cacheable != null && StringUtils.hasText(cacheable.cacheManager())) {
+            return new CacheTarget(cacheable.cacheManager(), cacheable.cacheNames(), cacheable.key());
+        }
+        CachePut cachePut = AnnotatedElementUtils.findMergedAnnotation(method, CachePut.class);
+        if (cachePut != null && StringUtils.hasText(cachePut.cacheManager())) {
+            return new CacheTarget(cachePut.cacheManager(), cachePut.cacheNames(), cachePut.key());
+        }
+        throw new IllegalStateException(
+                "@CacheTags on " + method + " requires @Cacheable or @CachePut with cacheManager");
+    }
+
+    @AfterReturning(pointcut = "@annotation(evictTags)", returning = "result")
+    public void evict(JoinPoint joinPoint, EvictTags evictTags, Object result) {
+        Method method = resolveMethod(joinPoint);
+        cacheTagIndex.evictByTag(evaluateTags(evictTags.value(), createContext(joinPoint, method, result)));
+    }
+
+    private Set<String> evaluateTags(String[] expressionStrings, EvaluationContext context) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String expression : expressionStrings) {
+            collect(evaluate(expression, context), tags);
+        }
+        return tags;
+    }
+
+    private static void collect(Object value, Set<String> tags) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Collection<?> collection) {
+            collection.forEach(item -> collect(item, tags));
+        } else if (value instanceof Object[] array) {
+            for (Object item : array) {
+                collect(item, tags);
+            }
+        } else {
+            tags.add(value.toString());
+        }
+    }
+
+    private Object evaluate(String expression, EvaluationContext context) {
+        return expressions.computeIfAbsent(expression, PARSER::parseExpression).getValue(context);
+    }
+
+    private EvaluationContext createContext(JoinPoint joinPoint, Method method, Object result) {
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(joinPoint.getTarget(), method, joinPoint.getArgs(), PARAMETER_NAMES);
+        context.setBeanResolver(new BeanFactoryResolver(beanFactory));
+        context.setVariable("result", result);
+        return context;
+    }
+
+    private static Method resolveMethod(JoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        return AopUtils.getMostSpecificMethod(method, AopUtils.getTargetClass(joinPoint.getTarget()));
+    }
+}
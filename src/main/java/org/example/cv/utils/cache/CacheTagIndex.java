@@ -0,0 +1,138 @@
+package org.example.cv.utils.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Chỉ mục tag -> cache entry lưu trong Redis set {@code cache-tag::<tag>}.
+ *
+ * <p>Mỗi phần tử của set là {@code <cacheManager>|<cacheName>|<key>}; khi xóa theo tag, entry được evict qua
+ * chính CacheManager đã tạo ra nó để cache hai tầng cũng xóa L1 và phát invalidation cho các node khác.
+ * Key được lưu ở dạng String nên chỉ dùng cho cache mà key String tương đương key gốc (Redis, TwoLevelCache).
+ *
+ * <p>Set tag được gia hạn TTL mỗi lần thêm phần tử; phần tử trỏ tới entry đã hết hạn chỉ làm evict rỗng.
+ */
+@Component
+@Slf4j
+public class CacheTagIndex {
+    private static final String TAG_KEY_PREFIX = "cache-tag::";
+    private static final String SEPARATOR = "|";
+
+    // Đọc và xóa set trong một lệnh để entry được gắn tag giữa hai bước không bị mất
+    private static final RedisScript<List> POP_ALL = new DefaultRedisScript<>(
+            "local members = redis.call('SMEMBERS', KEYS[1]); redis.call('DEL', KEYS[1]); return members", List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final BeanFactory beanFactory;
+    private final Duration tagTtl;
+
+    public CacheTagIndex(
+            StringRedisTemplate stringRedisTemplate,
+            BeanFactory beanFactory,
+            @Value("${cache.tags.ttl:3600}") long tagTtlSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.beanFactory = beanFactory;
+        this.tagTtl = Duration.ofSeconds(tagTtlSeconds);
+    }
+
+    /**
+     * Gắn các tag cho một entry.
+     */
+    public void tag(String cacheManager, String cacheName, Object key, Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        String member = cacheManager + SEPARATOR + cacheName + SEPARATOR + key;
+        try {
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (String tag : tags) {
+                        ops.opsForSet().add(TAG_KEY_PREFIX + tag, member);
+                        ops.expire(TAG_KEY_PREFIX + tag, tagTtl);
+                    }
+                    return null;
+                }
+            });
+        } catch (RuntimeException e) {
+            // Không làm hỏng request: entry vẫn hết hạn theo TTL của cache
+            log.warn("⚠️ Failed to tag {} with {}: {}", member, tags, e.getMessage());
+        }
+    }
+
+    /**
+     * Xóa mọi entry đã gắn một trong các tag, sau commit nếu đang trong transaction.
+     */
+    public void evictByTag(Collection<String> tags) {
+        if (tags.isEmpty()) {
+            return;
+        }
+        Set<String> snapshot = new LinkedHashSet<>(tags);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(snapshot);
+                }
+            });
+        } else {
+            evictNow(snapshot);
+        }
+    }
+
+    public void evictByTag(String... tags) {
+        evictByTag(List.of(tags));
+    }
+
+    private void evictNow(Set<String> tags) {
+        for (String tag : tags) {
+            List<?> members;
+            try {
+                members = stringRedisTemplate.execute(POP_ALL, List.of(TAG_KEY_PREFIX + tag));
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Failed to read cache tag {}: {}", tag, e.getMessage());
+                continue;
+            }
+            if (members == null) {
+                continue;
+            }
+            for (Object member : members) {
+                evictMember(String.valueOf(member));
+            }
+            log.debug("Evicted {} entries tagged {}", members.size(), tag);
+        }
+    }
+
+    private void evictMember(String member) {
+        String[] parts = member.split("\\" + SEPARATOR, 3);
+        if (parts.length != 3) {
+            log.warn("⚠️ Malformed cache tag member {}", member);
+            return;
+        }
+        CacheManager cacheManager = beanFactory.getBean(parts[0], CacheManager.class);
+        Cache cache = cacheManager.getCache(parts[1]);
+        if (cache != null) {
+            cache.evict(parts[2]);
+        }
+    }
+}
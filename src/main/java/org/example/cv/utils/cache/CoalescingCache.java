@@ -0,0 +1,311 @@
+package org.example.cv.utils.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Decorator single-flight cho {@code @Cacheable(sync = true)}: khi miss, mỗi key chỉ có một loader chạy,
+ * các request đồng thời khác chờ chung một future.
+ * Nếu bật distributed lock, loader còn giữ một Redis lock ngắn để các node khác chờ rồi đọc lại cache
+ * thay vì cùng query DB. Hết thời gian chờ lock thì tự load (ưu tiên availability hơn là chặn request).
+ *
+ * <p>Giá trị được lưu trong {@link CacheEnvelope} để làm refresh-ahead: entry được đọc trong
+ * {@code refreshAheadRatio} cuối của TTL, hoặc khi XFetch quyết định hết hạn sớm
+ * ({@code now - computeTime * beta * ln(rand) >= createdAt + ttl}), sẽ được load lại bất đồng bộ
+ * trên executor riêng trong khi request hiện tại vẫn nhận giá trị cũ. Với {@code @Cacheable}, refresh gọi lại method
+ * qua proxy ({@link CacheRefreshAspect}) để chạy trong transaction và được gắn tag lại như lần load đầu.
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+    private final Cache delegate;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final RedissonClient redissonClient; // null = chỉ coalescing trong node
+    private final Duration lockWait;
+    private final Duration lockLease;
+
+    private final Duration ttl; // null = không refresh-ahead
+    private final RefreshAheadPolicy refreshPolicy;
+    private final Executor refreshExecutor;
+
+    private final Counter loads;
+    private final Counter coalescedLocal;
+    private final Counter coalescedRemote;
+    private final Counter refreshes;
+    private final Timer loadSuccess;
+    private final Timer loadFailure;
+
+    public CoalescingCache(
+            Cache delegate,
+            MeterRegistry meterRegistry,
+            RedissonClient redissonClient,
+            Duration lockWait,
+            Duration lockLease,
+            Duration ttl,
+            RefreshAheadPolicy refreshPolicy,
+            Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.redissonClient = redissonClient;
+        this.lockWait = lockWait;
+        this.lockLease = lockLease;
+        this.ttl = ttl;
+        this.refreshPolicy = refreshPolicy;
+        this.refreshExecutor = refreshExecutor;
+        this.loads = Counter.builder("cache.loads")
+                .description("Loader executions after a cache miss")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.coalescedLocal = Counter.builder("cache.loads.coalesced")
+                .description("Cache misses served by another caller's in-flight load")
+                .tag("cache", delegate.getName())
+                .tag("scope", "local")
+                .register(meterRegistry);
+        this.coalescedRemote = Counter.builder("cache.loads.coalesced")
+                .description("Cache misses served by another caller's in-flight load")
+                .tag("cache", delegate.getName())
+                .tag("scope", "remote")
+                .register(meterRegistry);
+        this.refreshes = Counter.builder("cache.refresh.ahead")
+                .description("Asynchronous reloads triggered before expiry")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.loadSuccess = loadTimer(meterRegistry, delegate.getName(), "success");
+        this.loadFailure = loadTimer(meterRegistry, delegate.getName(), "failure");
+    }
+
+    private static Timer loadTimer(MeterRegistry meterRegistry, String cacheName, String result) {
+        // Histogram để xem p95/p99 của loader (query DB) theo từng cache
+        return Timer.builder("cache.load.latency")
+                .description("Loader execution time after a cache miss or refresh")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper stored = delegate.get(key);
+        return stored != null ? new SimpleValueWrapper(CacheEnvelope.unwrap(stored.get())) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        if (CacheRefreshAspect.consumeForcedLoad(getName(), key)) {
+            // Refresh-ahead gọi lại method qua proxy: loader này đi qua đủ interceptor, ghi đè entry cũ
+            return (T) loadAndPut(key, valueLoader);
+        }
+
+        ValueWrapper stored = delegate.get(key);
+        if (stored != null) {
+            Object value = stored.get();
+            if (value instanceof CacheEnvelope envelope && shouldRefresh(envelope)) {
+                refreshAsync(key, valueLoader);
+            }
+            return (T) CacheEnvelope.unwrap(value);
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalescedLocal.increment();
+            return (T) await(existing);
+        }
+
+        try {
+            Object value = loadOnce(key, valueLoader);
+            mine.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private boolean shouldRefresh(CacheEnvelope envelope) {
+        if (ttl == null || refreshExecutor == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long ttlMs = ttl.toMillis();
+        long age = now - envelope.createdAt();
+        if (age >= ttlMs * (1 - refreshPolicy.ratio())) {
+            return true;
+        }
+        // XFetch: loader càng chậm và càng gần hết hạn thì xác suất refresh sớm càng cao
+        double random = 1.0 - ThreadLocalRandom.current().nextDouble(); // (0, 1]
+        double gap = -envelope.computeTime() * refreshPolicy.beta() * Math.log(random);
+        return now + gap >= envelope.createdAt() + ttlMs;
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        // Loader của @Cacheable không gọi lại được (xem CacheRefreshAspect); loader truyền trực tiếp thì được
+        CacheRefreshAspect.Invocation invocation = CacheRefreshAspect.current(getName());
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return; // Đã có request khác đang load key này
+        }
+        Runnable refresh = new DelegatingSecurityContextRunnable(() -> {
+            try {
+                mine.complete(invocation != null ? reloadThroughProxy(key, invocation) : loadAndPut(key, valueLoader));
+                refreshes.increment();
+            } catch (RuntimeException e) {
+                mine.completeExceptionally(e);
+                log.warn("⚠️ Refresh-ahead failed for {}:{}: {}", getName(), key, e.getMessage());
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        });
+        try {
+            refreshExecutor.execute(refresh);
+        } catch (RuntimeException e) {
+            // Executor đầy: bỏ qua lần refresh này, entry vẫn còn hạn
+            inFlight.remove(key, mine);
+            mine.cancel(false);
+        }
+    }
+
+    private Object reloadThroughProxy(Object key, CacheRefreshAspect.Invocation invocation) {
+        invocation.forceLoad(getName(), key);
+        ValueWrapper stored = delegate.get(key);
+        return stored != null ? CacheEnvelope.unwrap(stored.get()) : null;
+    }
+
+    private Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Trả về cùng exception với caller đã load (ValueRetrievalException, AppException...)
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader) {
+        if (redissonClient == null) {
+            return loadAndPut(key, valueLoader);
+        }
+
+        RLock lock = redissonClient.getLock("cache-lock:" + getName() + ":" + key);
+        boolean locked = false;
+        try {
+            locked = lock.tryLock(lockWait.toMillis(), lockLease.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Cache lock unavailable for {}:{}: {}", getName(), key, e.getMessage());
+        }
+
+        try {
+            // Node khác có thể đã load xong trong lúc chờ lock
+            ValueWrapper cached = delegate.get(key);
+            if (cached != null) {
+                coalescedRemote.increment();
+                return CacheEnvelope.unwrap(cached.get());
+            }
+            return loadAndPut(key, valueLoader);
+        } finally {
+            if (locked && lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        loads.increment();
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            loadFailure.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        loadSuccess.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        long end = System.currentTimeMillis();
+        delegate.put(key, value != null ? new CacheEnvelope(value, end, end - start) : null);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value != null ? new CacheEnvelope(value, System.currentTimeMillis(), 0) : null);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(
+                key, value != null ? new CacheEnvelope(value, System.currentTimeMillis(), 0) : null);
+        return existing != null ? new SimpleValueWrapper(CacheEnvelope.unwrap(existing.get())) : null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.cv.utils.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Danh sách key được đọc nhiều nhất của từng cache, lưu ở Redis list {@code cache-hot-keys::<cache>}
+ * (hot nhất đứng đầu) để node mới khởi động biết cần warm-up key nào.
+ * Độ "hot" lấy từ frequency sketch của Caffeine ({@code policy().eviction().hottest(n)}).
+ */
+@Component
+@Slf4j
+public class HotKeyStore {
+    private static final String KEY_PREFIX = "cache-hot-keys::";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration retention;
+
+    public HotKeyStore(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${cache.warmup.hot-keys.retention-hours:24}") long retentionHours) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.retention = Duration.ofHours(retentionHours);
+    }
+
+    /**
+     * Top-N key của tầng Caffeine (cache Caffeine hoặc L1 của cache hai tầng), rỗng nếu không có giới hạn kích thước.
+     */
+    public static List<String> hottest(Cache cache, int limit) {
+        Cache target = CacheCoalescer.unwrap(cache);
+        com.github.benmanes.caffeine.cache.Cache<?, ?> local;
+        if (target instanceof TwoLevelCache twoLevel) {
+            local = twoLevel.getLocalCache();
+        } else if (target instanceof CaffeineCache caffeineCache) {
+            local = caffeineCache.getNativeCache();
+        } else {
+            return List.of();
+        }
+        return hottestKeys(local, limit);
+    }
+
+    private static <K, V> List<String> hottestKeys(com.github.benmanes.caffeine.cache.Cache<K, V> cache, int limit) {
+        Optional<Collection<K>> keys =
+                cache.policy().eviction().map(eviction -> eviction.hottest(limit).keySet());
+        return keys.map(k -> k.stream().map(String::valueOf).toList()).orElse(List.of());
+    }
+
+    public void save(String cacheName, List<String> keys) {
+        if (keys.isEmpty()) {
+            return; // Giữ danh sách cũ: node vừa khởi động chưa có thống kê
+        }
+        String redisKey = KEY_PREFIX + cacheName;
+        // MULTI để node khác không đọc được list rỗng giữa DEL và RPUSH
+        stringRedisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                ops.delete(redisKey);
+                ops.opsForList().rightPushAll(redisKey, keys);
+                ops.expire(redisKey, retention);
+                return ops.exec();
+            }
+        });
+    }
+
+    public List<String> load(String cacheName, int limit) {
+        List<String> keys = stringRedisTemplate.opsForList().range(KEY_PREFIX + cacheName, 0, limit - 1L);
+        return keys != null ? keys : List.of();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.cv.utils.cache;
+
+import static org.example.cv.constants.CacheConstant.NEGATIVE_LOOKUPS;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache "không tồn tại" cho các lookup theo ID: ID vừa bị 404 được ghi vào cache hai tầng
+ * {@code negative-lookups} với TTL ngắn, các request sau với cùng ID trả 404 ngay mà không query DB.
+ *
+ * <p>Dùng cache hai tầng để lần đọc lặp lại chỉ chạm L1, còn {@link #forget} (khi create / restore)
+ * được phát tới mọi node. Key có dạng {@code <type>:<id>}.
+ */
+@Component
+@Slf4j
+public class NegativeLookupCache {
+    public static final String TASK = "task";
+    public static final String PROJECT = "project";
+    public static final String USER = "user";
+
+    private final CacheManager compositeCacheManager;
+    private final Counter hits;
+
+    public NegativeLookupCache(TwoLevelCacheManager compositeCacheManager, MeterRegistry meterRegistry) {
+        this.compositeCacheManager = compositeCacheManager;
+        this.hits = Counter.builder("cache.negative.hits")
+                .description("Lookups answered as not-found without querying the database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return true nếu ID đã được ghi nhận là không tồn tại và chưa hết hạn
+     */
+    public boolean isMissing(String type, Object id) {
+        try {
+            if (cache().get(key(type, id)) != null) {
+                hits.increment();
+                return true;
+            }
+        } catch (RuntimeException e) {
+            // Redis lỗi: coi như chưa biết, để request đi tiếp xuống DB
+            log.warn("⚠️ Negative lookup read failed for {}:{}: {}", type, id, e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Ném {@code errorCode} ngay nếu ID đã được ghi nhận là không tồn tại.
+     */
+    public void throwIfMissing(String type, Object id, ErrorCode errorCode) {
+        if (isMissing(type, id)) {
+            throw new AppException(errorCode);
+        }
+    }
+
+    public void markMissing(String type, Object id) {
+        try {
+            cache().put(key(type, id), Boolean.TRUE);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Negative lookup write failed for {}:{}: {}", type, id, e.getMessage());
+        }
+    }
+
+    /**
+     * Xóa ghi nhận "không tồn tại" sau khi entity được tạo hoặc restore (sau commit nếu đang trong transaction).
+     */
+    public void forget(String type, Object id) {
+        if (id == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache().evict(key(type, id));
+                }
+            });
+        } else {
+            cache().evict(key(type, id));
+        }
+    }
+
+    private Cache cache() {
+        return compositeCacheManager.getCache(NEGATIVE_LOOKUPS.getCacheName());
+    }
+
+    private static String key(String type, Object id) {
+        return type + ":" + id;
+    }
+}
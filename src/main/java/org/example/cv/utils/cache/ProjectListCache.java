@@ -0,0 +1,136 @@
+package org.example.cv.utils.cache;
+
+import static org.example.cv.constants.CacheConstant.PROJECT_LIST;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.example.cv.models.entities.ProjectEntity;
+import org.example.cv.models.entities.UserEntity;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Key và invalidation cho cache "project-list".
+ *
+ * <p>Key được chuẩn hóa để các request tương đương dùng chung một entry
+ * (sortDir không phân biệt hoa thường, filter trim + gộp khoảng trắng + lowercase vì full-text search
+ * không phân biệt hoa thường, filter dài thì hash):
+ * <ul>
+ *   <li>{@code all:<page>:<size>:<sortBy>,<dir>:<filter>} – getAll (admin)</li>
+ *   <li>{@code owner:<ownerId>:<page>:<size>:<sortBy>,<dir>:<filter>} – getAllByOwnerId</li>
+ *   <li>{@code member:<userId>:<page>:<size>} – getMyProjects (owner hoặc member)</li>
+ * </ul>
+ * Thay đổi một project chỉ xóa các prefix liên quan: {@code all:}, {@code owner:<owner>:}
+ * và {@code member:<id>:} của owner và từng member, thay vì allEntries.
+ */
+@Component("projectListCache")
+@Slf4j
+@RequiredArgsConstructor
+public class ProjectListCache {
+    private static final int MAX_FILTER_LENGTH = 64;
+
+    private final RedisCacheManager redisCacheManager;
+
+    public String all(int page, int size, String sortBy, String sortDir, String filter) {
+        return "all:" + page + ":" + size + ":" + sort(sortBy, sortDir) + ":" + filter(filter);
+    }
+
+    public String owner(Long ownerId, int page, int size, String sortBy, String sortDir, String filter) {
+        return "owner:" + ownerId + ":" + page + ":" + size + ":" + sort(sortBy, sortDir) + ":" + filter(filter);
+    }
+
+    public String member(Long userId, int page, int size) {
+        return "member:" + userId + ":" + page + ":" + size;
+    }
+
+    /**
+     * Xóa các trang có thể chứa project (sau commit nếu đang trong transaction).
+     * @param project project đã thay đổi
+     * @param extraUserIds user bị ảnh hưởng nhưng không còn là owner / member (owner cũ, member vừa bị xóa)
+     */
+    public void evictFor(ProjectEntity project, Long... extraUserIds) {
+        Set<String> prefixes = new LinkedHashSet<>();
+        prefixes.add("all:");
+        if (project.getOwner() != null) {
+            prefixes.add("owner:" + project.getOwner().getId() + ":");
+            prefixes.add("member:" + project.getOwner().getId() + ":");
+        }
+        if (project.getMembers() != null) {
+            for (UserEntity member : project.getMembers()) {
+                prefixes.add("member:" + member.getId() + ":");
+            }
+        }
+        for (Long userId : extraUserIds) {
+            if (userId != null) {
+                prefixes.add("owner:" + userId + ":");
+                prefixes.add("member:" + userId + ":");
+            }
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictPrefixes(prefixes);
+                }
+            });
+        } else {
+            evictPrefixes(prefixes);
+        }
+    }
+
+    private void evictPrefixes(Set<String> prefixes) {
+        Cache cache = CacheCoalescer.unwrap(redisCacheManager.getCache(PROJECT_LIST.getCacheName()));
+        if (!(cache instanceof RedisCache redisCache)) {
+            return;
+        }
+        String keyPrefix = redisCache.getCacheConfiguration().getKeyPrefixFor(redisCache.getName());
+        for (String prefix : prefixes) {
+            try {
+                // clean() dùng SCAN theo BatchStrategy của cache writer, không chặn Redis như KEYS
+                redisCache
+                        .getNativeCache()
+                        .clean(redisCache.getName(), (keyPrefix + prefix + "*").getBytes(StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                log.warn("⚠️ Failed to evict {}{}*: {}", keyPrefix, prefix, e.getMessage());
+            }
+        }
+        log.debug("Evicted project-list prefixes {}", prefixes);
+    }
+
+    private static String sort(String sortBy, String sortDir) {
+        String property = sortBy == null ? "" : sortBy.trim();
+        String direction = sortDir == null ? "asc" : sortDir.trim().toLowerCase(Locale.ROOT);
+        return property + "," + direction;
+    }
+
+    private static String filter(String filter) {
+        if (filter == null || filter.isBlank()) {
+            return "";
+        }
+        String normalized = filter.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.length() <= MAX_FILTER_LENGTH ? normalized : "sha256=" + sha256(normalized);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
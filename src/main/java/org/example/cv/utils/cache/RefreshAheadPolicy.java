@@ -0,0 +1,7 @@
+package org.example.cv.utils.cache;
+
+/**
+ * @param ratio phần cuối của TTL (0..1) mà trong đó mọi lần đọc đều kích hoạt refresh bất đồng bộ
+ * @param beta hệ số XFetch, lớn hơn 1 thì refresh sớm hơn, 0 thì tắt XFetch
+ */
+public record RefreshAheadPolicy(double ratio, double beta) {}
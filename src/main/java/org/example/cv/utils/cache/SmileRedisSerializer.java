@@ -0,0 +1,181 @@
+package org.example.cv.utils.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.example.cv.models.responses.PageResponse;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializer nhị phân cho Redis cache: Jackson Smile + type id đăng ký trước thay vì tên class trong payload.
+ *
+ * <p>Định dạng (byte đầu là marker):
+ * <ul>
+ *   <li>{@code 0x01 typeId(short) smile} – DTO đã đăng ký</li>
+ *   <li>{@code 0x02 typeId(short) elementTypeId(short) smile} – {@link PageResponse} của DTO đã đăng ký
+ *       (elementTypeId = 0 khi trang rỗng)</li>
+ *   <li>{@code 0x03 createdAt(long) computeTime(long) payload} – {@link CacheEnvelope}, payload mã hóa đệ quy</li>
+ *   <li>{@code 0x04} – {@link NullValue}</li>
+ *   <li>còn lại – JSON của serializer fallback (kiểu chưa đăng ký và entry cũ đã có trong Redis)</li>
+ * </ul>
+ */
+public class SmileRedisSerializer implements RedisSerializer<Object> {
+    private static final byte TYPED = 0x01;
+    private static final byte PAGE = 0x02;
+    private static final byte ENVELOPE = 0x03;
+    private static final byte NULL_VALUE = 0x04;
+    private static final short UNKNOWN_ELEMENT = 0;
+
+    private final ObjectMapper smileMapper;
+    private final RedisSerializer<Object> fallback;
+    private final Map<Class<?>, Short> idsByType = new HashMap<>();
+    private final Map<Short, Class<?>> typesById = new HashMap<>();
+
+    public SmileRedisSerializer(ObjectMapper smileMapper, RedisSerializer<Object> fallback) {
+        this.smileMapper = smileMapper;
+        this.fallback = fallback;
+    }
+
+    /**
+     * Đăng ký DTO với một id cố định. Id là một phần của dữ liệu trong Redis nên không được đổi / dùng lại.
+     */
+    public SmileRedisSerializer register(int typeId, Class<?> type) {
+        if (typeId <= UNKNOWN_ELEMENT || typeId > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Type id must be in 1.." + Short.MAX_VALUE);
+        }
+        short id = (short) typeId;
+        if (typesById.containsKey(id) || idsByType.containsKey(type)) {
+            throw new IllegalArgumentException("Duplicate cache type registration: " + typeId + " / " + type);
+        }
+        idsByType.put(type, id);
+        typesById.put(id, type);
+        return this;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            write(value, new DataOutputStream(bytes));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write cache value", e);
+        }
+    }
+
+    private void write(Object value, DataOutputStream out) throws IOException {
+        if (value instanceof NullValue) {
+            out.writeByte(NULL_VALUE);
+            return;
+        }
+        if (value instanceof CacheEnvelope envelope) {
+            out.writeByte(ENVELOPE);
+            out.writeLong(envelope.createdAt());
+            out.writeLong(envelope.computeTime());
+            write(envelope.value(), out);
+            return;
+        }
+        Short typeId = idsByType.get(value.getClass());
+        if (typeId != null) {
+            out.writeByte(TYPED);
+            out.writeShort(typeId);
+            smileMapper.writeValue((OutputStream) out, value);
+            return;
+        }
+        if (value instanceof PageResponse<?> page) {
+            Short elementId = elementTypeId(page.content());
+            if (elementId != null) {
+                out.writeByte(PAGE);
+                out.writeShort(elementId);
+                smileMapper.writeValue((OutputStream) out, value);
+                return;
+            }
+        }
+        out.write(fallback.serialize(value));
+    }
+
+    // null = có phần tử chưa đăng ký → dùng fallback cho cả trang
+    private Short elementTypeId(List<?> content) {
+        if (content == null || content.isEmpty()) {
+            return UNKNOWN_ELEMENT;
+        }
+        Class<?> elementType = content.get(0).getClass();
+        Short id = idsByType.get(elementType);
+        if (id == null) {
+            return null;
+        }
+        for (Object element : content) {
+            if (element == null || element.getClass() != elementType) {
+                return null;
+            }
+        }
+        return id;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return read(bytes, 0);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read cache value", e);
+        }
+    }
+
+    private Object read(byte[] bytes, int offset) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, bytes.length - offset));
+        switch (bytes[offset]) {
+            case NULL_VALUE -> {
+                return NullValue.INSTANCE;
+            }
+            case ENVELOPE -> {
+                in.skipBytes(1);
+                long createdAt = in.readLong();
+                long computeTime = in.readLong();
+                return new CacheEnvelope(read(bytes, offset + 17), createdAt, computeTime);
+            }
+            case TYPED -> {
+                in.skipBytes(1);
+                Class<?> type = typeOf(in.readShort());
+                return smileMapper.readValue(bytes, offset + 3, bytes.length - offset - 3, type);
+            }
+            case PAGE -> {
+                in.skipBytes(1);
+                short elementId = in.readShort();
+                Class<?> elementType = elementId == UNKNOWN_ELEMENT ? Object.class : typeOf(elementId);
+                JavaType pageType =
+                        smileMapper.getTypeFactory().constructParametricType(PageResponse.class, elementType);
+                return smileMapper.readValue(bytes, offset + 3, bytes.length - offset - 3, pageType);
+            }
+            default -> {
+                return fallback.deserialize(offset == 0 ? bytes : Arrays.copyOfRange(bytes, offset, bytes.length));
+            }
+        }
+    }
+
+    private Class<?> typeOf(short typeId) {
+        Class<?> type = typesById.get(typeId);
+        if (type == null) {
+            throw new SerializationException("Unknown cache type id " + typeId);
+        }
+        return type;
+    }
+}
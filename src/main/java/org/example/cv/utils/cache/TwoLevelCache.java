@@ -0,0 +1,139 @@
+package org.example.cv.utils.cache;
+
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+/**
+ * Cache hai tầng: L1 Caffeine (trong node) và L2 Redis (dùng chung giữa các node).
+ * Đọc L1 → L2 → loader và ghi ngược lên cả hai tầng.
+ * Mọi put / evict / clear được phát qua Redis pub/sub để các node khác bỏ entry L1 tương ứng.
+ * Key L1 được chuẩn hóa thành String cho khớp với key Redis và với message invalidation.
+ */
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    @FunctionalInterface
+    public interface InvalidationPublisher {
+        void publish(String cacheName, String key);
+    }
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> l1;
+    private final Cache l2;
+    private final InvalidationPublisher invalidationPublisher;
+
+    public TwoLevelCache(
+            String name,
+            com.github.benmanes.caffeine.cache.Cache<String, Object> l1,
+            Cache l2,
+            InvalidationPublisher invalidationPublisher) {
+        super(false);
+        this.name = name;
+        this.l1 = l1;
+        this.l2 = l2;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return l2.getNativeCache();
+    }
+
+    public com.github.benmanes.caffeine.cache.Cache<String, Object> getLocalCache() {
+        return l1;
+    }
+
+    public Cache getRemoteCache() {
+        return l2;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object value = l1.getIfPresent(localKey);
+        if (value != null) {
+            return value;
+        }
+        ValueWrapper remote = l2.get(key);
+        if (remote == null || remote.get() == null) {
+            return null;
+        }
+        value = remote.get();
+        l1.put(localKey, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = lookup(key);
+        if (value != null) {
+            return (T) fromStoreValue(value);
+        }
+        T loaded;
+        try {
+            loaded = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, loaded);
+        return loaded;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            // Không cache null: chỉ đảm bảo giá trị cũ không còn
+            evict(key);
+            return;
+        }
+        l2.put(key, value);
+        l1.put(localKey(key), value);
+        invalidationPublisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = l2.putIfAbsent(key, value);
+        if (existing == null && value != null) {
+            l1.put(localKey(key), value);
+            invalidationPublisher.publish(name, localKey(key));
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        l2.evict(key);
+        l1.invalidate(localKey(key));
+        invalidationPublisher.publish(name, localKey(key));
+    }
+
+    @Override
+    public void clear() {
+        l2.clear();
+        l1.invalidateAll();
+        invalidationPublisher.publish(name, null);
+    }
+
+    /**
+     * Xử lý message từ node khác: chỉ bỏ L1, không đụng tới L2.
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            l1.invalidateAll();
+        } else {
+            l1.invalidate(key);
+        }
+    }
+
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
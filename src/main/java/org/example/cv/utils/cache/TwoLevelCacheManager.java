@@ -0,0 +1,124 @@
+package org.example.cv.utils.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * CacheManager tạo {@link TwoLevelCache} cho mỗi cache name, L2 lấy từ {@link RedisCacheManager}.
+ * TTL của L1 = min(TTL L1 cấu hình, TTL của cache Redis tương ứng) để L1 không sống lâu hơn L2.
+ * Đồng thời là listener của kênh invalidation: message từ node khác chỉ xóa L1 của node này.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final Map<String, Cache> decoratedCaches = new ConcurrentHashMap<>();
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final Duration localTtl;
+    private final long localMaximumSize;
+    private final UnaryOperator<Cache> cacheDecorator;
+
+    public TwoLevelCacheManager(
+            RedisCacheManager redisCacheManager,
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            String channel,
+            Duration localTtl,
+            long localMaximumSize,
+            UnaryOperator<Cache> cacheDecorator) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.localTtl = localTtl;
+        this.localMaximumSize = localMaximumSize;
+        this.cacheDecorator = cacheDecorator;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return decoratedCaches.computeIfAbsent(
+                name, cacheName -> cacheDecorator.apply(caches.computeIfAbsent(cacheName, this::createCache)));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        // L2 dùng RedisCache gốc, decorator chỉ bọc ở ngoài cùng
+        Cache remote = CacheCoalescer.unwrap(redisCacheManager.getCache(name));
+        Duration ttl = localTtlFor(name);
+        com.github.benmanes.caffeine.cache.Cache<String, Object> local = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(localMaximumSize)
+                .recordStats()
+                .build();
+        log.info("✅ Two-level cache '{}' initialized (L1 TTL {}s)", name, ttl.toSeconds());
+        return new TwoLevelCache(name, local, remote, this::publishInvalidation);
+    }
+
+    private Duration localTtlFor(String name) {
+        RedisCacheConfiguration config = redisCacheManager.getCacheConfigurations().get(name);
+        if (config == null) {
+            return localTtl;
+        }
+        Duration remoteTtl = config.getTtlFunction().getTimeToLive(name, null);
+        if (remoteTtl == null || remoteTtl.isZero() || remoteTtl.isNegative()) {
+            return localTtl;
+        }
+        return remoteTtl.compareTo(localTtl) < 0 ? remoteTtl : localTtl;
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new CacheInvalidationMessage(nodeId, cacheName, key));
+            redisTemplate.convertAndSend(channel, payload);
+        } catch (Exception e) {
+            // Không làm hỏng request: entry L1 ở node khác sẽ tự hết hạn theo TTL
+            log.warn("⚠️ Failed to publish cache invalidation for {}:{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            CacheInvalidationMessage invalidation =
+                    objectMapper.readValue(message.getBody(), CacheInvalidationMessage.class);
+            if (nodeId.equals(invalidation.node())) {
+                return;
+            }
+            TwoLevelCache cache = caches.get(invalidation.cache());
+            if (cache != null) {
+                cache.invalidateLocal(invalidation.key());
+                log.debug("Invalidated L1 {}:{} from node {}", invalidation.cache(), invalidation.key(), invalidation.node());
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Invalid cache invalidation message: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.cv.utils.mapper;
+
+import org.example.cv.models.entities.AuditLogEntity;
+import org.example.cv.models.responses.AuditLogResponse;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface AuditLogMapper {
+    AuditLogResponse toResponse(AuditLogEntity entity);
+}
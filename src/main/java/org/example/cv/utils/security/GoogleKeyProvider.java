@@ -0,0 +1,20 @@
+package org.example.cv.utils.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.util.List;
+
+/**
+ * Nguồn public key để verify chữ ký Google ID token. Bản mặc định lấy cert của Google
+ * ({@link HttpGoogleKeyProvider}); bản {@link LocalGoogleKeyProvider} dùng key cục bộ để load test offline.
+ */
+public interface GoogleKeyProvider {
+
+    List<PublicKey> getPublicKeys() throws GeneralSecurityException, IOException;
+
+    /**
+     * Làm mới key chủ động (gọi định kỳ), để request đăng nhập không phải chờ tải cert.
+     */
+    default void refresh() throws GeneralSecurityException, IOException {}
+}
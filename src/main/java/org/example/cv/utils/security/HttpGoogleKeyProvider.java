@@ -0,0 +1,77 @@
+package org.example.cv.utils.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.HttpTransport;
+import com.google.api.client.json.JsonFactory;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lấy cert của Google qua một {@link GooglePublicKeysManager} dùng chung và giữ snapshot key trong bộ nhớ.
+ *
+ * <p>Snapshot được làm mới định kỳ ở nền; request đăng nhập chỉ tải cert khi chưa có snapshot nào, và chờ
+ * tối đa {@code timeout} thay vì timeout mặc định 20s của HTTP client.
+ */
+@Slf4j
+public class HttpGoogleKeyProvider implements GoogleKeyProvider {
+    private final GooglePublicKeysManager keysManager;
+    private final Duration timeout;
+
+    private volatile List<PublicKey> publicKeys;
+
+    public HttpGoogleKeyProvider(HttpTransport transport, JsonFactory jsonFactory, Duration timeout) {
+        this.keysManager = new GooglePublicKeysManager(transport, jsonFactory);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public List<PublicKey> getPublicKeys() throws GeneralSecurityException, IOException {
+        List<PublicKey> keys = publicKeys;
+        if (keys != null) {
+            return keys;
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                        try {
+                            return load(false);
+                        } catch (GeneralSecurityException | IOException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    })
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out loading Google public keys after " + timeout, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading Google public keys", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to load Google public keys", e.getCause());
+        }
+    }
+
+    @Override
+    public void refresh() throws GeneralSecurityException, IOException {
+        load(true);
+    }
+
+    private List<PublicKey> load(boolean force) throws GeneralSecurityException, IOException {
+        if (force) {
+            keysManager.refresh();
+        }
+        // getPublicKeys tự refresh (có lock) khi cache của manager hết hạn theo Cache-Control
+        List<PublicKey> keys = List.copyOf(keysManager.getPublicKeys());
+        publicKeys = keys;
+        log.debug("Loaded {} Google public key(s)", keys.size());
+        return keys;
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.cv.utils.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+
+/**
+ * {@link GoogleIdTokenVerifier} lấy key từ {@link GoogleKeyProvider} thay vì {@code GooglePublicKeysManager} gắn
+ * sẵn (có {@code getPublicKeys()} final nên không thay được). Kiểm tra issuer/audience/thời hạn giữ nguyên.
+ */
+public class KeyProviderGoogleIdTokenVerifier extends GoogleIdTokenVerifier {
+    private final GoogleKeyProvider keyProvider;
+
+    public KeyProviderGoogleIdTokenVerifier(GoogleIdTokenVerifier.Builder builder, GoogleKeyProvider keyProvider) {
+        super(builder);
+        this.keyProvider = keyProvider;
+    }
+
+    @Override
+    public boolean verify(GoogleIdToken googleIdToken) throws GeneralSecurityException, IOException {
+        if (!verifyPayload(googleIdToken)) {
+            return false;
+        }
+        for (PublicKey publicKey : keyProvider.getPublicKeys()) {
+            if (googleIdToken.verifySignature(publicKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
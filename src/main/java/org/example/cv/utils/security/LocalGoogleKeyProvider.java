@@ -0,0 +1,77 @@
+package org.example.cv.utils.security;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+
+/**
+ * Key cục bộ thay cho cert của Google, dùng để load test đăng nhập Google mà không cần mạng.
+ *
+ * <p>Nếu cấu hình {@code public-key} (X.509, base64) thì chỉ verify bằng key đó và công cụ load test tự ký token
+ * bằng private key tương ứng. Nếu không, sinh cặp RSA tạm thời và {@link #issue} ký token ngay trong tiến trình.
+ */
+public class LocalGoogleKeyProvider implements GoogleKeyProvider {
+    private static final String ISSUER = "https://accounts.google.com";
+    private static final long TOKEN_LIFETIME_SECONDS = 3600;
+
+    private final JsonFactory jsonFactory;
+    private final List<PublicKey> publicKeys;
+    private final PrivateKey privateKey; // null khi chỉ có public key được cấu hình
+
+    public LocalGoogleKeyProvider(JsonFactory jsonFactory, String encodedPublicKey) throws GeneralSecurityException {
+        this.jsonFactory = jsonFactory;
+        if (encodedPublicKey != null && !encodedPublicKey.isBlank()) {
+            PublicKey publicKey = KeyFactory.getInstance("RSA")
+                    .generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(encodedPublicKey.trim())));
+            this.publicKeys = List.of(publicKey);
+            this.privateKey = null;
+        } else {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keyPair = generator.generateKeyPair();
+            this.publicKeys = List.of(keyPair.getPublic());
+            this.privateKey = keyPair.getPrivate();
+        }
+    }
+
+    @Override
+    public List<PublicKey> getPublicKeys() {
+        return publicKeys;
+    }
+
+    /**
+     * Ký một ID token giả theo định dạng của Google cho {@code audience} (client id).
+     */
+    public String issue(String audience, String email, String name) throws GeneralSecurityException, IOException {
+        if (privateKey == null) {
+            throw new IllegalStateException("Local Google key provider was configured with a public key only");
+        }
+        long now = System.currentTimeMillis() / 1000;
+        JsonWebSignature.Header header = new JsonWebSignature.Header()
+                .setAlgorithm("RS256")
+                .setType("JWT")
+                .setKeyId("local");
+        GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+                .setIssuer(ISSUER)
+                .setAudience(audience)
+                .setSubject(UUID.nameUUIDFromBytes(email.getBytes()).toString())
+                .setEmail(email)
+                .setEmailVerified(true)
+                .setIssuedAtTimeSeconds(now)
+                .setExpirationTimeSeconds(now + TOKEN_LIFETIME_SECONDS);
+        payload.set("name", name);
+        return JsonWebSignature.signUsingRsaSha256(privateKey, jsonFactory, header, payload);
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.cv.utils.security;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Giới hạn số lần đăng nhập đang xử lý đồng thời theo username và theo IP, để một nguồn không chiếm hết
+ * pool hash mật khẩu. Khác rate limit: chỉ đếm request đang chạy, trả 429 khi vượt.
+ *
+ * <p>IP lấy từ {@code getRemoteAddr()}, là IP client thật khi request đi qua proxy trong
+ * {@code server.tomcat.remoteip.internal-proxies}; nếu không, mọi client sau proxy dùng chung một slot IP.
+ */
+@Component
+public class LoginConcurrencyLimiter {
+    private final ConcurrentHashMap<String, AtomicInteger> inFlightByUsername = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, AtomicInteger> inFlightByIp = new ConcurrentHashMap<>();
+    private final int maxPerUsername;
+    private final int maxPerIp;
+
+    public LoginConcurrencyLimiter(
+            @Value("${security.login.max-in-flight-per-username:2}") int maxPerUsername,
+            @Value("${security.login.max-in-flight-per-ip:8}") int maxPerIp) {
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+    }
+
+    /**
+     * Giữ một slot cho (username, ip); dùng trong try-with-resources để trả slot.
+     */
+    public Permit acquire(String username, String ip) {
+        String usernameKey = username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+        String ipKey = ip == null ? "" : ip;
+        if (!tryAcquire(inFlightByUsername, usernameKey, maxPerUsername)) {
+            throw new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+        if (!tryAcquire(inFlightByIp, ipKey, maxPerIp)) {
+            release(inFlightByUsername, usernameKey);
+            throw new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+        }
+        return new Permit(usernameKey, ipKey);
+    }
+
+    private static boolean tryAcquire(ConcurrentHashMap<String, AtomicInteger> counters, String key, int limit) {
+        boolean[] acquired = {false};
+        // compute giữ lock theo key nên tăng/giảm và xóa counter về 0 không tranh chấp nhau
+        counters.compute(key, (k, counter) -> {
+            AtomicInteger current = counter == null ? new AtomicInteger() : counter;
+            if (current.get() < limit) {
+                current.incrementAndGet();
+                acquired[0] = true;
+            }
+            return current.get() == 0 ? null : current;
+        });
+        return acquired[0];
+    }
+
+    private static void release(ConcurrentHashMap<String, AtomicInteger> counters, String key) {
+        counters.computeIfPresent(key, (k, counter) -> counter.decrementAndGet() <= 0 ? null : counter);
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final String username;
+        private final String ip;
+
+        private Permit(String username, String ip) {
+            this.username = username;
+            this.ip = ip;
+        }
+
+        @Override
+        public void close() {
+            release(inFlightByUsername, username);
+            release(inFlightByIp, ip);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.example.cv.utils.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refresh token dạng opaque lưu trong Redis, dùng một lần và xoay vòng theo "family".
+ *
+ * <p>Token có dạng {@code <familyId>.<secret>}; Redis chỉ lưu SHA-256 của token. Mỗi family có đúng một token còn
+ * hiệu lực ({@code refresh-family::<familyId>} trỏ tới hash của nó). Khi một token đã dùng bị gửi lại, cả family
+ * bị thu hồi: token mới nhất (có thể đang nằm trong tay kẻ đánh cắp) cũng không dùng được nữa.
+ *
+ * <p>Mỗi lần xoay vòng gia hạn token thêm {@code ttl} (thời gian rảnh tối đa), nhưng family sống tối đa
+ * {@code max-lifetime} kể từ lúc đăng nhập: TTL của key family không bao giờ được gia hạn. Index
+ * {@code refresh-user::<userId>} được gia hạn {@code max-lifetime} mỗi lần đăng nhập nên luôn sống lâu hơn mọi family
+ * của user, và {@link #revokeAllForUser} không bỏ sót family nào. Cần Redis 6.0+ ({@code KEEPTTL}).
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+    private static final String TOKEN_KEY_PREFIX = "refresh-token::";
+    private static final String USED_KEY_PREFIX = "refresh-token-used::";
+    private static final String FAMILY_KEY_PREFIX = "refresh-family::";
+    private static final String USER_KEY_PREFIX = "refresh-user::";
+    private static final String SEPARATOR = "|";
+    private static final String REUSED = "!reused";
+
+    // KEYS: token, used-marker, family, token mới; ARGV: hash mới, ttl (ms), hash token đang dùng
+    private static final RedisScript<String> ROTATE = new DefaultRedisScript<>(
+            """
+			local session = redis.call('GET', KEYS[1])
+			if not session then
+			if redis.call('EXISTS', KEYS[2]) == 1 then
+				redis.call('DEL', KEYS[3])
+				return '!reused'
+			end
+			return false
+			end
+			redis.call('DEL', KEYS[1])
+			if redis.call('GET', KEYS[3]) ~= ARGV[3] then
+			return false
+			end
+			local remaining = redis.call('PTTL', KEYS[3])
+			if remaining <= 0 then
+			remaining = tonumber(ARGV[2])
+			end
+			redis.call('SET', KEYS[2], '1', 'PX', remaining)
+			redis.call('SET', KEYS[4], session, 'PX', math.min(tonumber(ARGV[2]), remaining))
+			redis.call('SET', KEYS[3], ARGV[1], 'KEEPTTL')
+			return session
+			""",
+            String.class);
+
+    // KEYS: family, token; ARGV: hash token. Chỉ xóa khi token đúng là token hiện tại của family
+    private static final RedisScript<Long> REVOKE = new DefaultRedisScript<>(
+            """
+			if redis.call('GET', KEYS[1]) == ARGV[1] then
+			return redis.call('DEL', KEYS[1], KEYS[2])
+			end
+			return 0
+			""",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration ttl;
+    private final Duration maxLifetime;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenStore(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${jwt.refresh-token.ttl:P7D}") Duration ttl,
+            @Value("${jwt.refresh-token.max-lifetime:P30D}") Duration maxLifetime) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = ttl;
+        this.maxLifetime = maxLifetime;
+    }
+
+    /**
+     * Phiên refresh: đủ thông tin để ký access token mới mà không cần đọc DB.
+     */
+    public record RefreshSession(Long userId, String username, String scope, String refreshToken) {}
+
+    /**
+     * Mở family mới (khi đăng nhập) và trả về refresh token đầu tiên.
+     */
+    public String issue(Long userId, String username, String scope) {
+        String familyId = UUID.randomUUID().toString();
+        String token = newToken(familyId);
+        String hash = sha256(token);
+        String session = userId + SEPARATOR + username + SEPARATOR + scope;
+
+        stringRedisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + hash, session, min(ttl, maxLifetime));
+        stringRedisTemplate.opsForValue().set(FAMILY_KEY_PREFIX + familyId, hash, maxLifetime);
+        stringRedisTemplate.opsForSet().add(USER_KEY_PREFIX + userId, familyId);
+        stringRedisTemplate.expire(USER_KEY_PREFIX + userId, maxLifetime);
+        pruneFamilies(userId);
+        return token;
+    }
+
+    /**
+     * Đổi refresh token lấy token mới trong cùng family (token cũ hết hiệu lực ngay).
+     * @throws AppException UNAUTHENTICATED nếu token không hợp lệ, đã hết hạn hoặc bị dùng lại
+     */
+    public RefreshSession rotate(String token) {
+        String familyId = familyOf(token);
+        String hash = sha256(token);
+        String next = newToken(familyId);
+        String nextHash = sha256(next);
+
+        String session = stringRedisTemplate.execute(
+                ROTATE,
+                List.of(
+                        TOKEN_KEY_PREFIX + hash,
+                        USED_KEY_PREFIX + hash,
+                        FAMILY_KEY_PREFIX + familyId,
+                        TOKEN_KEY_PREFIX + nextHash),
+                nextHash,
+                String.valueOf(ttl.toMillis()),
+                hash);
+
+        if (REUSED.equals(session)) {
+            log.warn("⚠️ Refresh token reuse detected, revoked family {}", familyId);
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        if (session == null) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+
+        int first = session.indexOf(SEPARATOR);
+        int last = session.lastIndexOf(SEPARATOR);
+        return new RefreshSession(
+                Long.valueOf(session.substring(0, first)),
+                session.substring(first + 1, last),
+                session.substring(last + 1),
+                next);
+    }
+
+    /**
+     * Thu hồi family chứa token (logout). Chỉ token hiện tại của family mới thu hồi được: chỉ biết familyId (phần
+     * trước dấu chấm) hoặc giữ token đã xoay vòng thì không đăng xuất được phiên của người khác. Token không hợp lệ
+     * thì bỏ qua.
+     */
+    public void revoke(String token) {
+        try {
+            String hash = sha256(token);
+            Long deleted = stringRedisTemplate.execute(
+                    REVOKE, List.of(FAMILY_KEY_PREFIX + familyOf(token), TOKEN_KEY_PREFIX + hash), hash);
+            if (deleted == null || deleted == 0) {
+                log.debug("Ignoring revoke for a refresh token that is not the current one of its family");
+            }
+        } catch (AppException e) {
+            log.debug("Ignoring malformed refresh token on revoke");
+        }
+    }
+
+    /**
+     * Thu hồi mọi family của user, ví dụ khi đổi role, đổi mật khẩu hoặc xóa user. Nếu đang trong transaction thì
+     * chỉ thu hồi sau khi commit: thu hồi trước đó thì lần đăng nhập xen giữa vẫn đọc role/mật khẩu cũ từ DB.
+     */
+    public void revokeAllForUser(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteAllForUser(userId);
+                }
+            });
+        } else {
+            deleteAllForUser(userId);
+        }
+    }
+
+    private void deleteAllForUser(Long userId) {
+        List<String> familyKeys = familyKeys(userId);
+        if (!familyKeys.isEmpty()) {
+            stringRedisTemplate.delete(familyKeys);
+        }
+        stringRedisTemplate.delete(USER_KEY_PREFIX + userId);
+    }
+
+    // Bỏ khỏi index các family đã hết hạn hoặc bị thu hồi (logout, dùng lại token)
+    private void pruneFamilies(Long userId) {
+        List<String> familyKeys = familyKeys(userId);
+        if (familyKeys.isEmpty()) {
+            return;
+        }
+        List<String> hashes = stringRedisTemplate.opsForValue().multiGet(familyKeys);
+        if (hashes == null) {
+            return;
+        }
+        List<Object> dead = new ArrayList<>();
+        for (int i = 0; i < familyKeys.size(); i++) {
+            if (hashes.get(i) == null) {
+                dead.add(familyKeys.get(i).substring(FAMILY_KEY_PREFIX.length()));
+            }
+        }
+        if (!dead.isEmpty()) {
+            stringRedisTemplate.opsForSet().remove(USER_KEY_PREFIX + userId, dead.toArray());
+        }
+    }
+
+    private List<String> familyKeys(Long userId) {
+        Set<String> families = stringRedisTemplate.opsForSet().members(USER_KEY_PREFIX + userId);
+        if (families == null) {
+            return List.of();
+        }
+        return families.stream().map(familyId -> FAMILY_KEY_PREFIX + familyId).toList();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private String newToken(String familyId) {
+        byte[] secret = new byte[32];
+        secureRandom.nextBytes(secret);
+        return familyId + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+    }
+
+    private static String familyOf(String token) {
+        int separatorIndex = token == null ? -1 : token.indexOf('.');
+        if (separatorIndex <= 0) {
+            throw new AppException(ErrorCode.UNAUTHENTICATED);
+        }
+        return token.substring(0, separatorIndex);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package org.example.cv.utils.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.example.cv.event.TokenRevokedEvent;
+import org.example.cv.event.UserTokensRevokedEvent;
+import org.example.cv.models.entities.InvalidatedToken;
+import org.example.cv.repositories.InvalidedTokenRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Danh sách jti đã bị thu hồi, giữ cục bộ trên mỗi node để kiểm tra token không phải query
+ * {@code invalidated_tokens}.
+ *
+ * <p>Bloom filter đứng trước một map chính xác {@code jti -> exp}: đa số token không bị thu hồi nên dừng ở Bloom.
+ * Khi Bloom báo dương tính mà map không có (false positive) mới hỏi DB, và kết quả "không bị thu hồi" được nhớ
+ * trong thời gian ngắn để một jti trùng bit không query DB ở mọi request. Dữ liệu được nạp lúc khởi động, cập nhật
+ * qua Redis pub/sub khi logout/refresh, và {@link #rebuild} định kỳ để bỏ jti đã hết hạn.
+ *
+ * <p>Node bỏ lỡ message thì Bloom âm tính với jti đó và không hỏi DB: token bị thu hồi vẫn được chấp nhận tới lần
+ * rebuild kế tiếp. Vì vậy registry cũng rebuild mỗi khi listener (re)subscribe channel, để lấp khoảng mất kết nối.
+ *
+ * <p>Ngoài jti, registry giữ mốc thu hồi theo user ({@code userId -> T}): mọi access token của user phát hành trước
+ * T bị từ chối, dùng khi user bị xóa hoặc mất role mà principal được dựng từ claims. Mốc đi qua cùng channel và được
+ * lưu trong hash Redis {@value #USER_CUTOFFS_KEY} cho lần rebuild; mốc cũ hơn thời hạn access token thì bỏ.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry implements MessageListener, SubscriptionListener, SmartInitializingSingleton {
+    private static final String SEPARATOR = ":";
+    private static final String USER_PREFIX = "user" + SEPARATOR;
+    static final String USER_CUTOFFS_KEY = "token-revocation::user-cutoffs";
+
+    private final InvalidedTokenRepository invalidedTokenRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String channel;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private final Cache<String, Boolean> notRevoked; // Bloom false positive đã được DB xác nhận là chưa thu hồi
+    private final Map<Long, Instant> userCutoffs = new ConcurrentHashMap<>();
+    private final Duration accessTokenTtl;
+
+    private volatile BloomFilter bloomFilter;
+
+    public TokenRevocationRegistry(
+            InvalidedTokenRepository invalidedTokenRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${security.revocation.channel:token-revocations}") String channel,
+            @Value("${security.revocation.expected-insertions:100000}") long expectedInsertions,
+            @Value("${security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${security.revocation.negative-cache-ttl-ms:5000}") long negativeCacheTtlMs,
+            @Value("${jwt.expiration:3600000}") long accessTokenTtlMs) {
+        this.invalidedTokenRepository = invalidedTokenRepository;
+        this.redisTemplate = redisTemplate;
+        this.eventPublisher = eventPublisher;
+        this.channel = channel;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.accessTokenTtl = Duration.ofMillis(accessTokenTtlMs);
+        this.bloomFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.notRevoked = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(negativeCacheTtlMs))
+                .maximumSize(expectedInsertions)
+                .build();
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Override
+    public void onChannelSubscribed(byte[] channel, long count) {
+        // Message phát ra trong lúc chưa subscribe (khởi động, mất kết nối Redis) không bao giờ tới node này
+        log.debug("Token revocation channel subscribed, rebuilding");
+        rebuild();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (!bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        if (revoked.containsKey(jti)) {
+            return true;
+        }
+        if (notRevoked.getIfPresent(jti) != null) {
+            return false;
+        }
+        boolean exists = invalidedTokenRepository.existsById(jti);
+        if (exists) {
+            // Thu hồi đã commit nhưng message chưa tới; exp không rõ nên giữ tới lần rebuild kế tiếp
+            revoked.put(jti, Instant.MAX);
+        } else {
+            notRevoked.put(jti, Boolean.TRUE);
+            if (revoked.containsKey(jti)) {
+                // add() chạy xen giữa lúc query DB và lúc ghi nhớ
+                notRevoked.invalidate(jti);
+                return true;
+            }
+        }
+        return exists;
+    }
+
+    /**
+     * true nếu token của user được phát hành trước mốc {@link #revokeIssuedBefore}. {@code iat} của JWT tính theo
+     * giây nên token phát hành cùng giây với mốc cũng bị từ chối; token không có {@code iat} bị từ chối khi có mốc.
+     */
+    public boolean isRevokedForUser(Long userId, Instant issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Instant cutoff = userCutoffs.get(userId);
+        return cutoff != null && (issuedAt == null || issuedAt.isBefore(cutoff));
+    }
+
+    /**
+     * Ghi nhận jti bị thu hồi sau khi transaction commit và phát tới các node khác.
+     */
+    public void revoke(String jti, Date expiryTime) {
+        Instant expiresAt = expiryTime.toInstant();
+        afterCommit(() -> {
+            add(jti, expiresAt);
+            publish(jti, expiresAt);
+        });
+    }
+
+    /**
+     * Vô hiệu mọi access token của user đã phát hành tới thời điểm transaction commit (xóa user, bớt role, đổi mật
+     * khẩu): token đăng nhập xen giữa lúc thay đổi và lúc commit vẫn mang role cũ nên cũng phải bị chặn.
+     */
+    public void revokeIssuedBefore(Long userId) {
+        afterCommit(() -> {
+            Instant cutoff = Instant.now();
+            addCutoff(userId, cutoff);
+            publishCutoff(userId, cutoff);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Nạp lại từ DB và dựng Bloom filter mới, bỏ các jti đã hết hạn (Bloom filter không xóa được phần tử).
+     */
+    public void rebuild() {
+        Instant now = Instant.now();
+        Map<String, Instant> loaded = new ConcurrentHashMap<>();
+        for (InvalidatedToken token : invalidedTokenRepository.findAllByExpiryTimeAfter(Date.from(now))) {
+            loaded.put(token.getId(), token.getExpiryTime().toInstant());
+        }
+
+        synchronized (this) {
+            // Giữ các jti nhận qua pub/sub trong lúc đang query
+            revoked.forEach((jti, expiresAt) -> {
+                if (!Instant.MAX.equals(expiresAt) && expiresAt.isAfter(now)) {
+                    loaded.putIfAbsent(jti, expiresAt);
+                }
+            });
+            BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, loaded.size()), falsePositiveRate);
+            loaded.keySet().forEach(filter::put);
+
+            // Gán filter mới trước khi thu gọn map để không có lúc nào jti đã thu hồi bị coi là hợp lệ
+            bloomFilter = filter;
+            revoked.keySet().retainAll(loaded.keySet());
+            revoked.putAll(loaded);
+            notRevoked.invalidateAll();
+        }
+        rebuildUserCutoffs(now);
+        log.debug(
+                "Token revocation registry rebuilt with {} entries and {} user cutoffs",
+                loaded.size(),
+                userCutoffs.size());
+    }
+
+    private void rebuildUserCutoffs(Instant now) {
+        // Token phát hành trước mốc này đã hết hạn, mốc không còn tác dụng
+        Instant horizon = now.minus(accessTokenTtl);
+        try {
+            List<Object> expired = new ArrayList<>();
+            redisTemplate.opsForHash().entries(USER_CUTOFFS_KEY).forEach((userId, cutoffMillis) -> {
+                Instant cutoff = Instant.ofEpochMilli(Long.parseLong(cutoffMillis.toString()));
+                if (cutoff.isBefore(horizon)) {
+                    expired.add(userId);
+                } else {
+                    userCutoffs.merge(Long.valueOf(userId.toString()), cutoff, TokenRevocationRegistry::later);
+                }
+            });
+            if (!expired.isEmpty()) {
+                redisTemplate.opsForHash().delete(USER_CUTOFFS_KEY, expired.toArray());
+            }
+        } catch (Exception e) {
+            // Giữ các mốc đã có trong bộ nhớ; lần rebuild sau thử lại
+            log.warn("⚠️ Failed to load user token cutoffs: {}", e.getMessage());
+        }
+        userCutoffs.values().removeIf(cutoff -> cutoff.isBefore(horizon));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (payload.startsWith(USER_PREFIX)) {
+            onUserCutoff(payload);
+            return;
+        }
+        int separatorIndex = payload.indexOf(SEPARATOR);
+        if (separatorIndex <= 0) {
+            log.warn("⚠️ Ignoring malformed token revocation message: {}", payload);
+            return;
+        }
+        try {
+            add(
+                    payload.substring(separatorIndex + 1),
+                    Instant.ofEpochMilli(Long.parseLong(payload.substring(0, separatorIndex))));
+        } catch (NumberFormatException e) {
+            log.warn("⚠️ Ignoring malformed token revocation message: {}", payload);
+        }
+    }
+
+    // user:<userId>:<mốc, epoch millis>
+    private void onUserCutoff(String payload) {
+        String[] parts = payload.split(SEPARATOR);
+        try {
+            addCutoff(Long.valueOf(parts[1]), Instant.ofEpochMilli(Long.parseLong(parts[2])));
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            log.warn("⚠️ Ignoring malformed token revocation message: {}", payload);
+        }
+    }
+
+    private void addCutoff(Long userId, Instant cutoff) {
+        userCutoffs.merge(userId, cutoff, TokenRevocationRegistry::later);
+        eventPublisher.publishEvent(new UserTokensRevokedEvent(this, userId));
+    }
+
+    private static Instant later(Instant a, Instant b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private void add(String jti, Instant expiresAt) {
+        synchronized (this) {
+            revoked.put(jti, expiresAt);
+            bloomFilter.put(jti);
+            notRevoked.invalidate(jti);
+        }
+        eventPublisher.publishEvent(new TokenRevokedEvent(this, jti));
+    }
+
+    private void publish(String jti, Instant expiresAt) {
+        try {
+            redisTemplate.convertAndSend(channel, expiresAt.toEpochMilli() + SEPARATOR + jti);
+        } catch (Exception e) {
+            // Node khác chỉ thấy jti này ở lần rebuild kế tiếp
+            log.warn("⚠️ Failed to publish token revocation for {}: {}", jti, e.getMessage());
+        }
+    }
+
+    private void publishCutoff(Long userId, Instant cutoff) {
+        try {
+            redisTemplate.opsForHash().put(USER_CUTOFFS_KEY, userId.toString(), String.valueOf(cutoff.toEpochMilli()));
+            redisTemplate.convertAndSend(channel, USER_PREFIX + userId + SEPARATOR + cutoff.toEpochMilli());
+        } catch (Exception e) {
+            // Node khác chỉ thấy mốc này ở lần rebuild kế tiếp (nếu đã ghi được vào Redis)
+            log.warn("⚠️ Failed to publish token cutoff for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
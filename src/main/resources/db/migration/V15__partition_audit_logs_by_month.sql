@@ -0,0 +1,91 @@
+-- V15__partition_audit_logs_by_month.sql
+-- Chuyển audit_logs sang bảng phân vùng (declarative partitioning) theo tháng trên cột "timestamp".
+-- Retention = DROP partition thay vì DELETE, truy vấn theo khoảng thời gian chỉ quét các partition liên quan.
+
+-- Step 1: Đổi tên bảng cũ, bỏ identity + index cũ để giải phóng tên
+ALTER TABLE audit_logs RENAME TO audit_logs_legacy;
+ALTER TABLE audit_logs_legacy ALTER COLUMN id DROP IDENTITY IF EXISTS;
+DROP INDEX IF EXISTS idx_audit_logs_actor_id;
+DROP INDEX IF EXISTS idx_audit_logs_entity_type_id;
+DROP INDEX IF EXISTS idx_audit_logs_timestamp;
+
+-- Step 2: Bảng cha phân vùng. Khóa chính phải chứa cột phân vùng.
+CREATE SEQUENCE IF NOT EXISTS audit_logs_id_seq AS BIGINT;
+
+CREATE TABLE audit_logs (
+    id BIGINT NOT NULL DEFAULT nextval('audit_logs_id_seq'),
+    actor_id BIGINT NOT NULL,
+    action_type VARCHAR(255) NOT NULL,
+    entity_type VARCHAR(255) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    details TEXT,
+    "timestamp" TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, "timestamp")
+) PARTITION BY RANGE ("timestamp");
+
+ALTER SEQUENCE audit_logs_id_seq OWNED BY audit_logs.id;
+
+-- Partition mặc định: chỉ là lưới an toàn, scheduler luôn tạo trước các partition tháng tới
+CREATE TABLE IF NOT EXISTS audit_logs_default PARTITION OF audit_logs DEFAULT;
+
+-- Step 3: Hàm tạo partition cho một tháng (idempotent), trả về tên partition
+CREATE OR REPLACE FUNCTION audit_logs_ensure_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::date;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name TEXT := 'audit_logs_' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+            v_name, v_start, v_end);
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 4: Hàm retention: drop toàn bộ partition tháng có ngày bắt đầu < p_month
+CREATE OR REPLACE FUNCTION audit_logs_drop_partitions_before(p_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    v_cutoff DATE := date_trunc('month', p_month)::date;
+    v_partition RECORD;
+    v_dropped INTEGER := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname AS name
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = 'audit_logs'
+          AND c.relname ~ '^audit_logs_[0-9]{4}_[0-9]{2}$'
+    LOOP
+        IF to_date(substring(v_partition.name FROM 12), 'YYYY_MM') < v_cutoff THEN
+            EXECUTE format('DROP TABLE IF EXISTS %I', v_partition.name);
+            v_dropped := v_dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN v_dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 5: Tạo partition cho dữ liệu cũ và vài tháng tới, sau đó chép dữ liệu sang
+DO $$
+DECLARE
+    v_month DATE := date_trunc('month', COALESCE((SELECT min("timestamp") FROM audit_logs_legacy), now()))::date;
+BEGIN
+    WHILE v_month <= (date_trunc('month', now()) + INTERVAL '2 month')::date LOOP
+        PERFORM audit_logs_ensure_partition(v_month);
+        v_month := (v_month + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs (id, actor_id, action_type, entity_type, entity_id, details, "timestamp")
+SELECT id, actor_id, action_type, entity_type, entity_id, details, "timestamp"
+FROM audit_logs_legacy;
+
+SELECT setval('audit_logs_id_seq', COALESCE((SELECT max(id) FROM audit_logs), 0) + 1, false);
+
+DROP TABLE audit_logs_legacy;
+
+-- Step 6: Index cho keyset pagination (timestamp DESC, id DESC), tự động tạo trên từng partition
+CREATE INDEX IF NOT EXISTS idx_audit_logs_actor_ts ON audit_logs (actor_id, "timestamp" DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_entity_ts ON audit_logs (entity_type, entity_id, "timestamp" DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_logs_ts ON audit_logs ("timestamp" DESC, id DESC);
@@ -0,0 +1,5 @@
+-- Diff có cấu trúc {field: [old, new]} cho mỗi audit log
+ALTER TABLE audit_logs ADD COLUMN changes JSONB;
+
+-- jsonb_ops (không dùng jsonb_path_ops) để index cả key, phục vụ truy vấn "mọi thay đổi của field X"
+CREATE INDEX idx_audit_logs_changes ON audit_logs USING GIN (changes jsonb_ops);
@@ -0,0 +1,2 @@
+-- Thay đổi từ job nền / hệ thống không có người dùng đăng nhập
+ALTER TABLE audit_logs ALTER COLUMN actor_id DROP NOT NULL;
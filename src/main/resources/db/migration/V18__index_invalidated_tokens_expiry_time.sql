@@ -0,0 +1,5 @@
+-- V1 vô tình đặt UNIQUE trên expiry_time: hai lần logout trong cùng millisecond sẽ va chạm.
+-- Thay bằng index thường phục vụ job purge (quét theo keyset (expiry_time, id)).
+ALTER TABLE invalidated_tokens DROP CONSTRAINT IF EXISTS invalidated_tokens_expiry_time_key;
+
+CREATE INDEX IF NOT EXISTS idx_invalidated_tokens_expiry_time ON invalidated_tokens (expiry_time, id);
@@ -0,0 +1,5 @@
+-- Khóa hội thoại riêng chuẩn hóa (LEAST, GREATEST): một cặp user dù ai gửi cũng ra cùng một khóa.
+-- Phục vụ DISTINCT ON của danh sách hội thoại và lịch sử chat riêng (ORDER BY created_at DESC, id DESC).
+CREATE INDEX IF NOT EXISTS idx_chat_messages_pair
+    ON chat_messages (LEAST(sender_id, receiver_id), GREATEST(sender_id, receiver_id), created_at DESC, id DESC)
+    WHERE receiver_id IS NOT NULL;
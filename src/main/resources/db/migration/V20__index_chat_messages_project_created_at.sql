@@ -0,0 +1,6 @@
+-- Tin nhắn mới nhất của một project (LATERAL ... ORDER BY created_at DESC, id DESC LIMIT 1) đọc đúng một entry.
+-- Index cũ chỉ theo project_id bị bao bởi index mới nên bỏ đi.
+CREATE INDEX IF NOT EXISTS idx_chat_messages_project_created_at
+    ON chat_messages (project_id, created_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_chat_messages_project_id;
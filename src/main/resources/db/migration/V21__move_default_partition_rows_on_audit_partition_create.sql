@@ -0,0 +1,64 @@
+-- Partition DEFAULT của audit_logs vẫn giữ làm lưới an toàn, nhưng khi nó đã chứa dòng của một tháng thì
+-- CREATE TABLE ... PARTITION OF ... FOR VALUES cho tháng đó bị Postgres từ chối.
+-- audit_logs_ensure_partition: detach DEFAULT, tạo partition tháng, chuyển các dòng của tháng đó sang rồi attach lại.
+-- audit_logs_drop_partitions_before: ngoài drop partition tháng cũ còn xóa các dòng cũ nằm trong DEFAULT.
+
+CREATE OR REPLACE FUNCTION audit_logs_ensure_partition(p_month DATE) RETURNS TEXT AS $$
+DECLARE
+    v_start DATE := date_trunc('month', p_month)::date;
+    v_end DATE := (date_trunc('month', p_month) + INTERVAL '1 month')::date;
+    v_name TEXT := 'audit_logs_' || to_char(v_start, 'YYYY_MM');
+BEGIN
+    IF to_regclass(v_name) IS NOT NULL THEN
+        RETURN v_name;
+    END IF;
+
+    IF to_regclass('audit_logs_default') IS NOT NULL
+       AND EXISTS (SELECT 1 FROM audit_logs_default WHERE "timestamp" >= v_start AND "timestamp" < v_end) THEN
+        -- Chặn ghi vào audit_logs tới hết transaction để không có dòng nào rơi vào khoảng trống khi DEFAULT bị detach
+        LOCK TABLE audit_logs IN ACCESS EXCLUSIVE MODE;
+        ALTER TABLE audit_logs DETACH PARTITION audit_logs_default;
+        EXECUTE format(
+                'CREATE TABLE %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                v_name, v_start, v_end);
+        INSERT INTO audit_logs (id, actor_id, action_type, entity_type, entity_id, details, "timestamp", changes)
+        SELECT id, actor_id, action_type, entity_type, entity_id, details, "timestamp", changes
+        FROM audit_logs_default
+        WHERE "timestamp" >= v_start AND "timestamp" < v_end;
+        DELETE FROM audit_logs_default WHERE "timestamp" >= v_start AND "timestamp" < v_end;
+        ALTER TABLE audit_logs ATTACH PARTITION audit_logs_default DEFAULT;
+    ELSE
+        EXECUTE format(
+                'CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                v_name, v_start, v_end);
+    END IF;
+    RETURN v_name;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION audit_logs_drop_partitions_before(p_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    v_cutoff DATE := date_trunc('month', p_month)::date;
+    v_partition RECORD;
+    v_dropped INTEGER := 0;
+BEGIN
+    FOR v_partition IN
+        SELECT c.relname AS name
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        JOIN pg_class p ON p.oid = i.inhparent
+        WHERE p.relname = 'audit_logs'
+          AND c.relname ~ '^audit_logs_[0-9]{4}_[0-9]{2}$'
+    LOOP
+        IF to_date(substring(v_partition.name FROM 12), 'YYYY_MM') < v_cutoff THEN
+            EXECUTE format('DROP TABLE IF EXISTS %I', v_partition.name);
+            v_dropped := v_dropped + 1;
+        END IF;
+    END LOOP;
+
+    IF to_regclass('audit_logs_default') IS NOT NULL THEN
+        DELETE FROM audit_logs_default WHERE "timestamp" < v_cutoff;
+    END IF;
+    RETURN v_dropped;
+END;
+$$ LANGUAGE plpgsql;
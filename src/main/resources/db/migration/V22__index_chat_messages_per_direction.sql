@@ -0,0 +1,11 @@
+-- Danh sách hội thoại tách hai chiều (user gửi / user nhận) rồi UNION ALL: mỗi nhánh đọc một index đã sắp theo
+-- (đối phương, created_at DESC, id DESC) nên Postgres ghép hai nhánh bằng Merge Append, DISTINCT ON không phải sort.
+CREATE INDEX IF NOT EXISTS idx_chat_messages_sender_receiver
+    ON chat_messages (sender_id, receiver_id, created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_receiver_sender
+    ON chat_messages (receiver_id, sender_id, created_at DESC, id DESC);
+
+-- Index một cột cũ là tiền tố của hai index trên (vẫn phục vụ khóa ngoại) nên bỏ đi.
+DROP INDEX IF EXISTS idx_chat_messages_sender_id;
+DROP INDEX IF EXISTS idx_chat_messages_receiver_id;
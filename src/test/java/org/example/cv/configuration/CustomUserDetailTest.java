@@ -0,0 +1,60 @@
+package org.example.cv.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.text.ParseException;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+class CustomUserDetailTest {
+
+    @Test
+    @DisplayName("fromClaims dựng principal từ sub, userId và scope")
+    void fromClaims_MapsClaims() throws ParseException {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("johndoe")
+                .claim("userId", 1L)
+                .claim("scope", " ROLE_ADMIN  ROLE_USER ")
+                .build();
+
+        CustomUserDetail principal = CustomUserDetail.fromClaims(claims);
+
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(principal.getUsername()).isEqualTo("johndoe");
+        assertThat(principal.getPassword()).isEmpty();
+        assertThat(principal.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("fromClaims: không có scope thì không có authority, không có userId thì id null")
+    void fromClaims_MissingClaims() throws ParseException {
+        CustomUserDetail noScope = CustomUserDetail.fromClaims(
+                new JWTClaimsSet.Builder().subject("johndoe").build());
+        CustomUserDetail blankScope = CustomUserDetail.fromClaims(new JWTClaimsSet.Builder()
+                .subject("johndoe")
+                .claim("scope", " ")
+                .build());
+
+        assertThat(noScope.getId()).isNull();
+        assertThat(noScope.getAuthorities()).isEmpty();
+        assertThat(blankScope.getAuthorities()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("fromClaims: claim sai kiểu ném ParseException")
+    void fromClaims_RejectsMalformedClaims() {
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .subject("johndoe")
+                .claim("userId", "not-a-number")
+                .build();
+
+        assertThatThrownBy(() -> CustomUserDetail.fromClaims(claims)).isInstanceOf(ParseException.class);
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.cv.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.text.ParseException;
+import java.util.List;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.example.cv.services.JwtTokenService;
+import org.example.cv.services.JwtTokenService.VerifiedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+class JwtAuthenticationFilterTest {
+
+    private static final JWTClaimsSet CLAIMS =
+            new JWTClaimsSet.Builder().subject("johndoe").claim("userId", 1L).build();
+
+    private JwtTokenService jwtTokenService;
+    private PrincipalCache principalCache;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenService = mock(JwtTokenService.class);
+        principalCache = mock(PrincipalCache.class);
+        filter = new JwtAuthenticationFilter(jwtTokenService, principalCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockFilterChain doFilter(String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return chain;
+    }
+
+    @Test
+    @DisplayName("Token hợp lệ: principal từ claims đã verify được đưa vào SecurityContext")
+    void validToken_SetsAuthentication() throws Exception {
+        CustomUserDetail principal =
+                new CustomUserDetail(1L, "johndoe", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        when(jwtTokenService.verify("token"))
+                .thenReturn(new VerifiedToken("token", new JWSHeader(JWSAlgorithm.HS512), CLAIMS));
+        when(principalCache.resolve(CLAIMS)).thenReturn(principal);
+
+        MockFilterChain chain = doFilter("Bearer token");
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isSameAs(principal);
+        assertThat(authentication.getAuthorities()).isEqualTo(principal.getAuthorities());
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Không có header Bearer: bỏ qua, không verify")
+    void missingHeader_PassesThrough() throws Exception {
+        MockFilterChain chain = doFilter("Basic abc");
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(jwtTokenService, principalCache);
+    }
+
+    @Test
+    @DisplayName("Token không hợp lệ hoặc bị thu hồi: request đi tiếp nhưng không được xác thực")
+    void invalidToken_LeavesContextEmpty() throws Exception {
+        when(jwtTokenService.verify("token")).thenThrow(new AppException(ErrorCode.UNAUTHENTICATED));
+
+        MockFilterChain chain = doFilter("Bearer token");
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(principalCache);
+    }
+
+    @Test
+    @DisplayName("User không còn tồn tại (fresh-roles): không được xác thực")
+    void deletedUser_LeavesContextEmpty() throws Exception {
+        when(jwtTokenService.verify("token"))
+                .thenReturn(new VerifiedToken("token", new JWSHeader(JWSAlgorithm.HS512), CLAIMS));
+        when(principalCache.resolve(any())).thenReturn(null);
+
+        MockFilterChain chain = doFilter("Bearer token");
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Claims sai kiểu: ném INVALID_TOKEN")
+    void malformedClaims_Throws() throws Exception {
+        when(jwtTokenService.verify("token"))
+                .thenReturn(new VerifiedToken("token", new JWSHeader(JWSAlgorithm.HS512), CLAIMS));
+        when(principalCache.resolve(any())).thenThrow(new ParseException("userId", 0));
+
+        assertThatThrownBy(() -> doFilter("Bearer token"))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.INVALID_TOKEN);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.cv.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.text.ParseException;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+
+class PrincipalCacheTest {
+
+    private static final JWTClaimsSet CLAIMS = new JWTClaimsSet.Builder()
+            .subject("johndoe")
+            .claim("userId", 1L)
+            .claim("scope", "ROLE_ADMIN")
+            .build();
+
+    private CustomUserDetailService customUserDetailService;
+
+    @BeforeEach
+    void setUp() {
+        customUserDetailService = mock(CustomUserDetailService.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private PrincipalCache principalCache(boolean freshRoles) {
+        return new PrincipalCache(customUserDetailService, freshRoles, 60, 100);
+    }
+
+    private static CustomUserDetail fromDb(String role) {
+        return new CustomUserDetail(1L, "johndoe", List.of(new SimpleGrantedAuthority(role)));
+    }
+
+    private static List<String> authorities(CustomUserDetail principal) {
+        return principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Mặc định principal dựng từ claims, không query DB")
+    void resolve_FromClaims() throws ParseException {
+        CustomUserDetail principal = principalCache(false).resolve(CLAIMS);
+
+        assertThat(principal.getId()).isEqualTo(1L);
+        assertThat(authorities(principal)).containsExactly("ROLE_ADMIN");
+        verifyNoInteractions(customUserDetailService);
+    }
+
+    @Test
+    @DisplayName("fresh-roles: role load từ DB và cache theo userId")
+    void resolve_FreshRoles_LoadsOnceFromDb() throws ParseException {
+        when(customUserDetailService.loadUserByUsername("johndoe")).thenReturn(fromDb("ROLE_USER"));
+        PrincipalCache principalCache = principalCache(true);
+
+        CustomUserDetail first = principalCache.resolve(CLAIMS);
+        CustomUserDetail second = principalCache.resolve(CLAIMS);
+
+        assertThat(authorities(first)).containsExactly("ROLE_USER");
+        assertThat(second).isSameAs(first);
+        verify(customUserDetailService, times(1)).loadUserByUsername("johndoe");
+    }
+
+    @Test
+    @DisplayName("fresh-roles: user không còn tồn tại thì trả về null")
+    void resolve_FreshRoles_DeletedUser() throws ParseException {
+        when(customUserDetailService.loadUserByUsername(any())).thenThrow(new UsernameNotFoundException("johndoe"));
+
+        assertThat(principalCache(true).resolve(CLAIMS)).isNull();
+    }
+
+    @Test
+    @DisplayName("invalidate ngoài transaction bỏ principal ngay")
+    void invalidate_ReloadsPrincipal() throws ParseException {
+        when(customUserDetailService.loadUserByUsername("johndoe"))
+                .thenReturn(fromDb("ROLE_ADMIN"), fromDb("ROLE_USER"));
+        PrincipalCache principalCache = principalCache(true);
+        principalCache.resolve(CLAIMS);
+
+        principalCache.invalidate(1L);
+
+        assertThat(authorities(principalCache.resolve(CLAIMS))).containsExactly("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("invalidate trong transaction chỉ bỏ principal sau khi commit")
+    void invalidate_WaitsForCommit() throws ParseException {
+        when(customUserDetailService.loadUserByUsername("johndoe"))
+                .thenReturn(fromDb("ROLE_ADMIN"), fromDb("ROLE_USER"));
+        PrincipalCache principalCache = principalCache(true);
+        principalCache.resolve(CLAIMS);
+        TransactionSynchronizationManager.initSynchronization();
+
+        principalCache.invalidate(1L);
+
+        assertThat(authorities(principalCache.resolve(CLAIMS))).containsExactly("ROLE_ADMIN");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(authorities(principalCache.resolve(CLAIMS))).containsExactly("ROLE_USER");
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.cv.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.example.cv.event.TokenRevokedEvent;
+import org.example.cv.event.UserTokensRevokedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+class WebSocketSessionRegistryTest {
+
+    private static final Instant LATER = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    private final WebSocketSessionRegistry registry = new WebSocketSessionRegistry(10, 64);
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+    }
+
+    private WebSocketSession open(String sessionId) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(sessionId);
+        when(session.isOpen()).thenReturn(true);
+        registry.connected(session);
+        return session;
+    }
+
+    private void revoke(String jti) {
+        registry.onTokenRevoked(new TokenRevokedEvent(this, jti));
+    }
+
+    @Test
+    @DisplayName("Phiên bị đóng khi token tới exp")
+    void expiry_ClosesSession() throws Exception {
+        WebSocketSession session = open("s1");
+
+        registry.authenticated("s1", 1L, "jti-1", Instant.now().plusMillis(50));
+
+        verify(session, timeout(2_000)).close(WebSocketSessionRegistry.TOKEN_EXPIRED);
+        assertThat(registry.activeSessions()).isZero();
+    }
+
+    @Test
+    @DisplayName("Thu hồi jti chỉ đóng các phiên dùng token đó")
+    void revokeEvent_ClosesSessionsOfJti() throws Exception {
+        WebSocketSession web = open("s1");
+        WebSocketSession tab = open("s2");
+        WebSocketSession mobile = open("s3");
+        registry.authenticated("s1", 1L, "jti-1", LATER);
+        registry.authenticated("s2", 1L, "jti-1", LATER);
+        registry.authenticated("s3", 1L, "jti-2", LATER);
+
+        revoke("jti-1");
+
+        verify(web).close(WebSocketSessionRegistry.TOKEN_REVOKED);
+        verify(tab).close(WebSocketSessionRegistry.TOKEN_REVOKED);
+        verify(mobile, never()).close(any(CloseStatus.class));
+        assertThat(registry.activeSessions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Ngắt kết nối gỡ phiên khỏi index và hủy hẹn giờ hết hạn")
+    void disconnect_CleansUpIndexes() throws Exception {
+        WebSocketSession session = open("s1");
+        registry.authenticated("s1", 1L, "jti-1", Instant.now().plusMillis(50));
+
+        registry.disconnected("s1");
+        revoke("jti-1");
+        Thread.sleep(200);
+
+        verify(session, never()).close(any(CloseStatus.class));
+        assertThat(registry.activeSessions()).isZero();
+    }
+
+    @Test
+    @DisplayName("Phiên cũ ngắt kết nối không làm mất index của phiên khác cùng token")
+    void disconnect_KeepsJtiOfOtherSessions() throws Exception {
+        open("s1");
+        WebSocketSession other = open("s2");
+        registry.authenticated("s1", 1L, "jti-1", LATER);
+        registry.authenticated("s2", 1L, "jti-1", LATER);
+
+        registry.disconnected("s1");
+        revoke("jti-1");
+
+        verify(other).close(WebSocketSessionRegistry.TOKEN_REVOKED);
+        assertThat(registry.activeSessions()).isZero();
+    }
+
+    @Test
+    @DisplayName("Thu hồi theo user đóng mọi phiên của user đó")
+    void userRevokeEvent_ClosesAllSessionsOfUser() throws Exception {
+        WebSocketSession web = open("s1");
+        WebSocketSession mobile = open("s2");
+        WebSocketSession otherUser = open("s3");
+        registry.authenticated("s1", 1L, "jti-1", LATER);
+        registry.authenticated("s2", 1L, "jti-2", LATER);
+        registry.authenticated("s3", 2L, "jti-3", LATER);
+
+        registry.onUserTokensRevoked(new UserTokensRevokedEvent(this, 1L));
+
+        verify(web).close(WebSocketSessionRegistry.TOKEN_REVOKED);
+        verify(mobile).close(WebSocketSessionRegistry.TOKEN_REVOKED);
+        verify(otherUser, never()).close(any(CloseStatus.class));
+        assertThat(registry.activeSessions()).isEqualTo(1);
+    }
+}
@@ -1,6 +1,7 @@
 package org.example.cv.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -8,6 +9,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import java.util.Date;
 
 import org.example.cv.controllers.AuthenticationController;
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
 import org.example.cv.exceptions.GlobalExceptionHandler;
 import org.example.cv.models.requests.AuthenticationRequest;
 import org.example.cv.models.requests.IntrospectRequest;
@@ -16,11 +19,13 @@ import org.example.cv.models.requests.RefreshRequest;
 import org.example.cv.models.responses.AuthenticationResponse;
 import org.example.cv.models.responses.IntrospectResponse;
 import org.example.cv.services.AuthenticationService;
+import org.example.cv.utils.security.LoginConcurrencyLimiter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
@@ -28,7 +33,6 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.nimbusds.jose.JOSEException;
 
 @ExtendWith(MockitoExtension.class)
 @TestPropertySource("./test.properties")
@@ -37,6 +41,9 @@ class AuthenticationControllerTest {
     @Mock
     private AuthenticationService authenticationService;
 
+    @Spy
+    private LoginConcurrencyLimiter loginConcurrencyLimiter = new LoginConcurrencyLimiter(2, 8);
+
     @InjectMocks
     private AuthenticationController authenticationController;
 
@@ -100,15 +107,16 @@ class AuthenticationControllerTest {
     }
 
     @Test
-    void testRefreshToken_ThrowsJOSEException() throws Exception {
+    void testRefreshToken_InvalidOrReusedToken_Returns401() throws Exception {
         RefreshRequest request = RefreshRequest.builder().token("invalid-token").build();
 
-        when(authenticationService.refreshToken(any(RefreshRequest.class))).thenThrow(new JOSEException("JOSE error"));
+        when(authenticationService.refreshToken(any(RefreshRequest.class)))
+                .thenThrow(new AppException(ErrorCode.UNAUTHENTICATED));
 
         mockMvc.perform(post("/auth/refresh")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isUnauthorized());
 
         verify(authenticationService, times(1)).refreshToken(any(RefreshRequest.class));
     }
@@ -129,15 +137,17 @@ class AuthenticationControllerTest {
     }
 
     @Test
-    void testLogout_ThrowsJOSEException() throws Exception {
+    void testLogout_InvalidToken() throws Exception {
         LogoutRequest request = LogoutRequest.builder().token("invalid-token").build();
 
-        doThrow(new JOSEException("JOSE error")).when(authenticationService).logout(any(LogoutRequest.class));
+        doThrow(new AppException(ErrorCode.UNAUTHENTICATED))
+                .when(authenticationService)
+                .logout(any(LogoutRequest.class));
 
         mockMvc.perform(post("/auth/logout")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isBadRequest());
+                .andExpect(status().isUnauthorized());
 
         verify(authenticationService, times(1)).logout(any(LogoutRequest.class));
     }
@@ -165,6 +175,25 @@ class AuthenticationControllerTest {
         verify(authenticationService, times(1)).authenticate(any(AuthenticationRequest.class));
     }
 
+    @Test
+    void testAuthenticate_TooManyInFlight_Returns429() throws Exception {
+        AuthenticationRequest request = AuthenticationRequest.builder()
+                .username("john_doe")
+                .password("securePassword123")
+                .build();
+        doThrow(new AppException(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS))
+                .when(loginConcurrencyLimiter)
+                .acquire(eq("john_doe"), any());
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.code").value(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS.getCode()));
+
+        verify(authenticationService, never()).authenticate(any(AuthenticationRequest.class));
+    }
+
     @Test
     void testHandleGoogleCallback_Success() throws Exception {
         mockMvc.perform(get("/auth/login/oauth2/code/google")
@@ -0,0 +1,139 @@
+package org.example.cv.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.cv.configuration.CustomUserDetail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class AuditContextTest {
+
+    @Mock
+    private ApplicationEventPublisher publisher;
+
+    @InjectMocks
+    private AuditContext auditContext;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(auditContext);
+        SecurityContextHolder.clearContext();
+    }
+
+    private AuditEntry entry(long entityId) {
+        return new AuditEntry("TASK", entityId, "UPDATE", null, null, 7L, Instant.now());
+    }
+
+    private void complete(int status) {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(s -> s.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("record ngoài transaction: phát event ngay")
+    void record_withoutTransaction_publishesImmediately() {
+        auditContext.record(entry(1L));
+
+        ArgumentCaptor<AuditLogEvent> captor = ArgumentCaptor.forClass(AuditLogEvent.class);
+        verify(publisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getEntries())
+                .extracting(AuditEntry::entityId)
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("record trong transaction: gom mọi thay đổi, phát một event sau commit")
+    void record_inTransaction_publishesOnceAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        auditContext.record(entry(1L));
+        auditContext.record(entry(2L));
+        verifyNoInteractions(publisher);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        ArgumentCaptor<AuditLogEvent> captor = ArgumentCaptor.forClass(AuditLogEvent.class);
+        verify(publisher).publishEvent(captor.capture());
+        assertThat(captor.getValue().getEntries())
+                .extracting(AuditEntry::entityId)
+                .containsExactly(1L, 2L);
+        assertThat(TransactionSynchronizationManager.hasResource(auditContext)).isFalse();
+    }
+
+    @Test
+    @DisplayName("record trong transaction bị rollback: không phát event")
+    void record_rolledBack_publishesNothing() {
+        TransactionSynchronizationManager.initSynchronization();
+        auditContext.record(entry(1L));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(publisher);
+        assertThat(TransactionSynchronizationManager.hasResource(auditContext)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Transaction REQUIRES_NEW lồng bên trong: mỗi transaction phát đúng các thay đổi của nó")
+    void record_suspendedTransaction_keepsEntriesSeparate() {
+        TransactionSynchronizationManager.initSynchronization();
+        auditContext.record(entry(1L));
+
+        // Suspend transaction ngoài như AbstractPlatformTransactionManager.suspend
+        List<TransactionSynchronization> outer = TransactionSynchronizationManager.getSynchronizations();
+        outer.forEach(TransactionSynchronization::suspend);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        auditContext.record(entry(2L));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        TransactionSynchronizationManager.initSynchronization();
+        outer.forEach(synchronization -> {
+            synchronization.resume();
+            TransactionSynchronizationManager.registerSynchronization(synchronization);
+        });
+        auditContext.record(entry(3L));
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        ArgumentCaptor<AuditLogEvent> captor = ArgumentCaptor.forClass(AuditLogEvent.class);
+        verify(publisher, times(2)).publishEvent(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(event ->
+                        event.getEntries().stream().map(AuditEntry::entityId).toList())
+                .containsExactly(List.of(2L), List.of(1L, 3L));
+    }
+
+    @Test
+    @DisplayName("Actor lấy từ SecurityContext, null khi không có người dùng (job nền)")
+    void currentActorId_FromSecurityContext() {
+        assertThat(auditContext.currentActorId()).isNull();
+
+        CustomUserDetail principal = new CustomUserDetail(7L, "johndoe", List.of());
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+
+        assertThat(auditContext.currentActorId()).isEqualTo(7L);
+    }
+}
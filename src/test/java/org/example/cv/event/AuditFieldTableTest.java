@@ -0,0 +1,130 @@
+package org.example.cv.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AuditFieldTableTest {
+
+    private enum Status {
+        TODO,
+        DONE
+    }
+
+    private record Owner(Long id) {}
+
+    private static final String[] NAMES = {"title", "status", "dueDate", "owner", "members", "updatedAt"};
+
+    private SharedSessionContractImplementor session;
+    private AuditFieldTable table;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(SharedSessionContractImplementor.class);
+        EntityPersister ownerPersister = mock(EntityPersister.class);
+        when(session.getEntityPersister(isNull(), any(Owner.class))).thenReturn(ownerPersister);
+        when(ownerPersister.getIdentifier(any(Owner.class), eq(session)))
+                .thenAnswer(invocation -> invocation.<Owner>getArgument(0).id());
+
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getPropertyNames()).thenReturn(NAMES);
+        Type[] types = {
+            basic(String.class), basic(Status.class), basic(Instant.class), entity(), collection(), basic(Instant.class)
+        };
+        when(persister.getPropertyTypes()).thenReturn(types);
+        table = AuditFieldTable.of(persister, Set.of("updatedAt"));
+    }
+
+    private static Type basic(Class<?> javaType) {
+        Type type = mock(Type.class);
+        doReturn(javaType).when(type).getReturnedClass();
+        return type;
+    }
+
+    private static Type entity() {
+        Type type = mock(Type.class);
+        when(type.isEntityType()).thenReturn(true);
+        return type;
+    }
+
+    private static Type collection() {
+        Type type = mock(Type.class);
+        when(type.isCollectionType()).thenReturn(true);
+        return type;
+    }
+
+    private static int[] allIndexes() {
+        return new int[] {0, 1, 2, 3, 4, 5};
+    }
+
+    @Test
+    @DisplayName("Mỗi field được chuẩn hóa theo renderer: enum -> name, thời gian -> ISO, association -> id")
+    void diff_RendersValuesPerField() {
+        Instant due = Instant.parse("2025-11-01T10:00:00Z");
+        Object[] oldState = {"Old", Status.TODO, null, new Owner(1L), List.of(), Instant.EPOCH};
+        Object[] state = {"New", Status.DONE, due, new Owner(2L), List.of("x"), Instant.now()};
+
+        Map<String, List<Object>> changes = table.diff(oldState, state, allIndexes(), session);
+
+        assertThat(changes)
+                .containsExactly(
+                        Map.entry("title", List.of("Old", "New")),
+                        Map.entry("status", List.of("TODO", "DONE")),
+                        Map.entry("dueDate", Arrays.asList(null, "2025-11-01T10:00:00Z")),
+                        Map.entry("owner", List.of(1L, 2L)));
+    }
+
+    @Test
+    @DisplayName("Collection và field bị bỏ qua không được audit")
+    void diff_SkipsCollectionsAndIgnoredFields() {
+        Object[] oldState = {"Same", Status.TODO, null, null, List.of(), Instant.EPOCH};
+        Object[] state = {"Same", Status.TODO, null, null, List.of("x"), Instant.now()};
+
+        assertThat(table.diff(oldState, state, new int[] {4, 5}, session)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Field dirty nhưng giá trị sau chuẩn hóa không đổi (cùng id association) bị bỏ qua")
+    void diff_SkipsUnchangedRenderedValues() {
+        Object[] oldState = {"Same", Status.TODO, null, new Owner(1L), List.of(), Instant.EPOCH};
+        Object[] state = {"Same", Status.TODO, null, new Owner(1L), List.of(), Instant.EPOCH};
+
+        assertThat(table.diff(oldState, state, allIndexes(), session)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Chỉ xét các property index được đánh dấu dirty")
+    void diff_OnlyDirtyIndexes() {
+        Object[] oldState = {"Old", Status.TODO, null, null, List.of(), Instant.EPOCH};
+        Object[] state = {"New", Status.DONE, null, null, List.of(), Instant.EPOCH};
+
+        assertThat(table.diff(oldState, state, new int[] {1}, session))
+                .containsOnlyKeys("status")
+                .containsEntry("status", List.of("TODO", "DONE"));
+    }
+
+    @Test
+    @DisplayName("Bảng dựng tay: renderer null thì không audit, IDENTITY giữ nguyên giá trị")
+    void of_ExplicitRenderers() {
+        AuditFieldTable explicit = AuditFieldTable.of(
+                new String[] {"count", "secret"},
+                new AuditFieldTable.ValueRenderer[] {(value, ignored) -> value, null});
+
+        Map<String, List<Object>> changes =
+                explicit.diff(new Object[] {1, "a"}, new Object[] {2, "b"}, new int[] {0, 1}, session);
+
+        assertThat(changes).containsExactly(Map.entry("count", List.of(1, 2)));
+    }
+}
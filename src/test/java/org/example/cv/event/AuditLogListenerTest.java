@@ -0,0 +1,190 @@
+package org.example.cv.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogListenerTest {
+
+    private static final String[] NAMES = {"title", "description", "members", "updatedAt"};
+
+    private record Task(Long id) implements Auditable {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getEntityType() {
+            return "TASK";
+        }
+    }
+
+    @Mock
+    private AuditContext auditContext;
+
+    @Mock
+    private EventSource session;
+
+    @InjectMocks
+    private AuditLogListener listener;
+
+    private EntityPersister persister;
+
+    @BeforeEach
+    void setUp() {
+        persister = mock(EntityPersister.class);
+        lenient().when(auditContext.currentActorId()).thenReturn(7L);
+    }
+
+    private void stubPersister() {
+        Type[] types = {basic(String.class), basic(String.class), collection(), basic(Instant.class)};
+        when(persister.getEntityName()).thenReturn("Task");
+        when(persister.getPropertyNames()).thenReturn(NAMES);
+        when(persister.getPropertyTypes()).thenReturn(types);
+    }
+
+    private static Type basic(Class<?> javaType) {
+        Type type = mock(Type.class);
+        lenient().doReturn(javaType).when(type).getReturnedClass();
+        return type;
+    }
+
+    private static Type collection() {
+        Type type = mock(Type.class);
+        when(type.isCollectionType()).thenReturn(true);
+        return type;
+    }
+
+    private PostUpdateEvent update(Object entity, Object[] state, Object[] oldState, int[] dirty) {
+        PostUpdateEvent event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(entity);
+        lenient().when(event.getPersister()).thenReturn(persister);
+        lenient().when(event.getState()).thenReturn(state);
+        lenient().when(event.getOldState()).thenReturn(oldState);
+        lenient().when(event.getDirtyProperties()).thenReturn(dirty);
+        lenient().when(event.getSession()).thenReturn(session);
+        return event;
+    }
+
+    private AuditEntry recorded() {
+        ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(auditContext).record(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    @DisplayName("Update: diff giữa loaded-state và state mới, chỉ field dirty thực sự đổi giá trị")
+    void onPostUpdate_RecordsDiffOfDirtyFields() {
+        stubPersister();
+        Object[] oldState = {"Old", "Same", List.of(), Instant.EPOCH};
+        Object[] state = {"New", "Same", List.of("x"), Instant.now()};
+
+        listener.onPostUpdate(update(new Task(1L), state, oldState, new int[] {0, 1, 2, 3}));
+
+        AuditEntry entry = recorded();
+        assertThat(entry.action()).isEqualTo("UPDATE");
+        assertThat(entry.entityType()).isEqualTo("TASK");
+        assertThat(entry.entityId()).isEqualTo(1L);
+        assertThat(entry.actorId()).isEqualTo(7L);
+        assertThat(entry.details()).isEqualTo("Changed: title");
+        assertThat(entry.changes()).containsExactly(Map.entry("title", List.of("Old", "New")));
+    }
+
+    @Test
+    @DisplayName("Update không có dirty properties từ Hibernate: tự tính bằng persister.findDirty")
+    void onPostUpdate_FindsDirtyWhenMissing() {
+        stubPersister();
+        Object[] oldState = {"Old", "Same", List.of(), null};
+        Object[] state = {"Old", "Changed", List.of(), null};
+        when(persister.findDirty(state, oldState, new Task(1L), session)).thenReturn(new int[] {1});
+
+        listener.onPostUpdate(update(new Task(1L), state, oldState, null));
+
+        assertThat(recorded().changes()).containsExactly(Map.entry("description", List.of("Same", "Changed")));
+    }
+
+    @Test
+    @DisplayName("Update chỉ đổi collection hoặc timestamp kỹ thuật: không ghi log")
+    void onPostUpdate_SkipsCollectionsAndIgnoredFields() {
+        stubPersister();
+        Object[] oldState = {"Same", "Same", List.of(), Instant.EPOCH};
+        Object[] state = {"Same", "Same", List.of("x"), Instant.now()};
+
+        listener.onPostUpdate(update(new Task(1L), state, oldState, new int[] {2, 3}));
+
+        verify(auditContext, never()).record(any());
+    }
+
+    @Test
+    @DisplayName("Update không có field dirty hoặc entity không Auditable: không ghi log")
+    void onPostUpdate_NothingToRecord() {
+        listener.onPostUpdate(update(new Task(1L), new Object[4], new Object[4], new int[0]));
+        listener.onPostUpdate(update("not auditable", new Object[4], new Object[4], new int[] {0}));
+
+        verify(auditContext, never()).record(any());
+    }
+
+    @Test
+    @DisplayName("Update không có loaded-state: vẫn ghi UPDATE nhưng không có diff")
+    void onPostUpdate_WithoutOldState() {
+        listener.onPostUpdate(update(new Task(1L), new Object[4], null, null));
+
+        AuditEntry entry = recorded();
+        assertThat(entry.action()).isEqualTo("UPDATE");
+        assertThat(entry.changes()).isNull();
+    }
+
+    @Test
+    @DisplayName("Bảng field được dựng một lần cho mỗi entity")
+    void onPostUpdate_CachesFieldTablePerEntity() {
+        stubPersister();
+        Object[] oldState = {"Old", "Same", List.of(), null};
+        Object[] state = {"New", "Same", List.of(), null};
+
+        listener.onPostUpdate(update(new Task(1L), state, oldState, new int[] {0}));
+        listener.onPostUpdate(update(new Task(2L), state, oldState, new int[] {0}));
+
+        verify(auditContext, times(2)).record(any());
+        verify(persister, times(1)).getPropertyNames();
+    }
+
+    @Test
+    @DisplayName("Insert ghi CREATE, delete ghi DELETE, không có diff")
+    void onPostInsertAndDelete_RecordActions() {
+        PostInsertEvent insert = mock(PostInsertEvent.class);
+        when(insert.getEntity()).thenReturn(new Task(1L));
+        PostDeleteEvent delete = mock(PostDeleteEvent.class);
+        when(delete.getEntity()).thenReturn(new Task(1L));
+
+        listener.onPostInsert(insert);
+        listener.onPostDelete(delete);
+
+        ArgumentCaptor<AuditEntry> captor = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(auditContext, times(2)).record(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(AuditEntry::action, AuditEntry::entityId, AuditEntry::changes)
+                .containsExactly(tuple("CREATE", 1L, null), tuple("DELETE", 1L, null));
+    }
+}
@@ -0,0 +1,139 @@
+package org.example.cv.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.cv.models.entities.AuditLogEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private AuditLogWriter writer(int batchSize, int maxAttempts) {
+        return new AuditLogWriter(
+                jdbcTemplate, new ObjectMapper(), meterRegistry, 100, batchSize, 60_000, 0, maxAttempts, 0);
+    }
+
+    private AuditLogEntity entry(long entityId) {
+        return AuditLogEntity.builder()
+                .actorId(7L)
+                .actionType("UPDATE")
+                .entityType("TASK")
+                .entityId(entityId)
+                .timestamp(Instant.parse("2025-11-01T10:00:00Z"))
+                .build();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    @DisplayName("stop: các bản ghi còn trong hàng đợi được ghi bằng một câu INSERT nhiều dòng")
+    void stop_drainsQueueInOneMultiRowInsert() {
+        AuditLogWriter writer = writer(10, 3);
+        writer.enqueue(entry(1L));
+        writer.enqueue(entry(2L));
+        writer.enqueue(entry(3L));
+
+        writer.stop();
+
+        verify(jdbcTemplate).update(argThat((String sql) -> sql.split("CAST").length - 1 == 3), any(Object[].class));
+        assertThat(counter("audit.log.written")).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("enqueue: hàng đợi đầy thì bỏ bản ghi và tăng dropped")
+    void enqueue_queueFull_dropsEntry() {
+        AuditLogWriter writer =
+                new AuditLogWriter(jdbcTemplate, new ObjectMapper(), meterRegistry, 1, 10, 60_000, 0, 3, 0);
+
+        assertThat(writer.enqueue(entry(1L))).isTrue();
+        assertThat(writer.enqueue(entry(2L))).isFalse();
+        assertThat(counter("audit.log.dropped")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("flush cuối sau khi flusher bị interrupt chạy với cờ interrupt đã xóa, rồi khôi phục cờ")
+    void stop_finalFlushRunsWithInterruptFlagCleared() throws Exception {
+        List<Boolean> interruptedDuringInsert = new ArrayList<>();
+        doAnswer(invocation -> {
+                    interruptedDuringInsert.add(Thread.currentThread().isInterrupted());
+                    return 1;
+                })
+                .when(jdbcTemplate)
+                .update(anyString(), any(Object[].class));
+        AuditLogWriter writer = writer(10, 3);
+        writer.enqueue(entry(1L));
+        writer.start();
+        // Đợi flusher lấy bản ghi khỏi hàng đợi để lần ghi xảy ra trên chính thread bị interrupt
+        while (meterRegistry.get("audit.log.queue.size").gauge().value() > 0) {
+            Thread.sleep(5);
+        }
+
+        writer.stop();
+
+        assertThat(interruptedDuringInsert).containsExactly(false);
+        assertThat(counter("audit.log.written")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("flush lỗi tạm thời thì thử lại và không mất bản ghi")
+    void flush_transientFailure_retries() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(2);
+        AuditLogWriter writer = writer(10, 3);
+        writer.enqueue(entry(1L));
+        writer.enqueue(entry(2L));
+
+        writer.stop();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        assertThat(counter("audit.log.written")).isEqualTo(2);
+        assertThat(counter("audit.log.failed")).isZero();
+    }
+
+    @Test
+    @DisplayName("flush lỗi sau max-attempts lần thì tăng failed và dừng thử lại")
+    void flush_persistentFailure_givesUpAfterMaxAttempts() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        AuditLogWriter writer = writer(10, 3);
+        writer.enqueue(entry(1L));
+        writer.enqueue(entry(2L));
+
+        writer.stop();
+
+        verify(jdbcTemplate, times(3)).update(anyString(), any(Object[].class));
+        assertThat(counter("audit.log.failed")).isEqualTo(2);
+        assertThat(counter("audit.log.written")).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.cv.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.example.cv.models.entities.AuditLogEntity;
+import org.example.cv.repositories.AuditLogRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Chạy truy vấn lịch sử field ({@code changes @> jsonb_build_object(:field, '[]')}) trên Postgres thật, schema dựng bằng
+ * Flyway. Database lấy từ TEST_DATASOURCE_URL / _USERNAME / _PASSWORD; bỏ qua nếu không kết nối được.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("postgresAvailable")
+class AuditLogRepositoryTest {
+
+    private static final String URL =
+            System.getenv().getOrDefault("TEST_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/cvdb_test");
+    private static final String USERNAME = System.getenv().getOrDefault("TEST_DATASOURCE_USERNAME", "postgres");
+    private static final String PASSWORD = System.getenv().getOrDefault("TEST_DATASOURCE_PASSWORD", "postgres");
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    private static final Instant FROM = NOW.minus(1, ChronoUnit.HOURS);
+    private static final Instant TO = NOW.plus(1, ChronoUnit.HOURS);
+
+    // Chỉ nạp JPA của AuditLogRepository, không kéo Feign / cache của CvApplication
+    @Configuration
+    @EntityScan(basePackageClasses = AuditLogEntity.class)
+    @EnableJpaRepositories(
+            basePackageClasses = AuditLogRepository.class,
+            includeFilters =
+                    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = AuditLogRepository.class))
+    static class JpaConfig {}
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> USERNAME);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    static boolean postgresAvailable() {
+        try (Connection ignored = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    private long entityId;
+
+    private AuditLogEntity log(long entityId, Map<String, List<Object>> changes, Instant timestamp) {
+        return auditLogRepository.saveAndFlush(AuditLogEntity.builder()
+                .actionType("UPDATE")
+                .entityType("TASK")
+                .entityId(entityId)
+                .changes(changes)
+                .timestamp(timestamp)
+                .build());
+    }
+
+    private List<Long> fieldChanges(String field, Instant cursorTimestamp, Long cursorId, int limit) {
+        return auditLogRepository
+                .findFieldChanges("TASK", entityId, field, FROM, TO, cursorTimestamp, cursorId, limit)
+                .stream()
+                .map(AuditLogEntity::getId)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("findFieldChanges: chỉ các log có key field ở cấp đầu của changes, mới nhất trước")
+    void findFieldChanges_MatchesTopLevelKey() {
+        entityId = System.nanoTime();
+        AuditLogEntity first = log(entityId, Map.of("status", List.of("TODO", "IN_PROGRESS")), NOW.minusSeconds(30));
+        log(entityId, Map.of("title", List.of("status", "renamed")), NOW.minusSeconds(20));
+        AuditLogEntity cleared =
+                log(entityId, Map.of("status", Arrays.asList("IN_PROGRESS", null)), NOW.minusSeconds(10));
+        log(entityId + 1, Map.of("status", List.of("TODO", "DONE")), NOW);
+        log(entityId, Map.of("status", List.of("TODO", "DONE")), FROM.minusSeconds(1));
+
+        assertThat(fieldChanges("status", TO, Long.MAX_VALUE, 10)).containsExactly(cleared.getId(), first.getId());
+        assertThat(fieldChanges("priority", TO, Long.MAX_VALUE, 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findFieldChanges: keyset theo (timestamp, id) và LIMIT, log cùng timestamp không bị bỏ sót")
+    void findFieldChanges_PagesByKeyset() {
+        entityId = System.nanoTime();
+        Map<String, List<Object>> change = Map.of("status", List.of("TODO", "DONE"));
+        AuditLogEntity older = log(entityId, change, NOW.minusSeconds(10));
+        AuditLogEntity lowerId = log(entityId, change, NOW);
+        AuditLogEntity higherId = log(entityId, change, NOW);
+
+        List<Long> firstPage = fieldChanges("status", TO, Long.MAX_VALUE, 2);
+        List<Long> secondPage = fieldChanges("status", NOW, lowerId.getId(), 2);
+
+        assertThat(firstPage).containsExactly(higherId.getId(), lowerId.getId());
+        assertThat(secondPage).containsExactly(older.getId());
+    }
+}
@@ -0,0 +1,204 @@
+package org.example.cv.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import jakarta.persistence.EntityManager;
+
+import org.example.cv.models.entities.ChatMessageEntity;
+import org.example.cv.models.responses.ChatMessageDTO;
+import org.example.cv.repositories.ChatMessageRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Chạy named native query trên Postgres thật (DISTINCT ON, LATERAL), schema dựng bằng Flyway. Database lấy từ
+ * TEST_DATASOURCE_URL / _USERNAME / _PASSWORD (mặc định localhost:5432/cvdb_test); bỏ qua nếu không kết nối được.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIf("postgresAvailable")
+class ChatMessageRepositoryTest {
+
+    private static final String URL =
+            System.getenv().getOrDefault("TEST_DATASOURCE_URL", "jdbc:postgresql://localhost:5432/cvdb_test");
+    private static final String USERNAME = System.getenv().getOrDefault("TEST_DATASOURCE_USERNAME", "postgres");
+    private static final String PASSWORD = System.getenv().getOrDefault("TEST_DATASOURCE_PASSWORD", "postgres");
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    // Chỉ nạp JPA của ChatMessageRepository, không kéo Feign / cache của CvApplication
+    @Configuration
+    @EntityScan(basePackageClasses = ChatMessageEntity.class)
+    @EnableJpaRepositories(
+            basePackageClasses = ChatMessageRepository.class,
+            includeFilters =
+                    @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ChatMessageRepository.class))
+    static class JpaConfig {}
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> URL);
+        registry.add("spring.datasource.username", () -> USERNAME);
+        registry.add("spring.datasource.password", () -> PASSWORD);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    static boolean postgresAvailable() {
+        try (Connection ignored = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long user(String username, String firstName, String lastName) {
+        return ((Number) entityManager
+                        .createNativeQuery(
+                                """
+								INSERT INTO users (username, password, first_name, last_name, email)
+								VALUES (:username, 'x', :firstName, :lastName, :username || '@example.com')
+								RETURNING id
+								""")
+                        .setParameter("username", username + "-" + System.nanoTime())
+                        .setParameter("firstName", firstName)
+                        .setParameter("lastName", lastName)
+                        .getSingleResult())
+                .longValue();
+    }
+
+    private void message(Long senderId, Long receiverId, Long projectId, String content, Instant createdAt) {
+        entityManager
+                .createNativeQuery(
+                        """
+						INSERT INTO chat_messages (sender_id, receiver_id, project_id, content, created_at)
+						VALUES (:senderId, CAST(:receiverId AS BIGINT), CAST(:projectId AS BIGINT), :content, :createdAt)
+						""")
+                .setParameter("senderId", senderId)
+                .setParameter("receiverId", receiverId)
+                .setParameter("projectId", projectId)
+                .setParameter("content", content)
+                .setParameter("createdAt", createdAt)
+                .executeUpdate();
+    }
+
+    @Test
+    @DisplayName("findConversations: mỗi đối phương một dòng với tin nhắn mới nhất của cả hai chiều")
+    void findConversations_LatestMessagePerPeer() {
+        Long me = user("me", "Me", null);
+        Long alice = user("alice", "Alice", "Nguyen");
+        Long bob = user("bob", null, null);
+        Long stranger = user("stranger", "Stranger", null);
+        message(me, alice, null, "hi alice", NOW.minusSeconds(50));
+        message(alice, me, null, "hi me", NOW.minusSeconds(10));
+        message(bob, me, null, "hi from bob", NOW.minusSeconds(30));
+        message(me, bob, null, "same time, lower id", NOW.minusSeconds(5));
+        message(bob, me, null, "same time, higher id", NOW.minusSeconds(5));
+        message(alice, stranger, null, "not mine", NOW);
+
+        List<ChatMessageDTO.ConversationDTO> conversations = chatMessageRepository.findConversations(me);
+
+        assertThat(conversations)
+                .extracting(
+                        ChatMessageDTO.ConversationDTO::getUserId,
+                        ChatMessageDTO.ConversationDTO::getName,
+                        ChatMessageDTO.ConversationDTO::getLastMessage,
+                        ChatMessageDTO.ConversationDTO::getLastMessageTime,
+                        ChatMessageDTO.ConversationDTO::getOnline)
+                .containsExactly(
+                        tuple(bob, usernameOf(bob), "same time, higher id", NOW.minusSeconds(5), false),
+                        tuple(alice, "Alice Nguyen", "hi me", NOW.minusSeconds(10), false));
+        assertThat(conversations.get(1).getEmail()).startsWith("alice-").endsWith("@example.com");
+    }
+
+    @Test
+    @DisplayName("findConversations: tin nhắn project không tạo hội thoại riêng")
+    void findConversations_IgnoresProjectMessages() {
+        Long me = user("me", "Me", null);
+        Long project = project("Project", me);
+        message(me, null, project, "to the team", NOW);
+
+        assertThat(chatMessageRepository.findConversations(me)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findProjectConversations: số thành viên và tin nhắn cuối, project chưa có tin xếp cuối")
+    void findProjectConversations_LatestMessagePerProject() {
+        Long me = user("me", "Me", null);
+        Long alice = user("alice", "Alice", null);
+        Long quiet = project("Quiet", me);
+        Long busy = project("Busy", me, alice);
+        Long deleted = project("Deleted", me);
+        Long notMine = project("Not mine", alice);
+        message(alice, null, busy, "older", NOW.minusSeconds(20));
+        message(me, null, busy, "same time, lower id", NOW.minusSeconds(10));
+        message(alice, null, busy, "same time, higher id", NOW.minusSeconds(10));
+        message(alice, null, notMine, "not mine", NOW);
+        message(me, null, deleted, "deleted", NOW);
+        entityManager
+                .createNativeQuery("UPDATE projects SET deleted_at = now() WHERE id = :id")
+                .setParameter("id", deleted)
+                .executeUpdate();
+
+        List<ChatMessageDTO.ProjectConversationDTO> conversations = chatMessageRepository.findProjectConversations(me);
+
+        assertThat(conversations)
+                .extracting(
+                        ChatMessageDTO.ProjectConversationDTO::getProjectId,
+                        ChatMessageDTO.ProjectConversationDTO::getProjectName,
+                        ChatMessageDTO.ProjectConversationDTO::getMemberCount,
+                        ChatMessageDTO.ProjectConversationDTO::getLastMessage,
+                        ChatMessageDTO.ProjectConversationDTO::getLastMessageTime)
+                .containsExactly(
+                        tuple(busy, "Busy", 2, "same time, higher id", NOW.minusSeconds(10)),
+                        tuple(quiet, "Quiet", 1, null, null));
+    }
+
+    private String usernameOf(Long userId) {
+        return (String) entityManager
+                .createNativeQuery("SELECT username FROM users WHERE id = :id")
+                .setParameter("id", userId)
+                .getSingleResult();
+    }
+
+    private Long project(String name, Long... memberIds) {
+        Long projectId = ((Number) entityManager
+                        .createNativeQuery(
+                                "INSERT INTO projects (name, owner_id) VALUES (:name, :ownerId) RETURNING id")
+                        .setParameter("name", name)
+                        .setParameter("ownerId", memberIds[0])
+                        .getSingleResult())
+                .longValue();
+        for (Long memberId : memberIds) {
+            entityManager
+                    .createNativeQuery("INSERT INTO project_members (project_id, user_id) VALUES (:projectId, :userId)")
+                    .setParameter("projectId", projectId)
+                    .setParameter("userId", memberId)
+                    .executeUpdate();
+        }
+        return projectId;
+    }
+}
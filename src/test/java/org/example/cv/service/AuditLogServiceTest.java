@@ -0,0 +1,113 @@
+package org.example.cv.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.example.cv.models.entities.AuditLogEntity;
+import org.example.cv.models.requests.AuditLogFilterRequest;
+import org.example.cv.models.responses.AuditLogResponse;
+import org.example.cv.models.responses.CursorPageResponse;
+import org.example.cv.repositories.AuditLogRepository;
+import org.example.cv.services.impl.AuditLogServiceImpl;
+import org.example.cv.utils.KeysetCursor;
+import org.example.cv.utils.mapper.AuditLogMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogServiceTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private AuditLogMapper auditLogMapper;
+
+    @InjectMocks
+    private AuditLogServiceImpl auditLogService;
+
+    private final Instant from = Instant.parse("2025-11-01T00:00:00Z");
+    private final Instant to = Instant.parse("2025-12-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(auditLogService, "defaultRangeDays", 30L);
+        ReflectionTestUtils.setField(auditLogService, "maxPageSize", 200);
+    }
+
+    private AuditLogEntity log(long id, Instant timestamp) {
+        return AuditLogEntity.builder().id(id).timestamp(timestamp).build();
+    }
+
+    @Test
+    @DisplayName("search: trang đầu tiên trả về nextCursor trỏ tới bản ghi cuối")
+    void search_firstPage_returnsNextCursor() {
+        AuditLogEntity first = log(3L, Instant.parse("2025-11-20T00:00:00Z"));
+        AuditLogEntity second = log(2L, Instant.parse("2025-11-10T00:00:00Z"));
+        AuditLogEntity extra = log(1L, Instant.parse("2025-11-05T00:00:00Z"));
+        when(auditLogRepository.search(
+                        isNull(), eq("TASK"), isNull(), eq(from), eq(to), eq(to), eq(Long.MAX_VALUE), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(first, second, extra));
+        when(auditLogMapper.toResponse(any())).thenReturn(new AuditLogResponse());
+
+        CursorPageResponse<AuditLogResponse> result =
+                auditLogService.search(new AuditLogFilterRequest(null, "TASK", null, from, to, null), 2);
+
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.hasNext()).isTrue();
+        KeysetCursor next = KeysetCursor.decode(result.nextCursor());
+        assertThat(next.id()).isEqualTo(2L);
+        assertThat(next.timestamp()).isEqualTo(second.getTimestamp());
+    }
+
+    @Test
+    @DisplayName("search: trang cuối không có nextCursor")
+    void search_lastPage_hasNoNextCursor() {
+        KeysetCursor cursor = new KeysetCursor(Instant.parse("2025-11-10T00:00:00Z"), 2L);
+        when(auditLogRepository.search(any(), any(), any(), any(), any(), eq(cursor.timestamp()), eq(2L), any()))
+                .thenReturn(List.of(log(1L, Instant.parse("2025-11-05T00:00:00Z"))));
+        when(auditLogMapper.toResponse(any())).thenReturn(new AuditLogResponse());
+
+        CursorPageResponse<AuditLogResponse> result =
+                auditLogService.search(new AuditLogFilterRequest(7L, null, null, from, to, cursor.encode()), 2);
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("search: from >= to thì ném INVALID_TIME_RANGE")
+    void search_invalidRange_throws() {
+        assertThatThrownBy(() -> auditLogService.search(new AuditLogFilterRequest(null, null, null, to, from, null), 10))
+                .isInstanceOf(AppException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.INVALID_TIME_RANGE);
+        verifyNoInteractions(auditLogRepository);
+    }
+
+    @Test
+    @DisplayName("search: cursor không hợp lệ thì ném INVALID_CURSOR")
+    void search_invalidCursor_throws() {
+        assertThatThrownBy(() ->
+                        auditLogService.search(new AuditLogFilterRequest(null, null, null, from, to, "not-a-cursor"), 10))
+                .isInstanceOf(AppException.class)
+                .extracting("errorCode")
+                .isEqualTo(ErrorCode.INVALID_CURSOR);
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.cv.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.text.ParseException;
+
+import org.example.cv.models.requests.RefreshRequest;
+import org.example.cv.models.responses.AuthenticationResponse;
+import org.example.cv.repositories.InvalidedTokenRepository;
+import org.example.cv.repositories.UserRepository;
+import org.example.cv.services.impl.AuthenticationServiceImpl;
+import org.example.cv.services.impl.JwtTokenServiceImpl;
+import org.example.cv.utils.security.RefreshTokenStore;
+import org.example.cv.utils.security.TokenRevocationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+class AuthenticationServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+    private static final long ONE_HOUR_MS = 3_600_000L;
+
+    private RefreshTokenStore refreshTokenStore;
+    private AuthenticationServiceImpl authenticationService;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        TokenRevocationRegistry tokenRevocationRegistry = mock(TokenRevocationRegistry.class);
+        refreshTokenStore = mock(RefreshTokenStore.class);
+        authenticationService = new AuthenticationServiceImpl(
+                mock(UserRepository.class),
+                mock(InvalidedTokenRepository.class),
+                null,
+                null,
+                null,
+                new JwtTokenServiceImpl(tokenRevocationRegistry, SECRET, 100),
+                tokenRevocationRegistry,
+                refreshTokenStore,
+                null);
+        ReflectionTestUtils.setField(authenticationService, "jwtExpiration", ONE_HOUR_MS);
+    }
+
+    @Test
+    @DisplayName("Access token sống đúng jwt.expiration (mili giây) kể từ iat")
+    void refreshToken_IssuesShortLivedAccessToken() throws ParseException {
+        when(refreshTokenStore.rotate("family.secret"))
+                .thenReturn(new RefreshTokenStore.RefreshSession(1L, "johndoe", "ROLE_USER", "family.next"));
+
+        AuthenticationResponse response = authenticationService.refreshToken(new RefreshRequest("family.secret"));
+
+        JWTClaimsSet claims = SignedJWT.parse(response.getToken()).getJWTClaimsSet();
+        // iat/exp trong JWT tính theo giây
+        long lifetimeMs = claims.getExpirationTime().getTime() - claims.getIssueTime().getTime();
+        assertThat(lifetimeMs).isBetween(ONE_HOUR_MS - 1_000, ONE_HOUR_MS + 1_000);
+        assertThat(response.getExpiryTime().getTime() / 1_000)
+                .isEqualTo(claims.getExpirationTime().getTime() / 1_000);
+        assertThat(response.getRefreshToken()).isEqualTo("family.next");
+    }
+}
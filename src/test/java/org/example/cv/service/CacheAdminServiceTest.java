@@ -0,0 +1,104 @@
+package org.example.cv.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.example.cv.models.responses.CacheEntryResponse;
+import org.example.cv.models.responses.CacheSummaryResponse;
+import org.example.cv.services.impl.CacheAdminServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class CacheAdminServiceTest {
+
+    private CaffeineCacheManager caffeineCacheManager;
+    private CacheAdminServiceImpl cacheAdminService;
+
+    @BeforeEach
+    void setUp() {
+        caffeineCacheManager = new CaffeineCacheManager("users");
+        caffeineCacheManager.setCaffeine(
+                Caffeine.newBuilder().expireAfterWrite(10, TimeUnit.MINUTES).recordStats());
+        cacheAdminService = new CacheAdminServiceImpl(Map.of("caffeineCacheManager", caffeineCacheManager), null);
+    }
+
+    @Test
+    @DisplayName("getCaches trả về hit / miss / size của Caffeine")
+    void getCaches_ReportsLocalStats() {
+        Cache users = caffeineCacheManager.getCache("users");
+        users.put(1L, "alice");
+        users.get(1L);
+        users.get(2L);
+
+        List<CacheSummaryResponse> caches = cacheAdminService.getCaches();
+
+        assertThat(caches).hasSize(1);
+        CacheSummaryResponse summary = caches.get(0);
+        assertThat(summary.type()).isEqualTo("caffeine");
+        assertThat(summary.ttlSeconds()).isEqualTo(600L);
+        assertThat(summary.levels().get(0).hits()).isEqualTo(1);
+        assertThat(summary.levels().get(0).misses()).isEqualTo(1);
+        assertThat(summary.levels().get(0).size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("sampleEntries trả về key, kiểu giá trị và tuổi của entry")
+    void sampleEntries_ReturnsKeyTypeAndAge() {
+        caffeineCacheManager.getCache("users").put(1L, "alice");
+
+        List<CacheEntryResponse> entries = cacheAdminService.sampleEntries("caffeineCacheManager", "users", 10);
+
+        assertThat(entries).singleElement().satisfies(entry -> {
+            assertThat(entry.key()).isEqualTo("1");
+            assertThat(entry.valueType()).isEqualTo("String");
+            assertThat(entry.ageMillis()).isNotNull();
+            assertThat(entry.ttlMillis()).isPositive();
+        });
+    }
+
+    @Test
+    @DisplayName("Cache không tồn tại -> CACHE_NOT_FOUND và không tạo cache mới")
+    void evict_UnknownCache_ThrowsCacheNotFound() {
+        assertThatThrownBy(() -> cacheAdminService.evict("caffeineCacheManager", "unknown", "1"))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.CACHE_NOT_FOUND);
+        assertThat(caffeineCacheManager.getCacheNames()).containsExactly("users");
+    }
+
+    @Test
+    @DisplayName("evict tìm key gốc (Long) từ key chuỗi của request và xóa entry")
+    void evict_ResolvesTypedKey() {
+        // UserServiceImpl cache theo #id (Long)
+        Cache users = caffeineCacheManager.getCache("users");
+        users.put(1L, "alice");
+        users.put(2L, "bob");
+
+        cacheAdminService.evict("caffeineCacheManager", "users", "1");
+
+        assertThat(users.get(1L)).isNull();
+        assertThat(users.get(2L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("evict key không có trong cache -> CACHE_ENTRY_NOT_FOUND")
+    void evict_UnknownKey_ThrowsCacheEntryNotFound() {
+        caffeineCacheManager.getCache("users").put(1L, "alice");
+
+        assertThatThrownBy(() -> cacheAdminService.evict("caffeineCacheManager", "users", "3"))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.CACHE_ENTRY_NOT_FOUND);
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.cv.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.example.cv.services.JwtTokenService.VerifiedToken;
+import org.example.cv.services.impl.JwtTokenServiceImpl;
+import org.example.cv.utils.security.TokenRevocationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jwt.JWTClaimsSet;
+
+class JwtTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    private JwtTokenServiceImpl jwtTokenService;
+
+    @BeforeEach
+    void setUp() throws JOSEException {
+        tokenRevocationRegistry = mock(TokenRevocationRegistry.class);
+        jwtTokenService = new JwtTokenServiceImpl(tokenRevocationRegistry, SECRET, 100);
+    }
+
+    private String token(String jti, Instant expiresAt) {
+        return jwtTokenService.sign(new JWTClaimsSet.Builder()
+                .subject("johndoe")
+                .jwtID(jti)
+                .expirationTime(Date.from(expiresAt))
+                .build());
+    }
+
+    private static void assertUnauthenticated(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    @Test
+    @DisplayName("Token lặp lại lấy kết quả verify từ cache, vẫn kiểm tra thu hồi mỗi lần")
+    void verify_CachesSignatureCheck() {
+        String token = token("jti-1", Instant.now().plus(10, ChronoUnit.MINUTES));
+
+        VerifiedToken first = jwtTokenService.verify(token);
+        VerifiedToken second = jwtTokenService.verify(token);
+
+        assertThat(second).isSameAs(first);
+        assertThat(second.jti()).isEqualTo("jti-1");
+        verify(tokenRevocationRegistry, times(2)).isRevoked("jti-1");
+    }
+
+    @Test
+    @DisplayName("Entry đã cache bị từ chối khi tới exp")
+    void verify_CachedTokenExpiresAtExp() throws InterruptedException {
+        // exp của JWT tính theo giây
+        Instant expiresAt = Instant.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+        String token = token("jti-1", expiresAt);
+        assertThat(jwtTokenService.verify(token).expiresAt()).isEqualTo(expiresAt);
+
+        Thread.sleep(Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis()) + 50);
+
+        assertUnauthenticated(() -> jwtTokenService.verify(token));
+    }
+
+    @Test
+    @DisplayName("Token bị thu hồi sau khi đã cache vẫn bị từ chối")
+    void verify_RevocationBypassesCache() {
+        String token = token("jti-1", Instant.now().plus(10, ChronoUnit.MINUTES));
+        jwtTokenService.verify(token);
+
+        when(tokenRevocationRegistry.isRevoked("jti-1")).thenReturn(true);
+
+        assertUnauthenticated(() -> jwtTokenService.verify(token));
+    }
+
+    @Test
+    @DisplayName("Token ký bằng secret khác hoặc bị sửa chữ ký không trùng entry đã cache")
+    void verify_RejectsForgedToken() throws JOSEException {
+        JwtTokenServiceImpl other =
+                new JwtTokenServiceImpl(tokenRevocationRegistry, SECRET.replace('0', 'x'), 100);
+        String forged = other.sign(new JWTClaimsSet.Builder()
+                .jwtID("jti-1")
+                .expirationTime(Date.from(Instant.now().plus(10, ChronoUnit.MINUTES)))
+                .build());
+        String token = token("jti-1", Instant.now().plus(10, ChronoUnit.MINUTES));
+        jwtTokenService.verify(token);
+
+        int signature = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signature) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signature) + replacement + token.substring(signature + 1);
+
+        assertUnauthenticated(() -> jwtTokenService.verify(forged));
+        assertUnauthenticated(() -> jwtTokenService.verify(tampered));
+    }
+
+    @Test
+    @DisplayName("Token phát hành trước mốc thu hồi của user bị từ chối dù đã cache")
+    void verify_RejectsTokenIssuedBeforeUserCutoff() {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        String token = jwtTokenService.sign(new JWTClaimsSet.Builder()
+                .subject("johndoe")
+                .jwtID("jti-1")
+                .issueTime(Date.from(issuedAt))
+                .expirationTime(Date.from(issuedAt.plus(10, ChronoUnit.MINUTES)))
+                .claim("userId", 1L)
+                .build());
+        jwtTokenService.verify(token);
+
+        when(tokenRevocationRegistry.isRevokedForUser(1L, issuedAt)).thenReturn(true);
+
+        assertUnauthenticated(() -> jwtTokenService.verify(token));
+    }
+}
@@ -12,10 +12,13 @@ import org.example.cv.exceptions.ErrorCode;
 import org.example.cv.models.entities.ProjectEntity;
 import org.example.cv.models.entities.UserEntity;
 import org.example.cv.models.requests.ProjectRequest;
+import org.example.cv.models.responses.PageResponse;
 import org.example.cv.models.responses.ProjectResponse;
 import org.example.cv.repositories.ProjectRepository;
 import org.example.cv.repositories.UserRepository;
 import org.example.cv.services.impl.ProjectServiceImpl;
+import org.example.cv.utils.cache.NegativeLookupCache;
+import org.example.cv.utils.cache.ProjectListCache;
 import org.example.cv.utils.mapper.ProjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -40,6 +43,12 @@ class ProjectServiceTest {
     @Mock
     private ProjectMapper projectMapper;
 
+    @Mock
+    private ProjectListCache projectListCache;
+
+    @Mock
+    private NegativeLookupCache negativeLookupCache;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -101,12 +110,12 @@ class ProjectServiceTest {
         when(projectMapper.toResponse(any(ProjectEntity.class))).thenReturn(projectResponse);
 
         // Act
-        Page<ProjectResponse> result = projectService.getAll(0, 10, "name", "ASC", "");
+        PageResponse<ProjectResponse> result = projectService.getAll(0, 10, "name", "ASC", "");
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getContent().size());
-        assertEquals(projectResponse, result.getContent().get(0));
+        assertEquals(1, result.content().size());
+        assertEquals(projectResponse, result.content().get(0));
         verify(projectRepository).findAll(pageable, "");
         verify(projectMapper).toResponse(project);
     }
@@ -136,6 +145,20 @@ class ProjectServiceTest {
         AppException exception = assertThrows(AppException.class, () -> projectService.getById(1L));
         assertEquals(ErrorCode.PROJECT_NOT_EXISTED, exception.getErrorCode());
         verify(projectRepository).findById(1L);
+        verify(negativeLookupCache).markMissing(NegativeLookupCache.PROJECT, 1L);
+    }
+
+    @Test
+    void getById_RecentlyMissingId_ThrowsWithoutQuery() {
+        // Arrange
+        doThrow(new AppException(ErrorCode.PROJECT_NOT_EXISTED))
+                .when(negativeLookupCache)
+                .throwIfMissing(NegativeLookupCache.PROJECT, 99L, ErrorCode.PROJECT_NOT_EXISTED);
+
+        // Act & Assert
+        AppException exception = assertThrows(AppException.class, () -> projectService.getById(99L));
+        assertEquals(ErrorCode.PROJECT_NOT_EXISTED, exception.getErrorCode());
+        verify(projectRepository, never()).findById(99L);
     }
 
     @Test
@@ -156,6 +179,7 @@ class ProjectServiceTest {
         verify(projectMapper).toEntity(projectRequest);
         verify(projectRepository).save(project);
         verify(projectMapper).toResponse(project);
+        verify(negativeLookupCache).forget(NegativeLookupCache.PROJECT, 1L);
     }
 
     @Test
@@ -214,6 +238,7 @@ class ProjectServiceTest {
         // Assert
         verify(projectRepository).findById(1L);
         verify(projectRepository).softDeleteByIds(Collections.singletonList(1L));
+        verify(projectListCache).evictFor(project);
     }
 
     @Test
@@ -261,13 +286,28 @@ class ProjectServiceTest {
         when(projectMapper.toResponse(any(ProjectEntity.class))).thenReturn(projectResponse);
 
         // Act
-        Page<ProjectResponse> result = projectService.getAllByOwnerId(1L, 0, 10, "name", "ASC", "");
+        PageResponse<ProjectResponse> result = projectService.getAllByOwnerId(1L, 0, 10, "name", "ASC", "");
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.getContent().size());
-        assertEquals(projectResponse, result.getContent().get(0));
+        assertEquals(1, result.content().size());
+        assertEquals(projectResponse, result.content().get(0));
         verify(projectRepository).findAllByOwnerId(pageable, "", 1L);
         verify(projectMapper).toResponse(project);
     }
+
+    @Test
+    void changeOwner_ValidUser_EvictsListsOfPreviousOwner() {
+        // Arrange
+        UserEntity newOwner = UserEntity.builder().id(2L).username("newowner").build();
+        when(userRepository.findById(2L)).thenReturn(Optional.of(newOwner));
+
+        // Act
+        projectService.changeOwner(1L, 2L);
+
+        // Assert
+        assertEquals(newOwner, project.getOwner());
+        verify(projectRepository).save(project);
+        verify(projectListCache).evictFor(project, 1L);
+    }
 }
@@ -8,7 +8,6 @@ import static org.mockito.Mockito.*;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -77,7 +76,7 @@ class TaskServiceImplTest {
                 TaskStatus.DONE,
                 null,
                 Instant.now().plus(5, ChronoUnit.DAYS),
-                List.of(1L) // Thêm một assignee mới với ID 10
+                Set.of(1L) // Thêm một assignee mới với ID 10
                 );
 
         when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
@@ -109,7 +108,7 @@ class TaskServiceImplTest {
                 TaskStatus.IN_PROGRESS, // Không thể từ CANCELLED -> IN_PROGRESS
                 null,
                 null,
-                List.of(10L));
+                Set.of(10L));
 
         when(taskRepository.findById(1L)).thenReturn(Optional.of(existingTask));
 
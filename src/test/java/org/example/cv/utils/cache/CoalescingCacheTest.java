@@ -0,0 +1,197 @@
+package org.example.cv.utils.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CoalescingCacheTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrentMapCache delegate = new ConcurrentMapCache("cache-task-details");
+    private final CoalescingCache cache = new CoalescingCache(
+            delegate, meterRegistry, null, null, null, null, new RefreshAheadPolicy(0.2, 1.0), null);
+    private final ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    private double coalesced() {
+        return meterRegistry
+                .get("cache.loads.coalesced")
+                .tag("scope", "local")
+                .counter()
+                .count();
+    }
+
+    // Chặn loader tới khi mọi caller khác đã chờ chung future của nó
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    @DisplayName("Miss đồng thời trên một key: loader chỉ chạy một lần, mọi caller nhận cùng giá trị")
+    void concurrentMisses_loadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "task-1";
+            })));
+        }
+
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("task-1");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.loads").counter().count()).isEqualTo(1);
+        assertThat(delegate.get(1L).get()).isInstanceOf(CacheEnvelope.class);
+        assertThat(cache.get(1L).get()).isEqualTo("task-1");
+    }
+
+    @Test
+    @DisplayName("Loader lỗi: mọi caller đang chờ nhận cùng exception, không cache gì và lần sau load lại")
+    void loaderFailure_propagatesToAllCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(callers.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                release.await();
+                throw new IllegalStateException("db down");
+            })));
+        }
+
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .cause()
+                    .isInstanceOf(Cache.ValueRetrievalException.class)
+                    .hasRootCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("db down");
+        }
+        assertThat(loads).hasValue(1);
+        assertThat(delegate.get(1L)).isNull();
+        assertThat(cache.get(1L, () -> "task-1")).isEqualTo("task-1");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("Key khác nhau không chờ nhau")
+    void differentKeys_loadIndependently() {
+        assertThat(cache.get(1L, () -> "task-1")).isEqualTo("task-1");
+        assertThat(cache.get(2L, () -> "task-2")).isEqualTo("task-2");
+        assertThat(cache.get(1L, () -> "other")).isEqualTo("task-1");
+
+        assertThat(meterRegistry.get("cache.loads").counter().count()).isEqualTo(2);
+        assertThat(coalesced()).isZero();
+    }
+
+    @Test
+    @DisplayName("Refresh-ahead của @Cacheable gọi lại method qua proxy, không gọi lại loader đã dùng")
+    void refreshAhead_reinvokesThroughProxy() {
+        // ratio 1.0: mọi lần hit đều refresh; executor đồng bộ để kiểm tra ngay
+        CoalescingCache refreshing = new CoalescingCache(
+                delegate,
+                meterRegistry,
+                null,
+                null,
+                null,
+                Duration.ofMinutes(10),
+                new RefreshAheadPolicy(1.0, 0),
+                Runnable::run);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new TaskLoader(refreshing));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new CacheRefreshAspect());
+        TaskLoader loader = factory.getProxy();
+
+        assertThat(loader.load(1L)).isEqualTo("task-1-v1");
+        // Hit trả giá trị cũ; refresh là lần gọi thứ ba qua proxy, với loader mới của chính nó
+        assertThat(loader.load(1L)).isEqualTo("task-1-v1");
+        assertThat(loader.invocations()).isEqualTo(3);
+        assertThat(refreshing.get(1L).get()).isEqualTo("task-1-v3");
+        assertThat(meterRegistry.get("cache.refresh.ahead").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Refresh-ahead khi gọi cache trực tiếp: load lại bằng chính loader được truyền vào")
+    void refreshAhead_programmaticLoader() {
+        CoalescingCache refreshing = new CoalescingCache(
+                delegate,
+                meterRegistry,
+                null,
+                null,
+                null,
+                Duration.ofMinutes(10),
+                new RefreshAheadPolicy(1.0, 0),
+                Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> valueLoader = () -> "task-1-v" + loads.incrementAndGet();
+
+        assertThat(refreshing.get(1L, valueLoader)).isEqualTo("task-1-v1");
+        assertThat(refreshing.get(1L, valueLoader)).isEqualTo("task-1-v1");
+        assertThat(refreshing.get(1L).get()).isEqualTo("task-1-v2");
+    }
+
+    // Giả lập interceptor @Cacheable(sync = true): mỗi lần gọi truyền một loader chỉ dùng được một lần
+    static class TaskLoader {
+        private final Cache cache;
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        TaskLoader(Cache cache) {
+            this.cache = cache;
+        }
+
+        public int invocations() {
+            return invocations.get();
+        }
+
+        @Cacheable("cache-task-details")
+        public String load(Long id) {
+            AtomicBoolean used = new AtomicBoolean();
+            int version = invocations.incrementAndGet();
+            return cache.get(id, () -> {
+                if (used.getAndSet(true)) {
+                    throw new IllegalStateException("loader reused");
+                }
+                return "task-" + id + "-v" + version;
+            });
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.cv.utils.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.example.cv.constants.TaskPriority;
+import org.example.cv.constants.TaskStatus;
+import org.example.cv.models.responses.PageResponse;
+import org.example.cv.models.responses.ProjectResponse;
+import org.example.cv.models.responses.ProjectSummaryResponse;
+import org.example.cv.models.responses.RoleResponse;
+import org.example.cv.models.responses.TaskResponse;
+import org.example.cv.models.responses.UserResponse;
+import org.example.cv.models.responses.UserSummaryResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+
+class SmileRedisSerializerTest {
+
+    private final SmileRedisSerializer serializer = CacheSerializers.smile();
+
+    static TaskResponse task(long id) {
+        return new TaskResponse(
+                id,
+                "Thiết kế API",
+                "Các endpoint cho Task",
+                TaskStatus.IN_PROGRESS,
+                TaskPriority.HIGH,
+                Instant.parse("2099-11-30T18:00:00Z"),
+                Instant.parse("2025-10-25T14:30:00Z"),
+                new ProjectSummaryResponse(1L, "Task Manager App"),
+                List.of(new UserSummaryResponse(10L, "johndoe", "John Doe")),
+                false);
+    }
+
+    static UserResponse user(long id) {
+        return UserResponse.builder()
+                .id(id)
+                .username("user" + id)
+                .firstName("John")
+                .lastName("Doe")
+                .email("user" + id + "@example.com")
+                .roles(Set.of(new RoleResponse("USER", "Default role")))
+                .build();
+    }
+
+    static ProjectResponse project(long id) {
+        return ProjectResponse.builder()
+                .id(id)
+                .name("Task Manager App")
+                .description("Quản lý công việc")
+                .owner(user(1L))
+                .members(Set.of(user(1L), user(2L)))
+                .createdAt(Instant.parse("2025-10-01T00:00:00Z"))
+                .build();
+    }
+
+    private Object roundTrip(Object value) {
+        return serializer.deserialize(serializer.serialize(value));
+    }
+
+    @Test
+    @DisplayName("DTO đã đăng ký: ghi bằng type id và đọc lại đúng class")
+    void registeredTypes_roundTrip() {
+        byte[] bytes = serializer.serialize(task(1L));
+
+        assertThat(bytes[0]).isEqualTo((byte) 0x01);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(task(1L));
+        assertThat(roundTrip(project(5L))).isEqualTo(project(5L));
+        assertThat(roundTrip(user(3L))).isEqualTo(user(3L));
+    }
+
+    @Test
+    @DisplayName("PageResponse của DTO đã đăng ký: phần tử đọc lại đúng class, kể cả trang rỗng")
+    void pageResponse_roundTrip() {
+        PageResponse<TaskResponse> page = new PageResponse<>(List.of(task(1L), task(2L)), 0, 20, 2, 1, true);
+        PageResponse<TaskResponse> empty = new PageResponse<>(List.of(), 3, 20, 60, 3, true);
+
+        Object read = roundTrip(page);
+
+        assertThat(read).isEqualTo(page);
+        assertThat(((PageResponse<?>) read).content()).allSatisfy(t -> assertThat(t).isInstanceOf(TaskResponse.class));
+        assertThat(roundTrip(empty)).isEqualTo(empty);
+    }
+
+    @Test
+    @DisplayName("CacheEnvelope và NullValue giữ nguyên metadata / sentinel")
+    void envelopeAndNullValue_roundTrip() {
+        CacheEnvelope envelope = new CacheEnvelope(project(7L), 1_700_000_000_000L, 42L);
+
+        assertThat(roundTrip(envelope)).isEqualTo(envelope);
+        assertThat(roundTrip(NullValue.INSTANCE)).isSameAs(NullValue.INSTANCE);
+    }
+
+    @Test
+    @DisplayName("Kiểu chưa đăng ký dùng JSON fallback, entry JSON cũ trong Redis vẫn đọc được")
+    void unregisteredAndLegacyJson_useFallback() {
+        ProjectSummaryResponse summary = new ProjectSummaryResponse(1L, "Task Manager App");
+        PageResponse<ProjectSummaryResponse> page = new PageResponse<>(List.of(summary), 0, 20, 1, 1, true);
+        byte[] legacy = CacheSerializers.json().serialize(task(9L));
+
+        assertThat(roundTrip(summary)).isEqualTo(summary);
+        assertThat(roundTrip(page)).isEqualTo(page);
+        assertThat(serializer.deserialize(legacy)).isEqualTo(task(9L));
+    }
+
+    @Test
+    @DisplayName("Không cho đăng ký trùng id hoặc trùng class")
+    void register_duplicate_rejected() {
+        assertThatThrownBy(() -> CacheSerializers.smile().register(1, ProjectSummaryResponse.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CacheSerializers.smile().register(99, TaskResponse.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.cv.utils.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.example.cv.models.responses.ProjectResponse;
+import org.example.cv.models.responses.TaskResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class TwoLevelCacheTest {
+
+    /**
+     * L2 giả lập Redis: chỉ giữ byte[] đã serialize nên mỗi lần đọc là một bản sao mới.
+     */
+    static class BytesCache extends AbstractValueAdaptingCache {
+        final Map<Object, byte[]> store = new ConcurrentHashMap<>();
+        final RedisSerializer<Object> serializer;
+
+        BytesCache(RedisSerializer<Object> serializer) {
+            super(true);
+            this.serializer = serializer;
+        }
+
+        @Override
+        protected Object lookup(Object key) {
+            byte[] bytes = store.get(key);
+            return bytes == null ? null : serializer.deserialize(bytes);
+        }
+
+        @Override
+        public String getName() {
+            return "remote";
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return store;
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            store.put(key, serializer.serialize(toStoreValue(value)));
+        }
+
+        @Override
+        public void evict(Object key) {
+            store.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            store.clear();
+        }
+    }
+
+    private final BytesCache remote = new BytesCache(CacheSerializers.smile());
+    private final List<String> published = new ArrayList<>();
+    private final TwoLevelCache cache = new TwoLevelCache(
+            "cache-task-details",
+            Caffeine.newBuilder().maximumSize(100).build(),
+            remote,
+            (name, key) -> published.add(name + ":" + key));
+
+    @Test
+    @DisplayName("L1 trống (node khác / sau invalidation): đọc từ L2 ra đúng record và nạp lại L1")
+    void get_afterLocalInvalidation_readsDeserializedValueFromRemote() {
+        TaskResponse task = SmileRedisSerializerTest.task(1L);
+        cache.put(1L, task);
+        cache.invalidateLocal("1");
+
+        Object read = cache.get(1L).get();
+
+        assertThat(read).isEqualTo(task).isNotSameAs(task);
+        assertThat(cache.getLocalCache().getIfPresent("1")).isSameAs(read);
+        assertThat(published).containsExactly("cache-task-details:1");
+    }
+
+    @Test
+    @DisplayName("get(key, loader): miss gọi loader một lần rồi lưu cả hai tầng")
+    void getWithLoader_missLoadsOnceAndStoresBothLevels() {
+        AtomicInteger calls = new AtomicInteger();
+        ProjectResponse project = SmileRedisSerializerTest.project(5L);
+
+        ProjectResponse first = cache.get(5L, () -> {
+            calls.incrementAndGet();
+            return project;
+        });
+        cache.invalidateLocal(null);
+        ProjectResponse second = cache.get(5L, () -> {
+            calls.incrementAndGet();
+            return project;
+        });
+
+        assertThat(calls).hasValue(1);
+        assertThat(first).isEqualTo(project);
+        assertThat(second).isEqualTo(project);
+        assertThat(remote.store).containsKey(5L);
+    }
+
+    @Test
+    @DisplayName("evict: xóa cả hai tầng và phát invalidation cho node khác")
+    void evict_removesBothLevelsAndPublishes() {
+        cache.put(1L, SmileRedisSerializerTest.task(1L));
+
+        cache.evict(1L);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(remote.store).isEmpty();
+        assertThat(published).containsExactly("cache-task-details:1", "cache-task-details:1");
+    }
+}
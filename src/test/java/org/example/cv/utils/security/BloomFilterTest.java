@@ -0,0 +1,56 @@
+package org.example.cv.utils.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("Kích thước theo công thức chuẩn: m = -n ln p / (ln 2)^2, k = m / n ln 2")
+    void sizing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        // m = 9586 bit, làm tròn lên bội số 64
+        assertThat(filter.bitCount()).isEqualTo(9_600);
+        assertThat(filter.hashCount()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("expectedInsertions <= 0 vẫn dựng được filter hợp lệ")
+    void sizing_degenerateInput() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertThat(filter.bitCount()).isEqualTo(64);
+        assertThat(filter.hashCount()).isPositive();
+        filter.put("jti-1");
+        assertThat(filter.mightContain("jti-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Không có false negative")
+    void noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("jti-" + i));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("jti-" + i)))
+                .isTrue();
+    }
+
+    @Test
+    @DisplayName("Tỉ lệ false positive ở sức chứa thiết kế gần với mục tiêu")
+    void falsePositiveRate() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("jti-" + i));
+
+        int probes = 100_000;
+        long falsePositives = IntStream.range(0, probes)
+                .filter(i -> filter.mightContain("other-" + i))
+                .count();
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,122 @@
+package org.example.cv.utils.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (encoder != null) {
+            encoder.destroy();
+        }
+    }
+
+    // Delegate chặn tới khi test cho chạy tiếp, giả lập BCrypt chậm
+    private final PasswordEncoder blockingDelegate = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    };
+
+    private static void assertBusy(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .satisfies(errorCode -> {
+                    assertThat(errorCode).isEqualTo(ErrorCode.PASSWORD_HASHING_BUSY);
+                    assertThat(errorCode.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                });
+    }
+
+    @Test
+    @DisplayName("Pool và hàng đợi đầy: request kế tiếp bị từ chối ngay với 503")
+    void saturated_rejectsWith503() throws Exception {
+        encoder = new BoundedPasswordEncoder(
+                blockingDelegate, 1, 1, Duration.ofSeconds(5), meterRegistry);
+        Future<String> running = callers.submit(() -> encoder.encode("a"));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<String> queued = callers.submit(() -> encoder.encode("b"));
+        awaitQueued();
+
+        assertBusy(() -> encoder.encode("c"));
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hash:a");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hash:b");
+    }
+
+    @Test
+    @DisplayName("Hash quá timeout thì 503 thay vì giữ thread của Tomcat")
+    void timeout_rejectsWith503() {
+        encoder = new BoundedPasswordEncoder(
+                blockingDelegate, 1, 1, Duration.ofMillis(50), meterRegistry);
+
+        assertBusy(() -> encoder.matches("a", "hash:a"));
+    }
+
+    @Test
+    @DisplayName("Kết quả và exception của delegate được trả nguyên vẹn")
+    void delegatesResult() {
+        release.countDown();
+        encoder = new BoundedPasswordEncoder(
+                blockingDelegate, 1, 1, Duration.ofSeconds(5), meterRegistry);
+
+        assertThat(encoder.encode("a")).isEqualTo("hash:a");
+        assertThat(encoder.matches("a", "hash:a")).isTrue();
+        assertThatThrownBy(() -> encoder.matches("a", null)).isInstanceOf(NullPointerException.class);
+    }
+
+    // Chờ task thứ hai nằm trong hàng đợi của pool
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (queued() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private double queued() {
+        return meterRegistry
+                .get("executor.queued")
+                .tag("name", "password-hash")
+                .gauge()
+                .value();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.cv.utils.security;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LoginConcurrencyLimiterTest {
+
+    private final LoginConcurrencyLimiter limiter = new LoginConcurrencyLimiter(2, 8);
+    private final List<LoginConcurrencyLimiter.Permit> held = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        held.forEach(LoginConcurrencyLimiter.Permit::close);
+    }
+
+    private LoginConcurrencyLimiter.Permit hold(String username, String ip) {
+        LoginConcurrencyLimiter.Permit permit = limiter.acquire(username, ip);
+        held.add(permit);
+        return permit;
+    }
+
+    private void assertRejected(String username, String ip) {
+        assertThatThrownBy(() -> limiter.acquire(username, ip))
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.TOO_MANY_LOGIN_ATTEMPTS);
+    }
+
+    @Test
+    @DisplayName("Vượt giới hạn theo username (không phân biệt hoa thường, khoảng trắng) thì 429")
+    void perUsernameLimit() {
+        hold("johndoe", "10.0.0.1");
+        hold(" JohnDoe ", "10.0.0.2");
+
+        assertRejected("JOHNDOE", "10.0.0.3");
+    }
+
+    @Test
+    @DisplayName("Trả permit thì slot được dùng lại")
+    void releaseFreesSlot() {
+        LoginConcurrencyLimiter.Permit first = limiter.acquire("johndoe", "10.0.0.1");
+        hold("johndoe", "10.0.0.1");
+        assertRejected("johndoe", "10.0.0.1");
+
+        first.close();
+
+        assertThatCode(() -> hold("johndoe", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("Vượt giới hạn theo IP thì 429 và slot username vừa giữ được trả lại")
+    void perIpLimit_releasesUsernameSlot() {
+        for (int i = 0; i < 8; i++) {
+            hold("user" + i, "10.0.0.1");
+        }
+
+        assertRejected("johndoe", "10.0.0.1");
+        assertRejected("johndoe", "10.0.0.1");
+
+        // Hai lần bị từ chối theo IP không giữ slot của johndoe
+        hold("johndoe", "10.0.0.2");
+        hold("johndoe", "10.0.0.3");
+    }
+
+    @Test
+    @DisplayName("Permit dùng trong try-with-resources trả slot cả khi login lỗi")
+    void tryWithResources_releasesOnFailure() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> {
+                        try (var permit = limiter.acquire("johndoe", "10.0.0.1")) {
+                            throw new AppException(ErrorCode.UNAUTHENTICATED);
+                        }
+                    })
+                    .isInstanceOf(AppException.class)
+                    .extracting(e -> ((AppException) e).getErrorCode())
+                    .isEqualTo(ErrorCode.UNAUTHENTICATED);
+        }
+
+        hold("johndoe", "10.0.0.1");
+        hold("johndoe", "10.0.0.1");
+    }
+}
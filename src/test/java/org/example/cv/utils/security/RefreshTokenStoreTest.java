@@ -0,0 +1,191 @@
+package org.example.cv.utils.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.example.cv.exceptions.AppException;
+import org.example.cv.exceptions.ErrorCode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Chạy các script Lua trên Redis thật (REDIS_HOST / REDIS_PORT, mặc định localhost:6379); bỏ qua nếu không có Redis.
+ */
+class RefreshTokenStoreTest {
+
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private RefreshTokenStore store;
+    private long userId;
+
+    @BeforeAll
+    static void connect() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getenv().getOrDefault("REDIS_HOST", "localhost"),
+                Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379")));
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        try (var connection = connectionFactory.getConnection()) {
+            connection.ping();
+        } catch (RuntimeException e) {
+            connectionFactory.destroy();
+            Assumptions.abort("Redis is not available: " + e.getMessage());
+        }
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshTokenStore(redisTemplate, Duration.ofMinutes(5), Duration.ofMinutes(30));
+        userId = ThreadLocalRandom.current().nextLong(1_000_000, Long.MAX_VALUE);
+    }
+
+    private static void assertUnauthenticated(Runnable call) {
+        assertThatThrownBy(call::run)
+                .isInstanceOf(AppException.class)
+                .extracting(e -> ((AppException) e).getErrorCode())
+                .isEqualTo(ErrorCode.UNAUTHENTICATED);
+    }
+
+    private static String familyOf(String token) {
+        return token.substring(0, token.indexOf('.'));
+    }
+
+    private Long ttlMillis(String key) {
+        return redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    @DisplayName("Xoay vòng trả phiên và token mới cùng family; token cũ hết hiệu lực")
+    void rotate_IssuesNextTokenInFamily() {
+        String token = store.issue(userId, "johndoe", "ROLE_USER");
+
+        RefreshTokenStore.RefreshSession session = store.rotate(token);
+
+        assertThat(session.userId()).isEqualTo(userId);
+        assertThat(session.username()).isEqualTo("johndoe");
+        assertThat(session.scope()).isEqualTo("ROLE_USER");
+        assertThat(familyOf(session.refreshToken())).isEqualTo(familyOf(token));
+        assertThat(store.rotate(session.refreshToken()).refreshToken()).isNotEqualTo(session.refreshToken());
+    }
+
+    @Test
+    @DisplayName("Dùng lại token đã xoay vòng thu hồi cả family, kể cả token mới nhất")
+    void rotate_ReuseRevokesFamily() {
+        String token = store.issue(userId, "johndoe", "ROLE_USER");
+        String next = store.rotate(token).refreshToken();
+
+        assertUnauthenticated(() -> store.rotate(token));
+        assertUnauthenticated(() -> store.rotate(next));
+    }
+
+    @Test
+    @DisplayName("Xoay vòng không gia hạn family quá max-lifetime và token không sống quá hạn family")
+    void rotate_KeepsAbsoluteFamilyLifetime() {
+        store = new RefreshTokenStore(redisTemplate, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        String token = store.issue(userId, "johndoe", "ROLE_USER");
+        String familyKey = "refresh-family::" + familyOf(token);
+
+        String next = store.rotate(token).refreshToken();
+
+        assertThat(ttlMillis(familyKey)).isBetween(1L, 30_000L);
+        assertThat(ttlMillis("refresh-token::" + sha256Of(next))).isBetween(1L, 30_000L);
+        assertThat(ttlMillis("refresh-user::" + userId)).isBetween(1L, 30_000L);
+    }
+
+    @Test
+    @DisplayName("Logout chỉ thu hồi family khi secret khớp token hiện tại")
+    void revoke_RequiresCurrentSecret() {
+        String token = store.issue(userId, "johndoe", "ROLE_USER");
+
+        store.revoke(familyOf(token) + ".forged-secret");
+        store.revoke(familyOf(token));
+        String next = store.rotate(token).refreshToken();
+
+        store.revoke(token); // token đã xoay vòng, không còn là token hiện tại
+        String current = store.rotate(next).refreshToken();
+
+        store.revoke(current);
+        assertUnauthenticated(() -> store.rotate(current));
+    }
+
+    @Test
+    @DisplayName("revokeAllForUser thu hồi mọi family và xóa index của user")
+    void revokeAllForUser_RevokesEveryFamily() {
+        String web = store.issue(userId, "johndoe", "ROLE_USER");
+        String mobile = store.issue(userId, "johndoe", "ROLE_USER");
+        String rotated = store.rotate(mobile).refreshToken();
+
+        store.revokeAllForUser(userId);
+
+        assertUnauthenticated(() -> store.rotate(web));
+        assertUnauthenticated(() -> store.rotate(rotated));
+        assertThat(redisTemplate.hasKey("refresh-user::" + userId)).isFalse();
+    }
+
+    @Test
+    @DisplayName("revokeAllForUser trong transaction chỉ chạy sau khi commit")
+    void revokeAllForUser_DefersUntilCommit() {
+        String token = store.issue(userId, "johndoe", "ROLE_USER");
+        String familyKey = "refresh-family::" + familyOf(token);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.revokeAllForUser(userId);
+            assertThat(redisTemplate.hasKey(familyKey)).isTrue();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(redisTemplate.hasKey(familyKey)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Đăng nhập mới bỏ khỏi index các family đã thu hồi")
+    void issue_PrunesDeadFamilies() {
+        String loggedOut = store.issue(userId, "johndoe", "ROLE_USER");
+        store.revoke(loggedOut);
+
+        String active = store.issue(userId, "johndoe", "ROLE_USER");
+
+        assertThat(redisTemplate.opsForSet().members("refresh-user::" + userId))
+                .containsExactly(familyOf(active));
+        store.revokeAllForUser(userId);
+    }
+
+    private static String sha256Of(String value) {
+        try {
+            return HexFormat.of()
+                    .formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
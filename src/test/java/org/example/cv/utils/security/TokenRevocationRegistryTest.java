@@ -0,0 +1,195 @@
+package org.example.cv.utils.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.example.cv.event.TokenRevokedEvent;
+import org.example.cv.event.UserTokensRevokedEvent;
+import org.example.cv.models.entities.InvalidatedToken;
+import org.example.cv.repositories.InvalidedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+class TokenRevocationRegistryTest {
+
+    private static final String CHANNEL = "token-revocations";
+    private static final Instant EXPIRES_AT = Instant.now().plus(1, ChronoUnit.HOURS);
+
+    private InvalidedTokenRepository invalidedTokenRepository;
+    private StringRedisTemplate redisTemplate;
+    private ApplicationEventPublisher eventPublisher;
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        invalidedTokenRepository = mock(InvalidedTokenRepository.class);
+        redisTemplate = mock(StringRedisTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        hashOperations = mock(HashOperations.class);
+        when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+    }
+
+    private TokenRevocationRegistry registry(long expectedInsertions) {
+        return new TokenRevocationRegistry(
+                invalidedTokenRepository,
+                redisTemplate,
+                mock(RedisMessageListenerContainer.class),
+                eventPublisher,
+                CHANNEL,
+                expectedInsertions,
+                0.01,
+                60_000,
+                3_600_000);
+    }
+
+    private static InvalidatedToken invalidated(String jti) {
+        return InvalidatedToken.builder().id(jti).expiryTime(Date.from(EXPIRES_AT)).build();
+    }
+
+    private static DefaultMessage message(String jti) {
+        String body = EXPIRES_AT.toEpochMilli() + ":" + jti;
+        return new DefaultMessage(
+                CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("rebuild nạp jti từ DB; jti khác dừng ở Bloom, không query DB")
+    void rebuild_LoadsRevokedTokens() {
+        when(invalidedTokenRepository.findAllByExpiryTimeAfter(any())).thenReturn(List.of(invalidated("jti-1")));
+        TokenRevocationRegistry registry = registry(1_000);
+
+        registry.rebuild();
+
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+        assertThat(registry.isRevoked("jti-2")).isFalse();
+        verify(invalidedTokenRepository, never()).existsById(any());
+    }
+
+    @Test
+    @DisplayName("revoke ngoài transaction: ghi nhận ngay, phát event và publish lên Redis")
+    void revoke_AddsAndPublishes() {
+        TokenRevocationRegistry registry = registry(1_000);
+
+        registry.revoke("jti-1", Date.from(EXPIRES_AT));
+
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+        verify(redisTemplate).convertAndSend(CHANNEL, EXPIRES_AT.toEpochMilli() + ":jti-1");
+        verify(eventPublisher).publishEvent(any(TokenRevokedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Message pub/sub từ node khác được ghi nhận; message sai định dạng bị bỏ qua")
+    void onMessage_AddsRevokedToken() {
+        TokenRevocationRegistry registry = registry(1_000);
+
+        registry.onMessage(message("jti-1"), null);
+        registry.onMessage(
+                new DefaultMessage(
+                        CHANNEL.getBytes(StandardCharsets.UTF_8), "not-a-number:jti-2".getBytes(StandardCharsets.UTF_8)),
+                null);
+
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+        verify(eventPublisher, times(1)).publishEvent(any(TokenRevokedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Bloom false positive: DB chỉ được hỏi một lần, tới khi jti thực sự bị thu hồi")
+    void falsePositive_IsMemoized() {
+        // Filter 64 bit bị lấp đầy: mọi jti khác đều dương tính giả
+        TokenRevocationRegistry registry = registry(1);
+        IntStream.range(0, 500).forEach(i -> registry.onMessage(message("jti-" + i), null));
+
+        assertThat(registry.isRevoked("other")).isFalse();
+        assertThat(registry.isRevoked("other")).isFalse();
+        verify(invalidedTokenRepository, times(1)).existsById("other");
+
+        registry.onMessage(message("other"), null);
+        assertThat(registry.isRevoked("other")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Node bỏ lỡ message: jti chỉ được thấy sau khi subscribe lại channel")
+    void resubscribe_Rebuilds() {
+        TokenRevocationRegistry registry = registry(1_000);
+        registry.rebuild();
+
+        // Thu hồi đã commit ở node khác trong lúc node này mất kết nối Redis
+        when(invalidedTokenRepository.findAllByExpiryTimeAfter(any())).thenReturn(List.of(invalidated("jti-1")));
+        assertThat(registry.isRevoked("jti-1")).isFalse();
+
+        registry.onChannelSubscribed(CHANNEL.getBytes(StandardCharsets.UTF_8), 1);
+
+        assertThat(registry.isRevoked("jti-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Mốc thu hồi theo user: token phát hành trước mốc bị chặn, token sau mốc và user khác thì không")
+    void revokeIssuedBefore_RejectsOlderTokens() {
+        TokenRevocationRegistry registry = registry(1_000);
+        Instant before = Instant.now().minusSeconds(5);
+
+        registry.revokeIssuedBefore(1L);
+
+        assertThat(registry.isRevokedForUser(1L, before)).isTrue();
+        assertThat(registry.isRevokedForUser(1L, null)).isTrue();
+        assertThat(registry.isRevokedForUser(1L, Instant.now().plusSeconds(5))).isFalse();
+        assertThat(registry.isRevokedForUser(2L, before)).isFalse();
+        verify(hashOperations).put(eq(TokenRevocationRegistry.USER_CUTOFFS_KEY), eq("1"), any());
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), startsWith("user:1:"));
+        verify(eventPublisher).publishEvent(any(UserTokensRevokedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Mốc thu hồi theo user từ node khác được ghi nhận qua pub/sub")
+    void onMessage_AddsUserCutoff() {
+        TokenRevocationRegistry registry = registry(1_000);
+        Instant cutoff = Instant.now();
+
+        registry.onMessage(
+                new DefaultMessage(
+                        CHANNEL.getBytes(StandardCharsets.UTF_8),
+                        ("user:1:" + cutoff.toEpochMilli()).getBytes(StandardCharsets.UTF_8)),
+                null);
+        registry.onMessage(
+                new DefaultMessage(
+                        CHANNEL.getBytes(StandardCharsets.UTF_8), "user:oops".getBytes(StandardCharsets.UTF_8)),
+                null);
+
+        assertThat(registry.isRevokedForUser(1L, cutoff.minusSeconds(1))).isTrue();
+        assertThat(registry.isRevokedForUser(1L, cutoff.plusSeconds(1))).isFalse();
+        verify(eventPublisher, times(1)).publishEvent(any(UserTokensRevokedEvent.class));
+    }
+
+    @Test
+    @DisplayName("rebuild nạp mốc thu hồi theo user từ Redis và xóa mốc cũ hơn thời hạn access token")
+    void rebuild_LoadsUserCutoffs() {
+        Instant recent = Instant.now().minus(10, ChronoUnit.MINUTES);
+        Instant stale = Instant.now().minus(2, ChronoUnit.HOURS);
+        when(hashOperations.entries(TokenRevocationRegistry.USER_CUTOFFS_KEY))
+                .thenReturn(Map.of(
+                        "1", String.valueOf(recent.toEpochMilli()), "2", String.valueOf(stale.toEpochMilli())));
+        TokenRevocationRegistry registry = registry(1_000);
+
+        registry.rebuild();
+
+        assertThat(registry.isRevokedForUser(1L, recent.minusSeconds(1))).isTrue();
+        assertThat(registry.isRevokedForUser(2L, stale.minusSeconds(1))).isFalse();
+        verify(hashOperations).delete(TokenRevocationRegistry.USER_CUTOFFS_KEY, "2");
+    }
+}